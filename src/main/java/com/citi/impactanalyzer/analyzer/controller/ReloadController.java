@@ -0,0 +1,43 @@
+package com.citi.impactanalyzer.analyzer.controller;
+
+import com.citi.impactanalyzer.analyzer.domain.ReloadStatus;
+import com.citi.impactanalyzer.analyzer.service.ReloadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://localhost:4200")
+@RestController
+@RequestMapping("/reload")
+public class ReloadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReloadController.class);
+
+    private final ReloadService reloadService;
+
+    public ReloadController(ReloadService reloadService) {
+        this.reloadService = reloadService;
+    }
+
+    /**
+     * Starts rebuilding the graph and embedding store in the background. The current ones keep serving requests
+     * until the new ones are swapped in.
+     *
+     * @return 202 with the reload status; poll GET /reload for completion.
+     */
+    @PostMapping
+    public ResponseEntity<ReloadStatus> reload() {
+        logger.info("Received reload request");
+        reloadService.reload("endpoint");
+        return ResponseEntity.accepted().body(reloadService.getStatus());
+    }
+
+    /**
+     * Returns whether a reload is running, how the latest one went and the versions being served.
+     */
+    @GetMapping
+    public ResponseEntity<ReloadStatus> getStatus() {
+        return ResponseEntity.ok(reloadService.getStatus());
+    }
+}
@@ -0,0 +1,72 @@
+package com.citi.impactanalyzer.analyzer.domain;
+
+/**
+ * State of the background reload of the dependency graph and embedding store.
+ */
+public class ReloadStatus {
+
+    private final boolean running;
+    private final String trigger;
+    private final long startedAt;
+    private final long durationMs;
+    private final long graphVersion;
+    private final long embeddingVersion;
+    private final String error;
+
+    public ReloadStatus(boolean running, String trigger, long startedAt, long durationMs, long graphVersion,
+                        long embeddingVersion, String error) {
+        this.running = running;
+        this.trigger = trigger;
+        this.startedAt = startedAt;
+        this.durationMs = durationMs;
+        this.graphVersion = graphVersion;
+        this.embeddingVersion = embeddingVersion;
+        this.error = error;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * What started the latest reload: the endpoint or the schedule. Null before the first reload.
+     */
+    public String getTrigger() {
+        return trigger;
+    }
+
+    /**
+     * Start of the latest reload in epoch milliseconds, or 0.
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Duration of the latest completed reload.
+     */
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * Version of the graph queries are currently answered from.
+     */
+    public long getGraphVersion() {
+        return graphVersion;
+    }
+
+    /**
+     * Version of the embedding store prompts are currently answered from.
+     */
+    public long getEmbeddingVersion() {
+        return embeddingVersion;
+    }
+
+    /**
+     * Failure of the latest reload, or null when it succeeded.
+     */
+    public String getError() {
+        return error;
+    }
+}
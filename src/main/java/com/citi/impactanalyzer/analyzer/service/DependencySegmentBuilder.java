@@ -0,0 +1,232 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import com.citi.impactanalyzer.graph.domain.RelationType;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the entries of a dependency graph file into one short natural-language summary per source class, to be
+ * embedded in place of the raw JSON of every entry.
+ * <p>
+ * Edges are grouped by source class whether the file lists them one per entry (source/relation/target) or one array
+ * per relation. Each summary names the class and its package, counts the classes it depends on per relation, lists
+ * the most connected of them and the classes that depend on it; neighbours are ranked by how many edges join them
+ * to the class and cut off after {@code maxNeighbours}. Split by relation, a class gets one summary per relation
+ * instead, plus one for its dependents. Summaries come out in the order their classes first appear in the file, so
+ * an unchanged file gives the same texts.
+ */
+public final class DependencySegmentBuilder {
+
+    /**
+     * What one embedded segment covers.
+     */
+    public enum Mode {
+        /** One segment per graph file entry, holding its JSON. */
+        ENTRY,
+        /** One summary per source class. */
+        CLASS,
+        /** One summary per source class and relation, plus one for its dependents. */
+        RELATION
+    }
+
+    private final int maxNeighbours;
+    private final boolean splitByRelation;
+    // Each class name is kept once however many edges mention it
+    private final Map<String, String> names = new HashMap<>();
+    private final Map<String, ClassEdges> classes = new LinkedHashMap<>();
+    private long edgeCount;
+
+    public DependencySegmentBuilder(int maxNeighbours, boolean splitByRelation) {
+        this.maxNeighbours = Math.max(1, maxNeighbours);
+        this.splitByRelation = splitByRelation;
+    }
+
+    /**
+     * Adds the edges of one graph file entry and returns how many there were.
+     */
+    public int add(JsonNode entry) {
+        if (entry == null || !entry.hasNonNull("source")) return 0;
+        String source = entry.get("source").asText();
+        if (source.isBlank()) return 0;
+
+        if (entry.has("relation") && entry.has("target")) {
+            String target = entry.get("target").asText();
+            if (target == null || target.isBlank()) return 0;
+            RelationType relation = RelationType.from(entry.get("relation").asText());
+            addEdge(source, target, relation != null ? relation : RelationType.OTHER);
+            return 1;
+        }
+
+        int added = 0;
+        for (Iterator<Map.Entry<String, JsonNode>> it = entry.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            RelationType relation = RelationType.from(field.getKey());
+            if (relation == null || !field.getValue().isArray()) continue;
+            for (JsonNode target : field.getValue()) {
+                if (target == null || target.isNull() || target.asText().isBlank()) continue;
+                addEdge(source, target.asText(), relation);
+                added++;
+            }
+        }
+        if (added == 0) {
+            // A class with no recognised edges still gets a summary
+            classes.computeIfAbsent(intern(source), ClassEdges::new);
+        }
+        return added;
+    }
+
+    private void addEdge(String source, String target, RelationType relation) {
+        String from = intern(source);
+        String to = intern(target);
+        classes.computeIfAbsent(from, ClassEdges::new).add(relation, to);
+        edgeCount++;
+    }
+
+    private String intern(String name) {
+        String existing = names.putIfAbsent(name, name);
+        return existing != null ? existing : name;
+    }
+
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getClassCount() {
+        return classes.size();
+    }
+
+    /**
+     * The summaries of every source class added so far.
+     */
+    public List<String> build() {
+        // Dependents of each source class, with the number of edges from each
+        Map<String, Map<String, Integer>> dependents = new HashMap<>();
+        for (ClassEdges edges : classes.values()) {
+            for (Map.Entry<String, Integer> target : edges.weights().entrySet()) {
+                if (classes.containsKey(target.getKey()) && !target.getKey().equals(edges.name)) {
+                    dependents.computeIfAbsent(target.getKey(), k -> new LinkedHashMap<>())
+                            .put(edges.name, target.getValue());
+                }
+            }
+        }
+
+        List<String> segments = new ArrayList<>(splitByRelation ? classes.size() * 2 : classes.size());
+        for (ClassEdges edges : classes.values()) {
+            Map<String, Integer> usedBy = dependents.getOrDefault(edges.name, Map.of());
+            if (splitByRelation) {
+                addRelationSummaries(edges, usedBy, segments);
+            } else {
+                segments.add(classSummary(edges, usedBy));
+            }
+        }
+        return segments;
+    }
+
+    private String classSummary(ClassEdges edges, Map<String, Integer> usedBy) {
+        Map<String, Integer> weights = edges.weights();
+        StringBuilder text = header(edges.name);
+        if (edges.targets.isEmpty()) {
+            text.append(" It has no recorded dependencies.");
+        } else {
+            int relationCount = 0;
+            StringBuilder counts = new StringBuilder();
+            for (Map.Entry<RelationType, Map<String, Integer>> relation : edges.targets.entrySet()) {
+                relationCount += relation.getValue().size();
+                if (counts.length() > 0) counts.append(", ");
+                counts.append(relation.getKey()).append(' ').append(relation.getValue().size());
+            }
+            text.append(" Depends on ").append(plural(weights.size(), "class", "classes"))
+                    .append(" through ").append(plural(relationCount, "relation", "relations"))
+                    .append(": ").append(counts).append('.');
+            for (Map.Entry<RelationType, Map<String, Integer>> relation : edges.targets.entrySet()) {
+                text.append('\n').append(relation.getKey()).append(": ");
+                appendNeighbours(text, relation.getValue(), weights);
+            }
+        }
+        appendUsedBy(text, usedBy);
+        return text.toString();
+    }
+
+    private void addRelationSummaries(ClassEdges edges, Map<String, Integer> usedBy, List<String> segments) {
+        Map<String, Integer> weights = edges.weights();
+        for (Map.Entry<RelationType, Map<String, Integer>> relation : edges.targets.entrySet()) {
+            StringBuilder text = header(edges.name);
+            text.append(' ').append(relation.getKey()).append(' ')
+                    .append(plural(relation.getValue().size(), "class", "classes")).append(": ");
+            appendNeighbours(text, relation.getValue(), weights);
+            segments.add(text.toString());
+        }
+        if (!usedBy.isEmpty() || edges.targets.isEmpty()) {
+            StringBuilder text = header(edges.name);
+            if (usedBy.isEmpty()) {
+                text.append(" It has no recorded dependencies or dependents.");
+            }
+            appendUsedBy(text, usedBy);
+            segments.add(text.toString());
+        }
+    }
+
+    private static StringBuilder header(String name) {
+        int dot = name.lastIndexOf('.');
+        StringBuilder text = new StringBuilder(256);
+        text.append("Class ").append(dot >= 0 ? name.substring(dot + 1) : name).append(" (").append(name).append(") ");
+        return dot > 0 ? text.append("in package ").append(name, 0, dot).append('.') : text.append("in the default package.");
+    }
+
+    private void appendUsedBy(StringBuilder text, Map<String, Integer> usedBy) {
+        if (usedBy.isEmpty()) return;
+        text.append("\nUsed by ").append(plural(usedBy.size(), "class", "classes")).append(": ");
+        appendNeighbours(text, usedBy, usedBy);
+    }
+
+    // Most connected first, then by name, cut off after maxNeighbours
+    private void appendNeighbours(StringBuilder text, Map<String, Integer> neighbours, Map<String, Integer> weights) {
+        List<String> ranked = new ArrayList<>(neighbours.keySet());
+        ranked.sort(Comparator.<String>comparingInt(name -> -weights.getOrDefault(name, 0))
+                .thenComparing(Comparator.naturalOrder()));
+        int shown = Math.min(ranked.size(), maxNeighbours);
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) text.append(", ");
+            text.append(ranked.get(i));
+        }
+        if (ranked.size() > shown) {
+            text.append(" and ").append(ranked.size() - shown).append(" more");
+        }
+        text.append('.');
+    }
+
+    private static String plural(int count, String one, String many) {
+        return count + " " + (count == 1 ? one : many);
+    }
+
+    // Outgoing edges of one class: per relation, each target with the number of times it was reported
+    private static final class ClassEdges {
+        private final String name;
+        private final Map<RelationType, Map<String, Integer>> targets = new EnumMap<>(RelationType.class);
+
+        private ClassEdges(String name) {
+            this.name = name;
+        }
+
+        private void add(RelationType relation, String target) {
+            targets.computeIfAbsent(relation, r -> new LinkedHashMap<>()).merge(target, 1, Integer::sum);
+        }
+
+        // Edges to each target over all relations
+        private Map<String, Integer> weights() {
+            Map<String, Integer> weights = new HashMap<>();
+            for (Map<String, Integer> relation : targets.values()) {
+                relation.forEach((target, count) -> weights.merge(target, count, Integer::sum));
+            }
+            return weights;
+        }
+    }
+}
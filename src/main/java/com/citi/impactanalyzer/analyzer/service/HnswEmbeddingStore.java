@@ -0,0 +1,526 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.RelevanceScore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * In-process {@link EmbeddingStore} that answers searches from a Hierarchical Navigable Small World graph instead of
+ * scoring every stored vector.
+ * <p>
+ * Every vector is a node on the bottom layer, linked to up to {@code 2 * m} similar nodes; a random, exponentially
+ * shrinking subset also sits on the layers above with up to {@code m} links each. A search descends greedily from the
+ * top entry point and then explores the bottom layer with a candidate list of {@code efSearch} nodes, so it touches a
+ * few thousand vectors however many are stored. New nodes are linked using a candidate list of
+ * {@code efConstruction}. Larger values of all three trade speed and memory for recall.
+ * <p>
+ * Scores are the relevance score of the cosine similarity, as with {@code InMemoryEmbeddingStore}, so minimum scores
+ * carry over unchanged. Searches run concurrently; adding waits for running searches and blocks new ones, and a
+ * large {@link #addAll(List, List, List)} links its vectors on parallel threads. Metadata filters and removing single
+ * entries are not supported.
+ */
+public final class HnswEmbeddingStore implements EmbeddingStore<TextSegment> {
+
+    public static final int DEFAULT_M = 16;
+    public static final int DEFAULT_EF_CONSTRUCTION = 200;
+    public static final int DEFAULT_EF_SEARCH = 100;
+
+    // Batches smaller than this are linked on the calling thread
+    private static final int PARALLEL_THRESHOLD = 1024;
+    private static final int LOCK_STRIPES = 1024;
+
+    private final int m;
+    private final int maxLinks0;
+    private final int efConstruction;
+    private volatile int efSearch;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+
+    // Searches hold the read lock; adding holds the write lock, and its parallel linking threads take the stripe of
+    // every node whose links they read or change
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object[] stripes = new Object[LOCK_STRIPES];
+    private final Object entryLock = new Object();
+    private final ThreadLocal<VisitedSet> visited = ThreadLocal.withInitial(VisitedSet::new);
+
+    private int dimension;
+    private int size;
+    // Vector of node n at [n * dimension, (n + 1) * dimension)
+    private float[] vectors = new float[0];
+    private float[] norms = new float[0];
+    private int[] levels = new int[0];
+    // Bottom-layer links of node n at n * (maxLinks0 + 1): the count, then the neighbours
+    private int[] links0 = new int[0];
+    // Links on layers 1..level, m + 1 slots per layer laid out the same way; null for nodes only on the bottom layer
+    private int[][] upperLinks = new int[0][];
+    private String[] ids = new String[0];
+    private TextSegment[] segments = new TextSegment[0];
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswEmbeddingStore() {
+        this(DEFAULT_M, DEFAULT_EF_CONSTRUCTION, DEFAULT_EF_SEARCH);
+    }
+
+    /**
+     * @param m              Links per node on the upper layers; twice as many on the bottom layer.
+     * @param efConstruction Candidate list size used to pick the links of a new node.
+     * @param efSearch       Candidate list size of a search; raised to the requested number of results if lower.
+     */
+    public HnswEmbeddingStore(int m, int efConstruction, int efSearch) {
+        if (m < 2 || efConstruction < 1 || efSearch < 1) {
+            throw new IllegalArgumentException("HNSW parameters must be positive and m at least 2");
+        }
+        this.m = m;
+        this.maxLinks0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.efSearch = efSearch;
+        this.levelMultiplier = 1 / Math.log(m);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Changes the candidate list size of later searches; the graph does not need to be rebuilt.
+     */
+    public void setEfSearch(int efSearch) {
+        if (efSearch < 1) throw new IllegalArgumentException("efSearch must be positive");
+        this.efSearch = efSearch;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String add(Embedding embedding) {
+        String id = UUID.randomUUID().toString();
+        addAll(List.of(id), List.of(embedding), null);
+        return id;
+    }
+
+    @Override
+    public void add(String id, Embedding embedding) {
+        addAll(List.of(id), List.of(embedding), null);
+    }
+
+    @Override
+    public String add(Embedding embedding, TextSegment segment) {
+        String id = UUID.randomUUID().toString();
+        addAll(List.of(id), List.of(embedding), Collections.singletonList(segment));
+        return id;
+    }
+
+    @Override
+    public List<String> addAll(List<Embedding> embeddings) {
+        return addAll(embeddings, null);
+    }
+
+    @Override
+    public List<String> addAll(List<Embedding> embeddings, List<TextSegment> embedded) {
+        List<String> generated = new ArrayList<>(embeddings.size());
+        for (int i = 0; i < embeddings.size(); i++) {
+            generated.add(UUID.randomUUID().toString());
+        }
+        addAll(generated, embeddings, embedded);
+        return generated;
+    }
+
+    @Override
+    public void addAll(List<String> ids, List<Embedding> embeddings, List<TextSegment> embedded) {
+        if (ids.size() != embeddings.size() || (embedded != null && embedded.size() != embeddings.size())) {
+            throw new IllegalArgumentException("ids, embeddings and segments must have the same size");
+        }
+        if (embeddings.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int first = size;
+            int count = embeddings.size();
+            if (dimension == 0) {
+                dimension = embeddings.get(0).vector().length;
+            }
+            ensureCapacity(first + count);
+            for (int i = 0; i < count; i++) {
+                int node = first + i;
+                float[] vector = embeddings.get(i).vector();
+                if (vector.length != dimension) {
+                    throw new IllegalArgumentException("Expected an embedding of dimension " + dimension
+                            + " but got " + vector.length);
+                }
+                System.arraycopy(vector, 0, vectors, node * dimension, dimension);
+                norms[node] = norm(vector, 0, dimension);
+                this.ids[node] = ids.get(i);
+                segments[node] = embedded != null ? embedded.get(i) : null;
+                int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+                levels[node] = level;
+                upperLinks[node] = level > 0 ? new int[level * (m + 1)] : null;
+            }
+            size = first + count;
+
+            int next = first;
+            if (entryPoint < 0) {
+                insert(next++);
+            }
+            if (size - next < PARALLEL_THRESHOLD) {
+                for (int node = next; node < size; node++) {
+                    insert(node);
+                }
+            } else {
+                IntStream.range(next, size).parallel().forEach(this::insert);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        lock.writeLock().lock();
+        try {
+            dimension = 0;
+            size = 0;
+            vectors = new float[0];
+            norms = new float[0];
+            levels = new int[0];
+            links0 = new int[0];
+            upperLinks = new int[0][];
+            ids = new String[0];
+            segments = new TextSegment[0];
+            entryPoint = -1;
+            maxLevel = -1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest request) {
+        if (request.filter() != null) {
+            throw new UnsupportedOperationException("Metadata filters are not supported");
+        }
+        float[] query = request.queryEmbedding().vector();
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return new EmbeddingSearchResult<>(List.of());
+            }
+            if (query.length != dimension) {
+                throw new IllegalArgumentException("Expected a query of dimension " + dimension + " but got " + query.length);
+            }
+            float queryNorm = norm(query, 0, dimension);
+            int current = entryPoint;
+            float similarity = similarity(query, 0, queryNorm, current);
+            for (int level = maxLevel; level > 0; level--) {
+                NodeHeap closest = searchLayer(query, 0, queryNorm, current, similarity, 1, level, false);
+                current = closest.topNode();
+                similarity = closest.topScore();
+            }
+            int ef = Math.max(efSearch, request.maxResults());
+            NodeHeap found = searchLayer(query, 0, queryNorm, current, similarity, ef, 0, false);
+
+            int count = found.size();
+            int[] nodes = new int[count];
+            float[] similarities = new float[count];
+            drainDescending(found, nodes, similarities);
+            List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>(Math.min(count, request.maxResults()));
+            for (int i = 0; i < count && matches.size() < request.maxResults(); i++) {
+                double score = RelevanceScore.fromCosineSimilarity(similarities[i]);
+                if (score < request.minScore()) break;
+                int node = nodes[i];
+                Embedding embedding = Embedding.from(Arrays.copyOfRange(vectors, node * dimension, (node + 1) * dimension));
+                matches.add(new EmbeddingMatch<>(score, ids[node], embedding, segments[node]));
+            }
+            return new EmbeddingSearchResult<>(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) return;
+        if ((long) required * dimension > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many vectors for one store: " + required + " of dimension " + dimension);
+        }
+        int capacity = (int) Math.min(Math.max(required, ids.length * 3L / 2), (Integer.MAX_VALUE - 8) / dimension);
+        vectors = Arrays.copyOf(vectors, capacity * dimension);
+        norms = Arrays.copyOf(norms, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        links0 = Arrays.copyOf(links0, capacity * (maxLinks0 + 1));
+        upperLinks = Arrays.copyOf(upperLinks, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        segments = Arrays.copyOf(segments, capacity);
+    }
+
+    // Links one node whose vector is already stored; safe to run for several nodes at once
+    private void insert(int node) {
+        int level = levels[node];
+        int entry;
+        int top;
+        synchronized (entryLock) {
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+            entry = entryPoint;
+            top = maxLevel;
+        }
+
+        int offset = node * dimension;
+        float norm = norms[node];
+        int current = entry;
+        float similarity = similarity(vectors, offset, norm, current);
+        for (int l = top; l > level; l--) {
+            NodeHeap closest = searchLayer(vectors, offset, norm, current, similarity, 1, l, true);
+            current = closest.topNode();
+            similarity = closest.topScore();
+        }
+        for (int l = Math.min(level, top); l >= 0; l--) {
+            NodeHeap found = searchLayer(vectors, offset, norm, current, similarity, efConstruction, l, true);
+            int count = found.size();
+            int[] candidates = new int[count];
+            float[] similarities = new float[count];
+            drainDescending(found, candidates, similarities);
+            current = candidates[0];
+            similarity = similarities[0];
+
+            int selected = selectNeighbours(candidates, similarities, count, l == 0 ? maxLinks0 : m);
+            synchronized (stripe(node)) {
+                setLinks(node, l, candidates, selected);
+            }
+            for (int i = 0; i < selected; i++) {
+                link(candidates[i], node, similarities[i], l);
+            }
+        }
+
+        // A node drawn above the current top becomes the entry point once linked; layers above the old top have no
+        // other nodes yet, so it has no links there
+        if (level > top) {
+            synchronized (entryLock) {
+                if (level > maxLevel) {
+                    maxLevel = level;
+                    entryPoint = node;
+                }
+            }
+        }
+    }
+
+    // Adds a back link from target to node, re-selecting target's links when it already has the maximum
+    private void link(int target, int node, float similarity, int level) {
+        int max = level == 0 ? maxLinks0 : m;
+        synchronized (stripe(target)) {
+            int[] links = new int[max + 1];
+            int count = copyLinks(target, level, links);
+            if (count < max) {
+                links[count] = node;
+                setLinks(target, level, links, count + 1);
+                return;
+            }
+            float[] similarities = new float[count + 1];
+            int targetOffset = target * dimension;
+            for (int i = 0; i < count; i++) {
+                similarities[i] = similarity(vectors, targetOffset, norms[target], links[i]);
+            }
+            links[count] = node;
+            similarities[count] = similarity;
+            sortDescending(links, similarities, count + 1);
+            setLinks(target, level, links, selectNeighbours(links, similarities, count + 1, max));
+        }
+    }
+
+    /**
+     * Keeps, in order of similarity, each candidate that is closer to the base node than to any candidate already
+     * kept, so links spread in different directions instead of all pointing into one cluster. Candidates must be
+     * sorted by descending similarity to the base node; the kept ones are moved to the front.
+     *
+     * @return Number of candidates kept.
+     */
+    private int selectNeighbours(int[] candidates, float[] similarities, int count, int max) {
+        int selected = 0;
+        for (int i = 0; i < count && selected < max; i++) {
+            int candidate = candidates[i];
+            float similarity = similarities[i];
+            boolean keep = true;
+            for (int j = 0; j < selected && keep; j++) {
+                keep = similarity(vectors, candidate * dimension, norms[candidate], candidates[j]) <= similarity;
+            }
+            if (keep) {
+                candidates[selected] = candidate;
+                similarities[selected] = similarity;
+                selected++;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Best-first search of one layer from a single entry node.
+     *
+     * @param locked Read links under their node's stripe, for searches made while other threads are linking.
+     * @return Up to {@code ef} nodes closest to the query, least similar on top.
+     */
+    private NodeHeap searchLayer(float[] query, int queryOffset, float queryNorm, int entry, float entrySimilarity,
+                                 int ef, int level, boolean locked) {
+        VisitedSet seen = visited.get();
+        seen.reset(ids.length);
+        seen.visit(entry);
+        NodeHeap candidates = new NodeHeap(); // most similar on top, by negated similarity
+        NodeHeap results = new NodeHeap();    // least similar on top
+        candidates.push(-entrySimilarity, entry);
+        results.push(entrySimilarity, entry);
+        int[] links = new int[maxLinks0];
+
+        while (candidates.size() > 0) {
+            float similarity = -candidates.topScore();
+            if (results.size() >= ef && similarity < results.topScore()) break;
+            int node = candidates.topNode();
+            candidates.pop();
+
+            int count;
+            if (locked) {
+                synchronized (stripe(node)) {
+                    count = copyLinks(node, level, links);
+                }
+            } else {
+                count = copyLinks(node, level, links);
+            }
+            for (int i = 0; i < count; i++) {
+                int next = links[i];
+                if (!seen.visit(next)) continue;
+                float nextSimilarity = similarity(query, queryOffset, queryNorm, next);
+                if (results.size() < ef || nextSimilarity > results.topScore()) {
+                    candidates.push(-nextSimilarity, next);
+                    results.push(nextSimilarity, next);
+                    if (results.size() > ef) results.pop();
+                }
+            }
+        }
+        return results;
+    }
+
+    private int copyLinks(int node, int level, int[] out) {
+        if (level == 0) {
+            int base = node * (maxLinks0 + 1);
+            int count = links0[base];
+            System.arraycopy(links0, base + 1, out, 0, count);
+            return count;
+        }
+        int[] links = upperLinks[node];
+        int base = (level - 1) * (m + 1);
+        int count = links[base];
+        System.arraycopy(links, base + 1, out, 0, count);
+        return count;
+    }
+
+    private void setLinks(int node, int level, int[] links, int count) {
+        if (level == 0) {
+            int base = node * (maxLinks0 + 1);
+            links0[base] = count;
+            System.arraycopy(links, 0, links0, base + 1, count);
+        } else {
+            int[] upper = upperLinks[node];
+            int base = (level - 1) * (m + 1);
+            upper[base] = count;
+            System.arraycopy(links, 0, upper, base + 1, count);
+        }
+    }
+
+    private Object stripe(int node) {
+        return stripes[node & (LOCK_STRIPES - 1)];
+    }
+
+    // Empties a heap with the least similar on top into arrays ordered most similar first
+    private static void drainDescending(NodeHeap heap, int[] nodes, float[] similarities) {
+        for (int i = heap.size() - 1; i >= 0; i--) {
+            nodes[i] = heap.topNode();
+            similarities[i] = heap.topScore();
+            heap.pop();
+        }
+    }
+
+    // Insertion sort; used on link lists of at most 2 * m + 1 entries
+    private static void sortDescending(int[] nodes, float[] similarities, int count) {
+        for (int i = 1; i < count; i++) {
+            int node = nodes[i];
+            float similarity = similarities[i];
+            int j = i - 1;
+            while (j >= 0 && similarities[j] < similarity) {
+                nodes[j + 1] = nodes[j];
+                similarities[j + 1] = similarities[j];
+                j--;
+            }
+            nodes[j + 1] = node;
+            similarities[j + 1] = similarity;
+        }
+    }
+
+    // Cosine similarity between a vector and a stored node
+    private float similarity(float[] a, int aOffset, float aNorm, int node) {
+        float denominator = aNorm * norms[node];
+        return denominator == 0 ? 0 : dot(a, aOffset, vectors, node * dimension, dimension) / denominator;
+    }
+
+    // Four accumulators so the loop is not bound by the latency of one dependent add chain
+    private static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static float norm(float[] vector, int offset, int length) {
+        return (float) Math.sqrt(dot(vector, offset, vector, offset, length));
+    }
+
+    // Per-thread visited marks; bumping the generation clears them without touching the array
+    private static final class VisitedSet {
+        private int[] marks = new int[0];
+        private int generation;
+
+        private void reset(int capacity) {
+            if (marks.length < capacity) {
+                marks = new int[capacity];
+                generation = 0;
+            }
+            if (++generation == 0) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        private boolean visit(int node) {
+            if (marks[node] == generation) return false;
+            marks[node] = generation;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of (score, node) pairs, used by the vector stores to keep the best candidates of a search; a
+ * max-heap is had by pushing negated scores.
+ */
+final class NodeHeap {
+    private float[] scores = new float[16];
+    private int[] nodes = new int[16];
+    private int size;
+
+    void push(float score, int node) {
+        if (size == scores.length) {
+            scores = Arrays.copyOf(scores, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= score) break;
+            scores[i] = scores[parent];
+            nodes[i] = nodes[parent];
+            i = parent;
+        }
+        scores[i] = score;
+        nodes[i] = node;
+    }
+
+    int size() {
+        return size;
+    }
+
+    float topScore() {
+        return scores[0];
+    }
+
+    int topNode() {
+        return nodes[0];
+    }
+
+    void pop() {
+        float score = scores[--size];
+        int node = nodes[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && scores[child + 1] < scores[child]) child++;
+            if (score <= scores[child]) break;
+            scores[i] = scores[child];
+            nodes[i] = nodes[child];
+            i = child;
+        }
+        scores[i] = score;
+        nodes[i] = node;
+    }
+}
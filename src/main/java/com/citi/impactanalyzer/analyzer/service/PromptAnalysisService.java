@@ -1,7 +1,7 @@
 package com.citi.impactanalyzer.analyzer.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.citi.impactanalyzer.parser.service.ContentHashes;
+import com.citi.impactanalyzer.parser.service.DependencyGraphReader;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.memory.chat.MessageWindowChatMemory;
@@ -25,6 +25,20 @@ import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -37,6 +51,9 @@ public class PromptAnalysisService {
     private static final int MAX_RESULTS = 20;
     private static final double MIN_SCORE = 0.75;
     private static final int CHAT_MEMORY_SIZE = 100;
+    private static final int DEFAULT_EMBEDDING_BATCH_SIZE = 64;
+    private static final int DEFAULT_SEGMENT_MAX_NEIGHBOURS = 20;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
 
     // Pattern to aggressively match and extract the JSON content inside the markdown code block.
     // It captures content between ```json and ```, non-greedily.
@@ -54,56 +71,357 @@ public class PromptAnalysisService {
     @Value("${spring.ai.vertex.ai.gemini.chat.options.model}")
     private String modelName;
 
+    // Entries per embedAll call and worker threads embedding them (0 = available processors)
+    @Value("${analyzer.embedding-batch-size:64}")
+    private int embeddingBatchSize = DEFAULT_EMBEDDING_BATCH_SIZE;
+
+    @Value("${analyzer.embedding-workers:0}")
+    private int embeddingWorkers;
+
+    // Vectors persisted next to the graph JSON and reused for unchanged entries on the next load
+    @Value("${analyzer.embedding-index-enabled:true}")
+    private boolean embeddingIndexEnabled = true;
+
+    // What one embedded segment covers (see DependencySegmentBuilder.Mode) and how many neighbours a class summary lists
+    @Value("${analyzer.embedding-segment-mode:CLASS}")
+    private DependencySegmentBuilder.Mode segmentMode = DependencySegmentBuilder.Mode.CLASS;
+
+    @Value("${analyzer.embedding-segment-max-neighbours:20}")
+    private int segmentMaxNeighbours = DEFAULT_SEGMENT_MAX_NEIGHBOURS;
+
+    // Store the embeddings are searched in; see EmbeddingStoreType
+    @Value("${analyzer.embedding-store:HNSW}")
+    private EmbeddingStoreType embeddingStoreType = EmbeddingStoreType.HNSW;
+
+    @Value("${analyzer.hnsw-m:16}")
+    private int hnswM = HnswEmbeddingStore.DEFAULT_M;
+
+    @Value("${analyzer.hnsw-ef-construction:200}")
+    private int hnswEfConstruction = HnswEmbeddingStore.DEFAULT_EF_CONSTRUCTION;
+
+    @Value("${analyzer.hnsw-ef-search:100}")
+    private int hnswEfSearch = HnswEmbeddingStore.DEFAULT_EF_SEARCH;
+
+    @Value("${analyzer.quantized-rerank-factor:4}")
+    private int quantizedRerankFactor = QuantizedEmbeddingStore.DEFAULT_RERANK_FACTOR;
+
     private Assistant assistant;
 
     private final EmbeddingModel embeddingModel = new AllMiniLmL6V2QuantizedEmbeddingModel();
-    private final EmbeddingStore<TextSegment> embeddingStore = new InMemoryEmbeddingStore<>();
+    // Store queries run against; replaced as a whole on reload, so a query keeps the store it started with
+    private volatile EmbeddingSnapshot embeddings = new EmbeddingSnapshot(0, new InMemoryEmbeddingStore<>(), 0, -1, -1);
 
 
     @PostConstruct
     public void init() throws IOException {
         logger.info("Initializing PromptAnalysisService...");
-        loadEmbeddingStore();
+        reloadEmbeddingStore();
     }
 
-    private void loadEmbeddingStore() throws IOException {
-        logger.info("Loading EmbeddingStore from {}", graphJsonPath);
-
+    /**
+     * Embeds the graph JSON into a new store and swaps it in once complete. Nothing is rebuilt while the JSON is
+     * unchanged since the last load, or when it is missing, in which case the current store stays in use.
+     *
+     * @return true when a new store was swapped in
+     */
+    public synchronized boolean reloadEmbeddingStore() throws IOException {
         File jsonFile = new File(graphJsonPath);
         if (!jsonFile.exists()) {
             logger.warn("Graph JSON file not found at: {}. Skipping embedding load.", graphJsonPath);
-            return;
+            return false;
+        }
+        EmbeddingSnapshot current = embeddings;
+        long length = jsonFile.length();
+        long lastModified = jsonFile.lastModified();
+        if (current.matches(length, lastModified)) {
+            logger.info("Graph JSON unchanged since embedding store version {}; keeping it", current.version);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        EmbeddingStore<TextSegment> store = newEmbeddingStore();
+        int count = loadEmbeddingStore(jsonFile, store);
+        embeddings = new EmbeddingSnapshot(current.version + 1, store, count, length, lastModified);
+        logger.info("Swapped in embedding store version {} with {} segments in {} ms", current.version + 1, count,
+                (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * How the embeddings are held and searched.
+     */
+    public enum EmbeddingStoreType {
+        /** Approximate nearest-neighbour graph; sub-millisecond searches at the cost of some recall. */
+        HNSW,
+        /** Exact scan over int8 codes off-heap, re-ranked at full precision; a quarter of the memory of floats. */
+        QUANTIZED,
+        /** Exact scan over float vectors on the heap. */
+        IN_MEMORY
+    }
+
+    private EmbeddingStore<TextSegment> newEmbeddingStore() {
+        return switch (embeddingStoreType) {
+            case HNSW -> new HnswEmbeddingStore(hnswM, hnswEfConstruction, hnswEfSearch);
+            case QUANTIZED -> new QuantizedEmbeddingStore(quantizedRerankFactor);
+            case IN_MEMORY -> new InMemoryEmbeddingStore<>();
+        };
+    }
+
+    /**
+     * Version of the embedding store in use; 0 until the first one is loaded.
+     */
+    public long getEmbeddingVersion() {
+        return embeddings.version;
+    }
+
+    /**
+     * Number of segments in the embedding store in use.
+     */
+    public int getEmbeddingCount() {
+        return embeddings.size;
+    }
+
+    /**
+     * Streams the graph JSON and embeds its segments in batches with {@code embedAll} on a worker pool sized to the
+     * cores. Segments are per-class summaries from {@link DependencySegmentBuilder}, or in {@code ENTRY} mode the
+     * JSON of each entry, embedded while the file is still being read. When the pool's queue is full the calling
+     * thread embeds a batch itself, which bounds how many segments wait in memory. Segments whose text is unchanged
+     * since the last run take their vector from the persisted {@link VectorIndexFile} instead. Results are added to
+     * the store in order once all batches are done, and the index is rewritten when anything was embedded or dropped.
+     */
+    private int loadEmbeddingStore(File jsonFile, EmbeddingStore<TextSegment> embeddingStore) throws IOException {
+        int batchSize = embeddingBatchSize > 0 ? embeddingBatchSize : DEFAULT_EMBEDDING_BATCH_SIZE;
+        int workers = embeddingWorkers > 0 ? embeddingWorkers : Runtime.getRuntime().availableProcessors();
+        logger.info("Loading EmbeddingStore from {} as {} segments in batches of {} on {} workers", graphJsonPath,
+                segmentMode, batchSize, workers);
+
+        VectorIndexFile index = readVectorIndex();
+        BitSet reused = new BitSet();
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 2), runnable -> {
+                    Thread thread = new Thread(runnable, "embedding-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        EmbeddingProgress progress = new EmbeddingProgress();
+        try {
+            List<Future<EmbeddedBatch>> batches = new ArrayList<>();
+            PendingBatch[] pending = {new PendingBatch()};
+            Consumer<String> addSegment = text -> {
+                byte[] hash = ContentHashes.sha256(text);
+                int position = index != null ? index.indexOf(hash) : -1;
+                if (position >= 0) reused.set(position);
+                PendingBatch batch = pending[0];
+                batch.add(TextSegment.from(text), hash, position >= 0 ? Embedding.from(index.vector(position)) : null);
+                if (batch.missing >= batchSize) {
+                    pending[0] = new PendingBatch();
+                    batches.add(executor.submit(() -> embedBatch(batch, progress)));
+                }
+            };
+
+            DependencyGraphReader.Header header;
+            if (segmentMode == DependencySegmentBuilder.Mode.ENTRY) {
+                header = DependencyGraphReader.read(jsonFile.toPath(), node -> {
+                    if (!node.has("source")) return;
+
+                    var id = node.path("source").asText(null);
+                    if (id == null || id.isBlank()) return;
+
+                    // Storing the entire dependency node JSON as the text segment
+                    addSegment.accept(node.toString());
+                });
+            } else {
+                DependencySegmentBuilder segments = new DependencySegmentBuilder(segmentMaxNeighbours,
+                        segmentMode == DependencySegmentBuilder.Mode.RELATION);
+                header = DependencyGraphReader.read(jsonFile.toPath(), segments::add);
+                List<String> summaries = segments.build();
+                logger.info("Summarized {} edges of {} entries into {} segments for {} classes", segments.getEdgeCount(),
+                        header.getEntryCount(), summaries.size(), segments.getClassCount());
+                summaries.forEach(addSegment);
+            }
+            if (!pending[0].segments.isEmpty()) {
+                PendingBatch batch = pending[0];
+                batches.add(executor.submit(() -> embedBatch(batch, progress)));
+            }
+
+            if (header.getEntryCount() == 0) {
+                logger.warn("Graph JSON at {} contains no dependency entries.", graphJsonPath);
+            }
+
+            List<Embedding> embedded = new ArrayList<>();
+            List<TextSegment> segments = new ArrayList<>();
+            List<byte[]> hashes = new ArrayList<>();
+            for (Future<EmbeddedBatch> future : batches) {
+                EmbeddedBatch batch = future.get();
+                embedded.addAll(batch.embeddings);
+                segments.addAll(batch.segments);
+                hashes.addAll(batch.hashes);
+            }
+            if (!embedded.isEmpty()) {
+                embeddingStore.addAll(embedded, segments);
+            }
+            logger.info("Embedded {} nodes into store in {} ms; {} reused from the vector index, {} failed",
+                    embedded.size(), progress.elapsedMs(), embedded.size() - progress.embedded.get(), progress.failed.get());
+
+            boolean stale = index == null || reused.cardinality() < index.size();
+            if (embeddingIndexEnabled && (progress.embedded.get() > 0 || stale)) {
+                writeVectorIndex(hashes, embedded);
+            }
+            return embedded.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Embedding load interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to embed entries of " + jsonFile, e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
-        JsonNode root = new ObjectMapper().readTree(jsonFile);
-        JsonNode dependencies = root.get("dependencies");
+    private Path vectorIndexPath() {
+        Path json = Path.of(graphJsonPath);
+        return json.resolveSibling(json.getFileName() + ".embeddings");
+    }
+
+    // The persisted index when it exists and was built by the current model, otherwise null
+    private VectorIndexFile readVectorIndex() {
+        Path file = vectorIndexPath();
+        if (!embeddingIndexEnabled || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            VectorIndexFile index = VectorIndexFile.read(file);
+            if (!index.matches(embeddingModelName())) {
+                logger.info("Vector index {} was built by {}; embedding everything again", file, index.getModel());
+                return null;
+            }
+            logger.info("Opened vector index {} with {} vectors", file, index.size());
+            return index;
+        } catch (IOException e) {
+            logger.warn("Could not read vector index {}; embedding everything again: {}", file, e.getMessage());
+            return null;
+        }
+    }
 
-        if (dependencies == null || !dependencies.isArray()) {
-            logger.warn("Invalid graph JSON — expected top-level array.");
+    private void writeVectorIndex(List<byte[]> hashes, List<Embedding> embeddings) {
+        if (embeddings.isEmpty()) {
             return;
         }
+        Path file = vectorIndexPath();
+        try {
+            long start = System.nanoTime();
+            List<float[]> vectors = new ArrayList<>(embeddings.size());
+            for (Embedding embedding : embeddings) {
+                vectors.add(embedding.vector());
+            }
+            VectorIndexFile.write(file, embeddingModelName(), vectors.get(0).length, hashes, vectors);
+            logger.info("Wrote vector index {} with {} vectors in {} ms", file, vectors.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write vector index {}: {}", file, e.getMessage());
+        }
+    }
 
-        int count = 0;
+    private String embeddingModelName() {
+        return embeddingModel.getClass().getName();
+    }
 
-        for (JsonNode node : dependencies) {
-            if (!node.has("source")) continue;
+    // Embeds the entries of one batch that have no vector yet; if the batch call fails, they are retried one at a
+    // time so only bad entries are lost
+    private EmbeddedBatch embedBatch(PendingBatch batch, EmbeddingProgress progress) {
+        List<Integer> missing = new ArrayList<>(batch.missing);
+        for (int i = 0; i < batch.segments.size(); i++) {
+            if (batch.embeddings.get(i) == null) missing.add(i);
+        }
+        if (missing.isEmpty()) {
+            return new EmbeddedBatch(batch.segments, batch.embeddings, batch.hashes);
+        }
 
-            var id = node.path("source").asText(null);
-            if (id == null || id.isBlank()) continue;
+        try {
+            List<Embedding> embedded = embeddingModel.embedAll(missing.stream().map(batch.segments::get).toList()).content();
+            for (int i = 0; i < missing.size(); i++) {
+                batch.embeddings.set(missing.get(i), embedded.get(i));
+            }
+            progress.add(missing.size(), 0);
+            return new EmbeddedBatch(batch.segments, batch.embeddings, batch.hashes);
+        } catch (Exception ex) {
+            logger.warn("Embedding a batch of {} entries failed, retrying one at a time: {}", missing.size(), ex.getMessage());
+        }
 
+        int failures = 0;
+        for (int i : missing) {
+            TextSegment segment = batch.segments.get(i);
             try {
-                // Storing the entire dependency node JSON as the text segment
-                var text = node.toString();
-                TextSegment segment = TextSegment.from(text);
-                Embedding embedding = embeddingModel.embed(text).content();
-                embeddingStore.add(embedding, segment);
-                count++;
+                batch.embeddings.set(i, embeddingModel.embed(segment).content());
             } catch (Exception ex) {
-                logger.error("Failed vectorizing node with source={}", id, ex);
+                failures++;
+                String text = segment.text();
+                logger.error("Failed vectorizing node {}", text.length() > 120 ? text.substring(0, 120) + "..." : text, ex);
+            }
+        }
+        progress.add(missing.size() - failures, failures);
+
+        List<TextSegment> segments = new ArrayList<>(batch.segments.size());
+        List<Embedding> embeddings = new ArrayList<>(batch.segments.size());
+        List<byte[]> hashes = new ArrayList<>(batch.segments.size());
+        for (int i = 0; i < batch.segments.size(); i++) {
+            if (batch.embeddings.get(i) == null) continue;
+            segments.add(batch.segments.get(i));
+            embeddings.add(batch.embeddings.get(i));
+            hashes.add(batch.hashes.get(i));
+        }
+        return new EmbeddedBatch(segments, embeddings, hashes);
+    }
+
+    // Entries of one batch in file order; a null embedding still has to be computed
+    private static final class PendingBatch {
+        private final List<TextSegment> segments = new ArrayList<>();
+        private final List<byte[]> hashes = new ArrayList<>();
+        private final List<Embedding> embeddings = new ArrayList<>();
+        private int missing;
+
+        private void add(TextSegment segment, byte[] hash, Embedding embedding) {
+            segments.add(segment);
+            hashes.add(hash);
+            embeddings.add(embedding);
+            if (embedding == null) missing++;
+        }
+    }
+
+    private static final class EmbeddedBatch {
+        private final List<TextSegment> segments;
+        private final List<Embedding> embeddings;
+        private final List<byte[]> hashes;
+
+        private EmbeddedBatch(List<TextSegment> segments, List<Embedding> embeddings, List<byte[]> hashes) {
+            this.segments = segments;
+            this.embeddings = embeddings;
+            this.hashes = hashes;
+        }
+    }
+
+    // Counts embedded entries across workers and logs throughput every few seconds
+    private static final class EmbeddingProgress {
+        private final long start = System.nanoTime();
+        private final AtomicInteger embedded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong nextReport = new AtomicLong(start + PROGRESS_INTERVAL_NANOS);
+
+        private void add(int succeeded, int failures) {
+            int done = embedded.addAndGet(succeeded);
+            failed.addAndGet(failures);
+            long now = System.nanoTime();
+            long next = nextReport.get();
+            if (now >= next && nextReport.compareAndSet(next, now + PROGRESS_INTERVAL_NANOS)) {
+                long elapsedMs = Math.max(1, elapsedMs());
+                logger.info("Embedded {} entries so far ({} per second)", done, done * 1000L / elapsedMs);
             }
         }
 
-        logger.info("Embedded {} nodes into store", count);
+        private long elapsedMs() {
+            return (System.nanoTime() - start) / 1_000_000;
+        }
     }
 
     private Assistant createAssistant() {
@@ -134,12 +452,8 @@ public class PromptAnalysisService {
     private RetrievalAugmentor buildRetrievalAugmentor() {
         QueryTransformer transformer = new CompressingQueryTransformer(buildChatModel());
 
-        ContentRetriever retriever = EmbeddingStoreContentRetriever.builder()
-                .embeddingStore(embeddingStore)
-                .embeddingModel(embeddingModel)
-                .maxResults(MAX_RESULTS)
-                .minScore(MIN_SCORE)
-                .build();
+        // Resolved per query, so the assistant follows reloads of the store
+        ContentRetriever retriever = query -> embeddings.retriever.retrieve(query);
 
         return DefaultRetrievalAugmentor.builder()
                 .queryTransformer(transformer)
@@ -147,6 +461,33 @@ public class PromptAnalysisService {
                 .build();
     }
 
+    // One loaded embedding store with its retriever and the graph JSON it was built from
+    private final class EmbeddingSnapshot {
+        private final long version;
+        private final ContentRetriever retriever;
+        private final int size;
+        private final long sourceLength;
+        private final long sourceLastModified;
+
+        private EmbeddingSnapshot(long version, EmbeddingStore<TextSegment> store, int size, long sourceLength,
+                                  long sourceLastModified) {
+            this.version = version;
+            this.size = size;
+            this.sourceLength = sourceLength;
+            this.sourceLastModified = sourceLastModified;
+            this.retriever = EmbeddingStoreContentRetriever.builder()
+                    .embeddingStore(store)
+                    .embeddingModel(embeddingModel)
+                    .maxResults(MAX_RESULTS)
+                    .minScore(MIN_SCORE)
+                    .build();
+        }
+
+        private boolean matches(long length, long lastModified) {
+            return sourceLength == length && sourceLastModified == lastModified;
+        }
+    }
+
     /**
      * Generates a comprehensive impact analysis report, including an impacted dependency graph,
      * a corresponding test plan, and repository identification, in a unified JSON format.
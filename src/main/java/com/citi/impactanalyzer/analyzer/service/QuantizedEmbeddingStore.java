@@ -0,0 +1,417 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.RelevanceScore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * In-process {@link EmbeddingStore} that scores every stored vector, as {@code InMemoryEmbeddingStore} does, but
+ * holds them as int8 codes packed into contiguous off-heap buffers.
+ * <p>
+ * Each vector is scaled by its largest component to fit a byte per dimension, so the scan reads a quarter of the
+ * memory a float scan would and scores with an integer dot product over byte arrays. The best
+ * {@code rerankFactor * maxResults} vectors by that approximate score are then scored again from their full-precision
+ * copies, and results, scores and minimum scores are those of the exact cosine similarity. The full-precision copies
+ * live in a memory-mapped temporary file that is unlinked once mapped, so the OS only reads in the ones a search
+ * re-ranks and can drop them again under memory pressure. What stays resident is one byte per dimension plus a
+ * scale and a norm per vector.
+ * <p>
+ * Searches run concurrently and large stores are scanned on parallel threads; adding waits for running searches and
+ * blocks new ones. Metadata filters and removing single entries are not supported.
+ */
+public final class QuantizedEmbeddingStore implements EmbeddingStore<TextSegment> {
+
+    public static final int DEFAULT_RERANK_FACTOR = 4;
+
+    private static final int DEFAULT_CHUNK_BYTES = 1 << 26;
+    // Vectors copied from a chunk to the heap and scored per step
+    private static final int BLOCK_VECTORS = 256;
+    // Vectors scanned per parallel task; smaller stores are scanned on the calling thread
+    private static final int SLICE_VECTORS = 1 << 15;
+
+    private final int rerankFactor;
+    private final int chunkBytes;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<byte[]> blocks = ThreadLocal.withInitial(() -> new byte[0]);
+
+    private int dimension;
+    private int size;
+    private final List<Chunk> chunks = new ArrayList<>();
+    // Per vector: quantization scale over norm, so code dot products convert to cosine; and the float norm
+    private float[] factors = new float[0];
+    private float[] norms = new float[0];
+    private String[] ids = new String[0];
+    private TextSegment[] segments = new TextSegment[0];
+
+    public QuantizedEmbeddingStore() {
+        this(DEFAULT_RERANK_FACTOR);
+    }
+
+    /**
+     * @param rerankFactor Candidates re-scored at full precision per requested result.
+     */
+    public QuantizedEmbeddingStore(int rerankFactor) {
+        this(rerankFactor, DEFAULT_CHUNK_BYTES);
+    }
+
+    QuantizedEmbeddingStore(int rerankFactor, int chunkBytes) {
+        if (rerankFactor < 1 || chunkBytes < 1) {
+            throw new IllegalArgumentException("rerankFactor and chunkBytes must be positive");
+        }
+        this.rerankFactor = rerankFactor;
+        this.chunkBytes = chunkBytes;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String add(Embedding embedding) {
+        String id = UUID.randomUUID().toString();
+        addAll(List.of(id), List.of(embedding), null);
+        return id;
+    }
+
+    @Override
+    public void add(String id, Embedding embedding) {
+        addAll(List.of(id), List.of(embedding), null);
+    }
+
+    @Override
+    public String add(Embedding embedding, TextSegment segment) {
+        String id = UUID.randomUUID().toString();
+        addAll(List.of(id), List.of(embedding), Collections.singletonList(segment));
+        return id;
+    }
+
+    @Override
+    public List<String> addAll(List<Embedding> embeddings) {
+        return addAll(embeddings, null);
+    }
+
+    @Override
+    public List<String> addAll(List<Embedding> embeddings, List<TextSegment> embedded) {
+        List<String> generated = new ArrayList<>(embeddings.size());
+        for (int i = 0; i < embeddings.size(); i++) {
+            generated.add(UUID.randomUUID().toString());
+        }
+        addAll(generated, embeddings, embedded);
+        return generated;
+    }
+
+    @Override
+    public void addAll(List<String> ids, List<Embedding> embeddings, List<TextSegment> embedded) {
+        if (ids.size() != embeddings.size() || (embedded != null && embedded.size() != embeddings.size())) {
+            throw new IllegalArgumentException("ids, embeddings and segments must have the same size");
+        }
+        if (embeddings.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (dimension == 0) {
+                dimension = embeddings.get(0).vector().length;
+            }
+            int count = embeddings.size();
+            ensureCapacity(size + count);
+            byte[] codes = new byte[dimension];
+            for (int i = 0; i < count; i++) {
+                float[] vector = embeddings.get(i).vector();
+                if (vector.length != dimension) {
+                    throw new IllegalArgumentException("Expected an embedding of dimension " + dimension
+                            + " but got " + vector.length);
+                }
+                Chunk chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+                if (chunk == null || chunk.used == chunk.capacity) {
+                    chunk = newChunk(count - i);
+                }
+                int node = size;
+                int offset = chunk.used * dimension;
+                float scale = quantize(vector, codes);
+                chunk.codes.put(offset, codes);
+                chunk.vectors.put(offset, vector);
+                chunk.used++;
+
+                float norm = (float) Math.sqrt(floatDot(vector, vector, 0, dimension));
+                norms[node] = norm;
+                factors[node] = norm == 0 ? 0 : scale / norm;
+                this.ids[node] = ids.get(i);
+                segments[node] = embedded != null ? embedded.get(i) : null;
+                size++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        lock.writeLock().lock();
+        try {
+            dimension = 0;
+            size = 0;
+            chunks.clear();
+            factors = new float[0];
+            norms = new float[0];
+            ids = new String[0];
+            segments = new TextSegment[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest request) {
+        if (request.filter() != null) {
+            throw new UnsupportedOperationException("Metadata filters are not supported");
+        }
+        float[] query = request.queryEmbedding().vector();
+        lock.readLock().lock();
+        try {
+            if (size == 0 || request.maxResults() <= 0) {
+                return new EmbeddingSearchResult<>(List.of());
+            }
+            if (query.length != dimension) {
+                throw new IllegalArgumentException("Expected a query of dimension " + dimension + " but got " + query.length);
+            }
+            float queryNorm = (float) Math.sqrt(floatDot(query, query, 0, dimension));
+            if (queryNorm == 0) {
+                return new EmbeddingSearchResult<>(List.of());
+            }
+            byte[] queryCodes = new byte[dimension];
+            float queryFactor = quantize(query, queryCodes) / queryNorm;
+            int candidates = (int) Math.min(size, (long) request.maxResults() * rerankFactor);
+
+            NodeHeap approximate = scan(queryCodes, queryFactor, candidates);
+            return new EmbeddingSearchResult<>(rerank(approximate, query, queryNorm, request));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best vectors by approximate cosine, least similar on top
+    private NodeHeap scan(byte[] queryCodes, float queryFactor, int candidates) {
+        List<int[]> slices = new ArrayList<>();
+        for (int c = 0; c < chunks.size(); c++) {
+            int used = chunks.get(c).used;
+            for (int from = 0; from < used; from += SLICE_VECTORS) {
+                slices.add(new int[]{c, from, Math.min(used, from + SLICE_VECTORS)});
+            }
+        }
+        if (slices.size() == 1) {
+            int[] slice = slices.get(0);
+            return scanSlice(chunks.get(slice[0]), slice[1], slice[2], queryCodes, queryFactor, candidates);
+        }
+        return IntStream.range(0, slices.size()).parallel()
+                .mapToObj(i -> {
+                    int[] slice = slices.get(i);
+                    return scanSlice(chunks.get(slice[0]), slice[1], slice[2], queryCodes, queryFactor, candidates);
+                })
+                .reduce((a, b) -> {
+                    while (b.size() > 0) {
+                        offer(a, b.topScore(), b.topNode(), candidates);
+                        b.pop();
+                    }
+                    return a;
+                })
+                .orElseThrow();
+    }
+
+    private NodeHeap scanSlice(Chunk chunk, int from, int to, byte[] queryCodes, float queryFactor, int candidates) {
+        NodeHeap best = new NodeHeap();
+        byte[] block = blocks.get();
+        if (block.length < BLOCK_VECTORS * dimension) {
+            block = new byte[BLOCK_VECTORS * dimension];
+            blocks.set(block);
+        }
+        for (int start = from; start < to; start += BLOCK_VECTORS) {
+            int count = Math.min(BLOCK_VECTORS, to - start);
+            chunk.codes.get(start * dimension, block, 0, count * dimension);
+            for (int v = 0; v < count; v++) {
+                int node = chunk.start + start + v;
+                float similarity = codeDot(queryCodes, block, v * dimension, dimension) * factors[node] * queryFactor;
+                offer(best, similarity, node, candidates);
+            }
+        }
+        return best;
+    }
+
+    private static void offer(NodeHeap best, float similarity, int node, int limit) {
+        if (best.size() < limit) {
+            best.push(similarity, node);
+        } else if (similarity > best.topScore()) {
+            best.pop();
+            best.push(similarity, node);
+        }
+    }
+
+    // Scores the candidates from their float copies and keeps those that make the cut, most similar first
+    private List<EmbeddingMatch<TextSegment>> rerank(NodeHeap candidates, float[] query, float queryNorm,
+                                                     EmbeddingSearchRequest request) {
+        int count = candidates.size();
+        int[] nodes = new int[count];
+        float[][] vectors = new float[count][];
+        NodeHeap exact = new NodeHeap();
+        for (int i = 0; i < count; i++) {
+            int node = candidates.topNode();
+            candidates.pop();
+            Chunk chunk = chunkOf(node);
+            float[] vector = new float[dimension];
+            chunk.vectors.get((node - chunk.start) * dimension, vector);
+            float denominator = queryNorm * norms[node];
+            float similarity = denominator == 0 ? 0 : floatDot(query, vector, 0, dimension) / denominator;
+            nodes[i] = node;
+            vectors[i] = vector;
+            exact.push(-similarity, i);
+        }
+
+        List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>(Math.min(count, request.maxResults()));
+        while (exact.size() > 0 && matches.size() < request.maxResults()) {
+            double score = RelevanceScore.fromCosineSimilarity(-exact.topScore());
+            if (score < request.minScore()) break;
+            int i = exact.topNode();
+            exact.pop();
+            matches.add(new EmbeddingMatch<>(score, ids[nodes[i]], Embedding.from(vectors[i]), segments[nodes[i]]));
+        }
+        return matches;
+    }
+
+    private Chunk chunkOf(int node) {
+        int low = 0;
+        int high = chunks.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (chunks.get(mid).start <= node) low = mid;
+            else high = mid - 1;
+        }
+        return chunks.get(low);
+    }
+
+    // Room for the vectors still to add, doubling with the store but capped at chunkBytes of codes
+    private Chunk newChunk(int remaining) {
+        int maxVectors = Math.max(1, chunkBytes / dimension);
+        int capacity = Math.min(maxVectors, Math.max(remaining, size));
+        Chunk chunk = new Chunk(size, capacity, ByteBuffer.allocateDirect(capacity * dimension),
+                mapScratch((long) capacity * dimension * Float.BYTES));
+        chunks.add(chunk);
+        return chunk;
+    }
+
+    // A read-write mapping of a temporary file that is deleted straight away; the mapping stays valid until it is
+    // garbage collected, and pages are written back to the unlinked file rather than held on the heap
+    private static FloatBuffer mapScratch(long bytes) {
+        try {
+            Path file = Files.createTempFile("embeddings-", ".f32");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes).asFloatBuffer();
+            } finally {
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    // Platforms that keep mapped files locked
+                    file.toFile().deleteOnExit();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map scratch space for full-precision vectors", e);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) return;
+        int capacity = (int) Math.min(Math.max(required, ids.length * 3L / 2), Integer.MAX_VALUE - 8);
+        factors = Arrays.copyOf(factors, capacity);
+        norms = Arrays.copyOf(norms, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        segments = Arrays.copyOf(segments, capacity);
+    }
+
+    /**
+     * Symmetric int8 quantization: each component is divided by the largest magnitude over 127 and rounded.
+     *
+     * @return The scale that turns codes back into components.
+     */
+    private static float quantize(float[] vector, byte[] codes) {
+        float max = 0;
+        for (float component : vector) {
+            max = Math.max(max, Math.abs(component));
+        }
+        if (max == 0) {
+            Arrays.fill(codes, (byte) 0);
+            return 0;
+        }
+        float scale = max / 127;
+        for (int i = 0; i < vector.length; i++) {
+            codes[i] = (byte) Math.round(vector[i] / scale);
+        }
+        return scale;
+    }
+
+    // A plain counted loop over two heap arrays with one int accumulator: the shape C2's superword pass can turn into
+    // vector code on JDKs that vectorize byte-to-int reductions; elsewhere it is still a quarter of the bytes to read
+    private static int codeDot(byte[] query, byte[] block, int offset, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += query[i] * block[offset + i];
+        }
+        return sum;
+    }
+
+    private static float floatDot(float[] a, float[] b, int bOffset, int length) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += a[i] * b[bOffset + i];
+            s1 += a[i + 1] * b[bOffset + i + 1];
+            s2 += a[i + 2] * b[bOffset + i + 2];
+            s3 += a[i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    // A run of vectors stored side by side: codes off-heap, float copies in a mapped scratch file
+    private static final class Chunk {
+        private final int start;
+        private final int capacity;
+        private final ByteBuffer codes;
+        private final FloatBuffer vectors;
+        private int used;
+
+        private Chunk(int start, int capacity, ByteBuffer codes, FloatBuffer vectors) {
+            this.start = start;
+            this.capacity = capacity;
+            this.codes = codes;
+            this.vectors = vectors;
+        }
+    }
+}
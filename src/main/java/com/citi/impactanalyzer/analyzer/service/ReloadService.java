@@ -0,0 +1,100 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import com.citi.impactanalyzer.analyzer.domain.ReloadStatus;
+import com.citi.impactanalyzer.graph.service.GraphService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rebuilds the dependency graph and the embedding store in the background while the current ones keep serving
+ * requests. Each is swapped in as a whole once built, under a new version, so a request that started before the
+ * swap finishes on what it started with. Reloads run one at a time on a single daemon thread; asking for a reload
+ * while one is running returns the running one.
+ */
+@Service
+public class ReloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReloadService.class);
+
+    private final GraphService graphService;
+    private final PromptAnalysisService promptAnalysisService;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this
+    private CompletableFuture<ReloadStatus> current;
+    private boolean running;
+    private String trigger;
+    private long startedAt;
+    private long durationMs;
+    private String error;
+
+    public ReloadService(GraphService graphService, PromptAnalysisService promptAnalysisService) {
+        this.graphService = graphService;
+        this.promptAnalysisService = promptAnalysisService;
+    }
+
+    /**
+     * Starts a reload unless one is already running, and returns the reload in progress.
+     *
+     * @param trigger What asked for the reload, reported in the status.
+     */
+    public synchronized CompletableFuture<ReloadStatus> reload(String trigger) {
+        if (running) {
+            logger.info("Reload requested by {} while one is running; joining it", trigger);
+            return current;
+        }
+        running = true;
+        this.trigger = trigger;
+        startedAt = System.currentTimeMillis();
+        logger.info("Starting reload requested by {}", trigger);
+        current = CompletableFuture.supplyAsync(this::runReload, executor);
+        return current;
+    }
+
+    @Scheduled(cron = "${analyzer.reload-cron:-}")
+    public void scheduledReload() {
+        reload("schedule");
+    }
+
+    private ReloadStatus runReload() {
+        long start = System.nanoTime();
+        String failure = null;
+        try {
+            graphService.refreshGraph();
+            promptAnalysisService.reloadEmbeddingStore();
+        } catch (Exception e) {
+            logger.error("Reload failed; still serving graph version {} and embedding version {}",
+                    graphService.getGraphVersion(), promptAnalysisService.getEmbeddingVersion(), e);
+            failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        synchronized (this) {
+            durationMs = (System.nanoTime() - start) / 1_000_000;
+            error = failure;
+            running = false;
+            logger.info("Reload finished in {} ms; graph version {}, embedding version {}", durationMs,
+                    graphService.getGraphVersion(), promptAnalysisService.getEmbeddingVersion());
+            return getStatus();
+        }
+    }
+
+    public synchronized ReloadStatus getStatus() {
+        return new ReloadStatus(running, trigger, startedAt, durationMs, graphService.getGraphVersion(),
+                promptAnalysisService.getEmbeddingVersion(), error);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,293 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Embedding vectors persisted between runs, keyed by the SHA-256 of the text they were computed from, so unchanged
+ * segments do not have to be embedded again.
+ * <p>
+ * Layout (big-endian): magic, version, embedding model name, dimension, vector count, the 32-byte hashes sorted
+ * ascending, then one float32 vector per hash in the same order. The file is written through a small buffer and
+ * read with {@link FileChannel#map}, in chunks of whole records since one mapping cannot exceed 2 GB; lookups
+ * binary-search the hashes in the mapping and copy out only the vectors that are asked for.
+ */
+public final class VectorIndexFile {
+
+    private static final int MAGIC = 0x49414556; // "IAEV"
+    private static final int VERSION = 1;
+    private static final int HASH_BYTES = 32;
+    // Largest single mapping
+    private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE;
+
+    private final String model;
+    private final int dimension;
+    private final int count;
+    private final int hashesPerChunk;
+    private final ByteBuffer[] hashes;
+    private final int vectorsPerChunk;
+    private final FloatBuffer[] vectors;
+
+    private VectorIndexFile(String model, int dimension, int count, int hashesPerChunk, ByteBuffer[] hashes,
+                            int vectorsPerChunk, FloatBuffer[] vectors) {
+        this.model = model;
+        this.dimension = dimension;
+        this.count = count;
+        this.hashesPerChunk = hashesPerChunk;
+        this.hashes = hashes;
+        this.vectorsPerChunk = vectorsPerChunk;
+        this.vectors = vectors;
+    }
+
+    /**
+     * Writes the vectors under their hashes; a hash given more than once is written once. The file is written
+     * beside the target and moved over it once complete.
+     */
+    public static void write(Path target, String model, int dimension, List<byte[]> hashes, List<float[]> vectors) throws IOException {
+        if (hashes.size() != vectors.size()) {
+            throw new IllegalArgumentException("Hash and vector counts differ");
+        }
+        int[] order = IntStream.range(0, hashes.size())
+                .boxed()
+                .sorted((a, b) -> Arrays.compareUnsigned(hashes.get(a), hashes.get(b)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int unique = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (i == 0 || !Arrays.equals(hashes.get(order[i]), hashes.get(order[i - 1]))) {
+                order[unique++] = order[i];
+            }
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path partial = target.resolveSibling(target.getFileName() + ".partial");
+        byte[] modelBytes = model.getBytes(StandardCharsets.UTF_8);
+        try (IndexOutput out = new IndexOutput(FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(modelBytes.length);
+            out.put(modelBytes);
+            out.putInt(dimension);
+            out.putInt(unique);
+            for (int i = 0; i < unique; i++) {
+                byte[] hash = hashes.get(order[i]);
+                if (hash.length != HASH_BYTES) {
+                    throw new IllegalArgumentException("Expected a " + HASH_BYTES + "-byte hash");
+                }
+                out.put(hash);
+            }
+            for (int i = 0; i < unique; i++) {
+                float[] vector = vectors.get(order[i]);
+                if (vector.length != dimension) {
+                    throw new IllegalArgumentException("Expected a vector of dimension " + dimension);
+                }
+                for (float component : vector) {
+                    out.putFloat(component);
+                }
+            }
+            out.force();
+        }
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public static VectorIndexFile read(Path file) throws IOException {
+        return read(file, MAX_CHUNK_BYTES);
+    }
+
+    // Maps the hashes and the vectors in chunks of at most chunkBytes, each holding whole records
+    static VectorIndexFile read(Path file, long chunkBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readAt(channel, 0, 3 * Integer.BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a vector index");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported vector index version " + version);
+            }
+            int modelLength = header.getInt();
+            if (modelLength < 0 || modelLength > channel.size()) {
+                throw new IOException("Corrupt vector index " + file);
+            }
+            ByteBuffer rest = readAt(channel, header.capacity(), modelLength + 2 * Integer.BYTES);
+            byte[] modelBytes = new byte[modelLength];
+            rest.get(modelBytes);
+            int dimension = rest.getInt();
+            int count = rest.getInt();
+
+            long hashesStart = (long) header.capacity() + rest.capacity();
+            long vectorBytes = (long) dimension * Float.BYTES;
+            if (dimension <= 0 || count < 0 || channel.size() - hashesStart != count * (HASH_BYTES + vectorBytes)) {
+                throw new IOException("Vector index size does not match its header");
+            }
+            int hashesPerChunk = recordsPerChunk(HASH_BYTES, chunkBytes);
+            int vectorsPerChunk = recordsPerChunk(vectorBytes, chunkBytes);
+            ByteBuffer[] hashes = map(channel, hashesStart, HASH_BYTES, count, hashesPerChunk);
+            FloatBuffer[] vectors = Arrays.stream(map(channel, hashesStart + (long) count * HASH_BYTES, vectorBytes,
+                    count, vectorsPerChunk)).map(ByteBuffer::asFloatBuffer).toArray(FloatBuffer[]::new);
+            return new VectorIndexFile(new String(modelBytes, StandardCharsets.UTF_8), dimension, count,
+                    hashesPerChunk, hashes, vectorsPerChunk, vectors);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt vector index " + file, e);
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new BufferUnderflowException();
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static int recordsPerChunk(long recordBytes, long chunkBytes) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, chunkBytes / recordBytes));
+    }
+
+    private static ByteBuffer[] map(FileChannel channel, long start, long recordBytes, int count, int perChunk) throws IOException {
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((count + (long) perChunk - 1) / perChunk)];
+        for (int c = 0; c < chunks.length; c++) {
+            long first = (long) c * perChunk;
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, start + first * recordBytes,
+                    Math.min(perChunk, count - first) * recordBytes);
+        }
+        return chunks;
+    }
+
+    /**
+     * True when the vectors were computed by this model, so they are interchangeable with fresh ones.
+     */
+    public boolean matches(String model) {
+        return this.model.equals(model);
+    }
+
+    /**
+     * Position of the vector stored under {@code hash}, or -1.
+     */
+    public int indexOf(byte[] hash) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareAt(mid, hash);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A copy of the vector at {@code index}.
+     */
+    public float[] vector(int index) {
+        float[] vector = new float[dimension];
+        vectors[index / vectorsPerChunk].get(index % vectorsPerChunk * dimension, vector);
+        return vector;
+    }
+
+    // Unsigned comparison of the stored hash at index with the given one, using absolute reads only
+    private int compareAt(int index, byte[] hash) {
+        ByteBuffer chunk = hashes[index / hashesPerChunk];
+        int base = index % hashesPerChunk * HASH_BYTES;
+        for (int i = 0; i < HASH_BYTES; i++) {
+            int cmp = Integer.compare(chunk.get(base + i) & 0xFF, hash[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    // Fills a heap buffer and drains it to the channel when full
+    private static final class IndexOutput implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+        IndexOutput(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putFloat(float value) throws IOException {
+            ensure(Float.BYTES);
+            buffer.putFloat(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int written = 0;
+            while (written < bytes.length) {
+                ensure(1);
+                int n = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, n);
+                written += n;
+            }
+        }
+
+        // Writes out everything buffered and syncs it to disk
+        void force() throws IOException {
+            drain();
+            channel.force(false);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
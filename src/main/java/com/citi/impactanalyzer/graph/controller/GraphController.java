@@ -0,0 +1,105 @@
+package com.citi.impactanalyzer.graph.controller;
+
+import com.citi.impactanalyzer.graph.domain.ImpactDirection;
+import com.citi.impactanalyzer.graph.domain.RelationType;
+import com.citi.impactanalyzer.graph.service.GraphService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@CrossOrigin(origins = "http://localhost:4200")
+@RestController
+@RequestMapping("/graph")
+public class GraphController {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphController.class);
+
+    private final GraphService graphService;
+
+    public GraphController(GraphService graphService) {
+        this.graphService = graphService;
+    }
+
+    /**
+     * Returns the classes transitively affected by a change to the given class.
+     *
+     * @param node      Fully qualified or partial class name.
+     * @param direction downstream (dependents, the default), upstream (dependencies) or both.
+     * @param relations Optional comma-separated relation kinds or groups (structural, invocation, data) the
+     *                  traversal is restricted to, e.g. {@code EXTENDS,IMPLEMENTS} or {@code data}.
+     * @return The matched classes and the impacted classes in traversal order.
+     */
+    @GetMapping("/impact")
+    public ResponseEntity<?> getImpact(@RequestParam String node,
+                                       @RequestParam(defaultValue = "downstream") String direction,
+                                       @RequestParam(required = false) String relations) {
+        ImpactDirection dir;
+        try {
+            dir = ImpactDirection.from(direction);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown direction: " + direction));
+        }
+        int relationMask;
+        try {
+            relationMask = RelationType.parseMask(relations);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown relation in: " + relations));
+        }
+        logger.info("Received impact request for node: {} direction: {} relations: {}", node, dir, relations);
+        return toResponse(graphService.getImpact(node, dir, relationMask));
+    }
+
+    /**
+     * Returns the number of edges of each relation kind in the loaded graph.
+     */
+    @GetMapping("/relations")
+    public ResponseEntity<?> getRelationCounts() {
+        logger.info("Received relation count request");
+        return toResponse(graphService.getRelationCounts());
+    }
+
+    /**
+     * Returns every class that depends on the given class, directly or transitively.
+     */
+    @GetMapping("/dependents")
+    public ResponseEntity<?> getDependents(@RequestParam String node) {
+        logger.info("Received dependents request for node: {}", node);
+        return toResponse(graphService.getImpact(node, ImpactDirection.DOWNSTREAM));
+    }
+
+    /**
+     * Lists the dependency cycles of the loaded graph, largest first.
+     *
+     * @param limit Maximum number of cycles to list; 0 lists all of them.
+     */
+    @GetMapping("/cycles")
+    public ResponseEntity<?> getCycles(@RequestParam(defaultValue = "50") int limit) {
+        logger.info("Received cycle report request; limit: {}", limit);
+        return toResponse(graphService.getCycleReport(limit));
+    }
+
+    /**
+     * Returns structural scores (in/out-degree, PageRank, betweenness, cross-package fan-in) of the classes
+     * matching {@code node}, or of the highest scoring classes when no node is given.
+     *
+     * @param sort  pagerank (default), betweenness, in-degree, out-degree or fan-in.
+     * @param limit Maximum number of classes returned; 0 returns all of them.
+     */
+    @GetMapping("/scores")
+    public ResponseEntity<?> getScores(@RequestParam(required = false) String node,
+                                       @RequestParam(defaultValue = "pagerank") String sort,
+                                       @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Received node score request for node: {} sort: {} limit: {}", node, sort, limit);
+        return toResponse(graphService.getNodeScores(node, sort, limit));
+    }
+
+    private ResponseEntity<?> toResponse(Object result) {
+        if (result instanceof ResponseEntity<?> response) {
+            return response;
+        }
+        return ResponseEntity.ok(result);
+    }
+}
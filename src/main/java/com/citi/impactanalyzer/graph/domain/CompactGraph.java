@@ -0,0 +1,248 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-optimized, int-indexed form of a {@link DependencyGraph}.
+ * <p>
+ * Node names are interned into a dictionary (node id = index into {@link #name(int)}). Outgoing edges are stored
+ * in CSR form: the targets of node {@code n} are {@code target(e)} for {@code e} in
+ * {@code [outStart(n), outEnd(n))}, sorted by target id. Incoming edges use the same layout with source ids.
+ * Each forward edge has one flag word: {@link #FLAG_CRITICAL}, {@link #FLAG_CROSS_PACKAGE} and one
+ * {@link RelationType#bit()} per kind of relation between the two classes.
+ * <p>
+ * Structure is immutable once built; only edge flags may be updated, by the single thread that computes them
+ * after loading.
+ */
+public final class CompactGraph {
+
+    public static final int FLAG_CRITICAL = 1;
+    public static final int FLAG_CROSS_PACKAGE = 1 << 1;
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] flags;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private volatile NodeNameIndex searchIndex;
+    private volatile GraphComponents components;
+    private final VisitMarks.Pool visitMarks;
+
+    private CompactGraph(String[] names, Map<String, Integer> ids, int[] outOffsets, int[] outTargets, int[] flags,
+                         int[] inOffsets, int[] inSources) {
+        this.names = names;
+        this.ids = ids;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.flags = flags;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+        this.visitMarks = new VisitMarks.Pool(names.length);
+    }
+
+    /**
+     * Builds the graph from forward CSR arrays. Rows are sorted by target id and the reverse index is derived;
+     * the arrays passed in are taken over, not copied.
+     */
+    public static CompactGraph of(String[] names, int[] offsets, int[] targets, int[] flags) {
+        int nodeCount = names.length;
+        if (offsets.length != nodeCount + 1 || targets.length != offsets[nodeCount] || flags.length != targets.length) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        }
+
+        Map<String, Integer> ids = new HashMap<>(Math.max(16, (int) (nodeCount / 0.75f) + 1));
+        for (int i = 0; i < nodeCount; i++) {
+            ids.put(names[i], i);
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            sortRow(targets, flags, offsets[n], offsets[n + 1]);
+        }
+
+        int[] inOffsets = new int[nodeCount + 1];
+        for (int target : targets) {
+            inOffsets[target + 1]++;
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            inOffsets[n + 1] += inOffsets[n];
+        }
+        int[] inSources = new int[targets.length];
+        int[] cursor = Arrays.copyOf(inOffsets, nodeCount);
+        for (int source = 0; source < nodeCount; source++) {
+            for (int e = offsets[source]; e < offsets[source + 1]; e++) {
+                inSources[cursor[targets[e]]++] = source;
+            }
+        }
+        return new CompactGraph(names, ids, offsets, targets, flags, inOffsets, inSources);
+    }
+
+    // Insertion sort for short rows, otherwise sort packed (target, flags) pairs
+    private static void sortRow(int[] targets, int[] flags, int from, int to) {
+        int length = to - from;
+        if (length < 2) return;
+        if (length <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                int t = targets[i];
+                int f = flags[i];
+                int j = i - 1;
+                while (j >= from && targets[j] > t) {
+                    targets[j + 1] = targets[j];
+                    flags[j + 1] = flags[j];
+                    j--;
+                }
+                targets[j + 1] = t;
+                flags[j + 1] = f;
+            }
+            return;
+        }
+        long[] packed = new long[length];
+        for (int i = 0; i < length; i++) {
+            packed[i] = ((long) targets[from + i] << 32) | (flags[from + i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packed);
+        for (int i = 0; i < length; i++) {
+            targets[from + i] = (int) (packed[i] >>> 32);
+            flags[from + i] = (int) packed[i];
+        }
+    }
+
+    public int nodeCount() {
+        return names.length;
+    }
+
+    public int edgeCount() {
+        return outTargets.length;
+    }
+
+    /**
+     * Id of the node with this exact name, or -1.
+     */
+    public int indexOf(String name) {
+        Integer id = name != null ? ids.get(name) : null;
+        return id != null ? id : -1;
+    }
+
+    public String name(int node) {
+        return names[node];
+    }
+
+    public int outStart(int node) {
+        return outOffsets[node];
+    }
+
+    public int outEnd(int node) {
+        return outOffsets[node + 1];
+    }
+
+    public int outDegree(int node) {
+        return outOffsets[node + 1] - outOffsets[node];
+    }
+
+    public int target(int edge) {
+        return outTargets[edge];
+    }
+
+    public int inStart(int node) {
+        return inOffsets[node];
+    }
+
+    public int inEnd(int node) {
+        return inOffsets[node + 1];
+    }
+
+    public int inDegree(int node) {
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+
+    public int source(int inEdge) {
+        return inSources[inEdge];
+    }
+
+    public int flags(int edge) {
+        return flags[edge];
+    }
+
+    public boolean isCritical(int edge) {
+        return (flags[edge] & FLAG_CRITICAL) != 0;
+    }
+
+    public void setFlag(int edge, int flag, boolean on) {
+        flags[edge] = on ? flags[edge] | flag : flags[edge] & ~flag;
+    }
+
+    /**
+     * Index of the forward edge {@code source -> target}, or -1 when there is none.
+     */
+    public int edgeIndex(int source, int target) {
+        if (source < 0 || target < 0) return -1;
+        int index = Arrays.binarySearch(outTargets, outOffsets[source], outOffsets[source + 1], target);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Name search index, built on first use.
+     */
+    public NodeNameIndex searchIndex() {
+        NodeNameIndex index = searchIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = searchIndex;
+                if (index == null) {
+                    index = NodeNameIndex.build(this);
+                    searchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Strongly connected components and their condensed DAG, computed on first use.
+     */
+    public GraphComponents components() {
+        GraphComponents result = components;
+        if (result == null) {
+            synchronized (this) {
+                result = components;
+                if (result == null) {
+                    result = GraphComponents.compute(this);
+                    components = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visited sets over the node ids of this graph, shared by the traversals that run on it.
+     */
+    public VisitMarks.Pool visitMarks() {
+        return visitMarks;
+    }
+
+    public GraphNode node(int id) {
+        return new CompactGraphNode(this, id);
+    }
+
+    /**
+     * All nodes as lightweight views, in id order.
+     */
+    public List<GraphNode> nodes() {
+        return new AbstractList<>() {
+            @Override
+            public GraphNode get(int index) {
+                return node(index);
+            }
+
+            @Override
+            public int size() {
+                return names.length;
+            }
+        };
+    }
+}
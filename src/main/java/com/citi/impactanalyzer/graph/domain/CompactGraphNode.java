@@ -0,0 +1,69 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * {@link GraphNode} view of a node in a {@link CompactGraph}. Dependencies are read from the CSR row on each
+ * access; the view is read-only.
+ */
+public final class CompactGraphNode extends GraphNode {
+
+    private final CompactGraph graph;
+    private final int id;
+
+    CompactGraphNode(CompactGraph graph, int id) {
+        super(graph.name(id), Collections.emptySet());
+        this.graph = graph;
+        this.id = id;
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public Set<GraphNode> getDependencies() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<GraphNode> iterator() {
+                return new Iterator<>() {
+                    private int edge = graph.outStart(id);
+
+                    @Override
+                    public boolean hasNext() {
+                        return edge < graph.outEnd(id);
+                    }
+
+                    @Override
+                    public GraphNode next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        return graph.node(graph.target(edge++));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return graph.outDegree(id);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof GraphNode node && graph.edgeIndex(id, graph.indexOf(node.getName())) >= 0;
+            }
+        };
+    }
+
+    @Override
+    public void addDependency(GraphNode node) {
+        throw new UnsupportedOperationException("Frozen graph nodes are read-only");
+    }
+}
@@ -0,0 +1,73 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.List;
+
+/**
+ * Dependency cycles of the loaded graph, largest first, with the shape of the condensed graph around them.
+ */
+public class CycleReport {
+
+    private final int componentCount;
+    private final int cycleCount;
+    private final int levelCount;
+    private final List<Cycle> cycles;
+
+    public CycleReport(int componentCount, int cycleCount, int levelCount, List<Cycle> cycles) {
+        this.componentCount = componentCount;
+        this.cycleCount = cycleCount;
+        this.levelCount = levelCount;
+        this.cycles = cycles != null ? cycles : List.of();
+    }
+
+    /**
+     * Number of strongly connected components, i.e. nodes of the condensed graph.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Total number of cycles, which may exceed the number listed.
+     */
+    public int getCycleCount() {
+        return cycleCount;
+    }
+
+    /**
+     * Number of topological levels of the condensed graph.
+     */
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    public List<Cycle> getCycles() {
+        return cycles;
+    }
+
+    public static class Cycle {
+        private final int size;
+        private final int level;
+        private final List<String> members;
+
+        public Cycle(int size, int level, List<String> members) {
+            this.size = size;
+            this.level = level;
+            this.members = members != null ? members : List.of();
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Topological level of the cycle: 0 when it depends on nothing outside itself.
+         */
+        public int getLevel() {
+            return level;
+        }
+
+        public List<String> getMembers() {
+            return members;
+        }
+    }
+}
@@ -4,21 +4,42 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Dependency graph with a build-then-freeze lifecycle.
+ * <p>
+ * While loading, edges are added to concurrent maps. {@link #freeze()} converts them into a {@link CompactGraph}
+ * and releases the maps; queries are then answered from the compact form and nodes are returned as
+ * {@link CompactGraphNode} views. Any later mutation thaws the graph back into maps until the next freeze.
+ */
 public class DependencyGraph {
 
     private final Map<String, GraphNode> nodes;
     private final Map<String, Map<String, EdgeMetadata>> edgeMetadata = new ConcurrentHashMap<>();
+    // Reverse adjacency: target -> sources that depend on it
+    private final Map<String, Set<String>> dependents = new ConcurrentHashMap<>();
+    private volatile CompactGraph compact;
+    // Bumped whenever the frozen form is replaced or discarded
+    private volatile long version;
 
     public DependencyGraph() {
         this.nodes = new ConcurrentHashMap<>();
     }
 
     public GraphNode getNode(String nodeName) {
+        CompactGraph c = compact;
+        if (c != null) {
+            int id = c.indexOf(nodeName);
+            return id >= 0 ? c.node(id) : null;
+        }
         return nodes.get(nodeName);
     }
 
     public Set<GraphNode> findNodes(String partialName) {
         if (partialName == null) return Collections.emptySet();
+        CompactGraph c = compact;
+        if (c != null) {
+            return toNodes(c, c.searchIndex().search(partialName));
+        }
         String lower = partialName.toLowerCase();
         return nodes.entrySet().stream()
                 .filter(e -> e.getKey().toLowerCase().contains(lower))
@@ -26,43 +47,217 @@ public class DependencyGraph {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Nodes whose simple class name (the part after the last dot) equals {@code simpleName}, ignoring case.
+     */
+    public Set<GraphNode> findBySimpleName(String simpleName) {
+        if (simpleName == null) return Collections.emptySet();
+        CompactGraph c = compact;
+        if (c != null) {
+            return toNodes(c, c.searchIndex().findBySimpleName(simpleName));
+        }
+        return nodes.entrySet().stream()
+                .filter(e -> e.getKey().substring(e.getKey().lastIndexOf('.') + 1).equalsIgnoreCase(simpleName))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<GraphNode> toNodes(CompactGraph c, int[] ids) {
+        Set<GraphNode> found = new HashSet<>(Math.max(16, (int) (ids.length / 0.75f) + 1));
+        for (int id : ids) {
+            found.add(c.node(id));
+        }
+        return found;
+    }
+
     public void addDependency(String source, String target) {
+        addDependency(source, target, null);
+    }
+
+    /**
+     * Adds the edge {@code source -> target}, or records one more relation kind on it when it already exists.
+     */
+    public void addDependency(String source, String target, RelationType relation) {
         Objects.requireNonNull(source, "source cannot be null");
         Objects.requireNonNull(target, "target cannot be null");
+        thaw();
+        addEdge(source, target).addRelation(relation);
+    }
+
+    private EdgeMetadata addEdge(String source, String target) {
         nodes.computeIfAbsent(source, GraphNode::new)
                 .addDependency(nodes.computeIfAbsent(target, GraphNode::new));
-        edgeMetadata.computeIfAbsent(source, s -> new ConcurrentHashMap<>()).computeIfAbsent(target, t -> new EdgeMetadata());
+        dependents.computeIfAbsent(target, t -> ConcurrentHashMap.newKeySet()).add(source);
+        return edgeMetadata.computeIfAbsent(source, s -> new ConcurrentHashMap<>()).computeIfAbsent(target, t -> new EdgeMetadata());
+    }
+
+    public synchronized void clear() {
+        compact = null;
+        version++;
+        nodes.clear();
+        edgeMetadata.clear();
+        dependents.clear();
+    }
+
+    /**
+     * Converts the graph to its compact form, builds its name search index and releases the per-edge maps.
+     * Returns the compact graph, which stays current until the next mutation.
+     */
+    public synchronized CompactGraph freeze() {
+        CompactGraph c = compact;
+        if (c != null) return c;
+
+        String[] names = nodes.keySet().toArray(new String[0]);
+        Map<String, Integer> ids = new HashMap<>(Math.max(16, (int) (names.length / 0.75f) + 1));
+        for (int i = 0; i < names.length; i++) {
+            ids.put(names[i], i);
+        }
+        int[] offsets = new int[names.length + 1];
+        for (int i = 0; i < names.length; i++) {
+            offsets[i + 1] = offsets[i] + nodes.get(names[i]).getDependencies().size();
+        }
+        int[] targets = new int[offsets[names.length]];
+        int[] flags = new int[targets.length];
+        for (int i = 0; i < names.length; i++) {
+            Map<String, EdgeMetadata> meta = edgeMetadata.getOrDefault(names[i], Map.of());
+            int e = offsets[i];
+            for (GraphNode dep : nodes.get(names[i]).getDependencies()) {
+                EdgeMetadata m = meta.get(dep.getName());
+                targets[e] = ids.get(dep.getName());
+                flags[e] = m != null ? m.getFlags() : 0;
+                e++;
+            }
+        }
+
+        c = CompactGraph.of(names, offsets, targets, flags);
+        c.searchIndex();
+        compact = c;
+        version++;
+        nodes.clear();
+        edgeMetadata.clear();
+        dependents.clear();
+        return c;
+    }
+
+    /**
+     * Replaces the contents of this graph with an already built compact graph, e.g. one read from a snapshot or
+     * produced by a {@link DependencyGraphBuilder}. The new graph is published in one step, so readers see either
+     * the previous graph or the complete new one.
+     */
+    public synchronized void load(CompactGraph graph) {
+        Objects.requireNonNull(graph, "graph cannot be null").searchIndex();
+        compact = graph;
+        version++;
+        nodes.clear();
+        edgeMetadata.clear();
+        dependents.clear();
+    }
+
+    /**
+     * The compact form while the graph is frozen, otherwise null.
+     */
+    public CompactGraph getCompact() {
+        return compact;
+    }
+
+    /**
+     * Changes whenever the graph is frozen, loaded, thawed or cleared, so results computed from one frozen form
+     * can be told apart from those of the next.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    // Rebuilds the maps from the compact form before a mutation
+    private void thaw() {
+        if (compact == null) return;
+        synchronized (this) {
+            CompactGraph c = compact;
+            if (c == null) return;
+            for (int source = 0; source < c.nodeCount(); source++) {
+                nodes.computeIfAbsent(c.name(source), GraphNode::new);
+                for (int e = c.outStart(source); e < c.outEnd(source); e++) {
+                    addEdge(c.name(source), c.name(c.target(e))).setFlags(c.flags(e));
+                }
+            }
+            compact = null;
+            version++;
+        }
+    }
+
+    /**
+     * Names of the nodes with an edge to {@code nodeName}, i.e. those affected when it changes.
+     */
+    public Set<String> getDependents(String nodeName) {
+        CompactGraph c = compact;
+        if (c != null) {
+            int id = c.indexOf(nodeName);
+            if (id < 0) return Collections.emptySet();
+            Set<String> sources = new HashSet<>();
+            for (int i = c.inStart(id); i < c.inEnd(id); i++) {
+                sources.add(c.name(c.source(i)));
+            }
+            return Collections.unmodifiableSet(sources);
+        }
+        Set<String> sources = dependents.get(nodeName);
+        return sources != null ? Collections.unmodifiableSet(sources) : Collections.emptySet();
     }
 
     public Collection<GraphNode> getAllNodes() {
-        return nodes.values();
+        CompactGraph c = compact;
+        return c != null ? c.nodes() : nodes.values();
     }
 
     public int nodeCount() {
-        return nodes.size();
+        CompactGraph c = compact;
+        return c != null ? c.nodeCount() : nodes.size();
     }
 
     public long edgeCount() {
+        CompactGraph c = compact;
+        if (c != null) return c.edgeCount();
         return nodes.values().stream().mapToLong(n -> n.getDependencies().size()).sum();
     }
 
     public Map<String, Set<String>> snapshot() {
         Map<String, Set<String>> snap = new HashMap<>();
-        for (Map.Entry<String, GraphNode> e : nodes.entrySet()) {
-            snap.put(e.getKey(), Collections.unmodifiableSet(
-                    e.getValue().getDependencies().stream().map(GraphNode::getName).collect(Collectors.toSet())
+        for (GraphNode node : getAllNodes()) {
+            snap.put(node.getName(), Collections.unmodifiableSet(
+                    node.getDependencies().stream().map(GraphNode::getName).collect(Collectors.toSet())
             ));
         }
         return Collections.unmodifiableMap(snap);
     }
 
+    /**
+     * Metadata of the edge {@code source -> target}. On a frozen graph this is a detached copy; edge flags of a
+     * frozen graph are changed through {@link CompactGraph#setFlag}.
+     */
     public EdgeMetadata getEdgeMetadata(String source, String target) {
+        CompactGraph c = compact;
+        if (c != null) {
+            int edge = c.edgeIndex(c.indexOf(source), c.indexOf(target));
+            if (edge < 0) return null;
+            EdgeMetadata meta = new EdgeMetadata();
+            meta.setFlags(c.flags(edge));
+            return meta;
+        }
         Map<String, EdgeMetadata> m = edgeMetadata.get(source);
         if (m == null) return null;
         return m.get(target);
     }
 
     public Map<String, Map<String, EdgeMetadata>> getAllEdgeMetadata() {
-        return Collections.unmodifiableMap(edgeMetadata);
+        CompactGraph c = compact;
+        if (c == null) return Collections.unmodifiableMap(edgeMetadata);
+        Map<String, Map<String, EdgeMetadata>> all = new HashMap<>();
+        for (int source = 0; source < c.nodeCount(); source++) {
+            for (int e = c.outStart(source); e < c.outEnd(source); e++) {
+                EdgeMetadata meta = new EdgeMetadata();
+                meta.setFlags(c.flags(e));
+                all.computeIfAbsent(c.name(source), s -> new HashMap<>()).put(c.name(c.target(e)), meta);
+            }
+        }
+        return Collections.unmodifiableMap(all);
     }
 }
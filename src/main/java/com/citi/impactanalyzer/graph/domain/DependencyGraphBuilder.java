@@ -0,0 +1,202 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Builds a {@link CompactGraph} from edges added concurrently by any number of threads.
+ * <p>
+ * Each thread appends to its own buffer, with its own name dictionary, so adding an edge takes no lock and
+ * touches no shared map. {@link #build()} merges the buffers once: names are interned into global ids, edges are
+ * laid out in CSR form, and repeated edges between the same two classes are collapsed into one whose flags are the
+ * union of theirs. The result is complete before anyone can see it, so it can be published with
+ * {@link DependencyGraph#load(CompactGraph)} without readers ever observing a partly built graph.
+ * <p>
+ * {@code build()} must run after every thread has finished adding, e.g. once the loading tasks have been joined.
+ * A builder is single-use.
+ */
+public final class DependencyGraphBuilder {
+
+    private final Queue<EdgeBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<EdgeBuffer> localBuffer = ThreadLocal.withInitial(this::newBuffer);
+    private volatile boolean built;
+
+    private EdgeBuffer newBuffer() {
+        EdgeBuffer buffer = new EdgeBuffer();
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Adds the edge {@code source -> target} with an optional relation kind. Safe to call from any thread.
+     */
+    public void addDependency(String source, String target, RelationType relation) {
+        Objects.requireNonNull(source, "source cannot be null");
+        Objects.requireNonNull(target, "target cannot be null");
+        if (built) throw new IllegalStateException("Graph already built");
+        localBuffer.get().add(source, target, relation != null ? relation.bit() : 0);
+    }
+
+    /**
+     * Adds the edge {@code source -> target} with the relation kinds set in {@code relations}, e.g. the flag word
+     * of an edge copied from another graph. Bits other than relation kinds are dropped. Safe to call from any
+     * thread.
+     */
+    public void addDependency(String source, String target, int relations) {
+        Objects.requireNonNull(source, "source cannot be null");
+        Objects.requireNonNull(target, "target cannot be null");
+        if (built) throw new IllegalStateException("Graph already built");
+        localBuffer.get().add(source, target, relations & RelationType.MASK);
+    }
+
+    /**
+     * Adds {@code name} as a node even when no edge mentions it. Safe to call from any thread.
+     */
+    public void addNode(String name) {
+        Objects.requireNonNull(name, "name cannot be null");
+        if (built) throw new IllegalStateException("Graph already built");
+        localBuffer.get().id(name);
+    }
+
+    /**
+     * Merges every thread's edges into a compact graph and releases the buffers.
+     */
+    public CompactGraph build() {
+        if (built) throw new IllegalStateException("Graph already built");
+        built = true;
+        EdgeBuffer[] parts = buffers.toArray(new EdgeBuffer[0]);
+        buffers.clear();
+
+        // Global ids in first-seen order; each buffer gets a local -> global mapping
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int[][] globalIds = new int[parts.length][];
+        for (int p = 0; p < parts.length; p++) {
+            List<String> local = parts[p].names;
+            int[] mapping = new int[local.size()];
+            for (int i = 0; i < mapping.length; i++) {
+                mapping[i] = ids.computeIfAbsent(local.get(i), k -> {
+                    names.add(k);
+                    return names.size() - 1;
+                });
+            }
+            globalIds[p] = mapping;
+        }
+        int nodeCount = names.size();
+
+        int[] offsets = new int[nodeCount + 1];
+        for (int p = 0; p < parts.length; p++) {
+            EdgeBuffer part = parts[p];
+            for (int i = 0; i < part.size; i++) {
+                offsets[globalIds[p][part.sources[i]] + 1]++;
+            }
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            offsets[n + 1] += offsets[n];
+        }
+        int[] targets = new int[offsets[nodeCount]];
+        int[] flags = new int[targets.length];
+        int[] cursor = Arrays.copyOf(offsets, nodeCount);
+        for (int p = 0; p < parts.length; p++) {
+            EdgeBuffer part = parts[p];
+            int[] mapping = globalIds[p];
+            for (int i = 0; i < part.size; i++) {
+                int e = cursor[mapping[part.sources[i]]]++;
+                targets[e] = mapping[part.targets[i]];
+                flags[e] = part.flags[i];
+            }
+            part.release();
+        }
+
+        // Rows are sorted and deduplicated independently, then packed together
+        int[] rowLength = new int[nodeCount];
+        IntStream.range(0, nodeCount).parallel()
+                .forEach(n -> rowLength[n] = sortUnique(targets, flags, offsets[n], offsets[n + 1]));
+        int[] packedOffsets = new int[nodeCount + 1];
+        for (int n = 0; n < nodeCount; n++) {
+            packedOffsets[n + 1] = packedOffsets[n] + rowLength[n];
+        }
+        int edgeCount = packedOffsets[nodeCount];
+        int[] packedTargets = edgeCount == targets.length ? targets : new int[edgeCount];
+        int[] packedFlags = edgeCount == targets.length ? flags : new int[edgeCount];
+        if (edgeCount != targets.length) {
+            for (int n = 0; n < nodeCount; n++) {
+                System.arraycopy(targets, offsets[n], packedTargets, packedOffsets[n], rowLength[n]);
+                System.arraycopy(flags, offsets[n], packedFlags, packedOffsets[n], rowLength[n]);
+            }
+        }
+        return CompactGraph.of(names.toArray(new String[0]), packedOffsets, packedTargets, packedFlags);
+    }
+
+    // Sorts one row by target, folds duplicate targets into the first (OR of flags) and returns the new length
+    private static int sortUnique(int[] targets, int[] flags, int from, int to) {
+        int length = to - from;
+        if (length < 2) return length;
+        long[] packed = new long[length];
+        for (int i = 0; i < length; i++) {
+            packed[i] = ((long) targets[from + i] << 32) | (flags[from + i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packed);
+        int unique = 0;
+        for (int i = 0; i < length; i++) {
+            int target = (int) (packed[i] >>> 32);
+            int flag = (int) packed[i];
+            if (unique > 0 && targets[from + unique - 1] == target) {
+                flags[from + unique - 1] |= flag;
+            } else {
+                targets[from + unique] = target;
+                flags[from + unique] = flag;
+                unique++;
+            }
+        }
+        return unique;
+    }
+
+    // Edges added by one thread, with names interned into ids local to that thread
+    private static final class EdgeBuffer {
+        private Map<String, Integer> ids = new HashMap<>();
+        private List<String> names = new ArrayList<>();
+        private int[] sources = new int[256];
+        private int[] targets = new int[256];
+        private int[] flags = new int[256];
+        private int size;
+
+        void add(String source, String target, int flag) {
+            if (size == sources.length) {
+                int capacity = size * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                flags = Arrays.copyOf(flags, capacity);
+            }
+            sources[size] = id(source);
+            targets[size] = id(target);
+            flags[size] = flag;
+            size++;
+        }
+
+        private int id(String name) {
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = names.size();
+                ids.put(name, id);
+                names.add(name);
+            }
+            return id;
+        }
+
+        // Pool threads may keep this buffer in their thread-local map after the builder is gone
+        void release() {
+            ids = Map.of();
+            names = List.of();
+            sources = targets = flags = new int[0];
+            size = 0;
+        }
+    }
+}
@@ -1,19 +1,57 @@
 package com.citi.impactanalyzer.graph.domain;
 
+import java.util.Set;
+
+/**
+ * Attributes of one dependency edge, packed into the same flag word a {@link CompactGraph} stores per edge.
+ */
 public class EdgeMetadata {
-    private boolean critical;
+    private int flags;
 
     public EdgeMetadata() {
-        this.critical = false;
+        this.flags = 0;
     }
 
     public boolean isCritical() {
-        return critical;
+        return (flags & CompactGraph.FLAG_CRITICAL) != 0;
     }
 
     public void setCritical(boolean critical) {
-        this.critical = critical;
+        setFlag(CompactGraph.FLAG_CRITICAL, critical);
     }
 
-}
+    /**
+     * True when the edge connects classes in different top-level packages.
+     */
+    public boolean isCrossPackage() {
+        return (flags & CompactGraph.FLAG_CROSS_PACKAGE) != 0;
+    }
+
+    public void setCrossPackage(boolean crossPackage) {
+        setFlag(CompactGraph.FLAG_CROSS_PACKAGE, crossPackage);
+    }
+
+    public void addRelation(RelationType relation) {
+        if (relation != null) flags |= relation.bit();
+    }
+
+    /**
+     * Every kind of relation found between the two classes.
+     */
+    public Set<RelationType> getRelations() {
+        return RelationType.fromMask(flags);
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public void setFlags(int flags) {
+        this.flags = flags;
+    }
+
+    private void setFlag(int flag, boolean on) {
+        flags = on ? flags | flag : flags & ~flag;
+    }
 
+}
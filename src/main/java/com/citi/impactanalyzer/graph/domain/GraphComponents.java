@@ -0,0 +1,265 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Strongly connected components of a {@link CompactGraph} and the condensed DAG between them.
+ * <p>
+ * Components are found with an iterative Tarjan pass, so deep dependency chains cannot overflow the stack. They
+ * are numbered in the order Tarjan completes them, which is a reverse topological order: every DAG edge goes from
+ * a higher component id to a lower one. Members and DAG edges use the same CSR layout as {@link CompactGraph}.
+ * The level of a component is 0 when it depends on no other component, otherwise one more than the highest level
+ * among its dependencies.
+ */
+public final class GraphComponents {
+
+    private final int[] component;
+    private final int[] memberOffsets;
+    private final int[] members;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final int[] levels;
+    private final boolean[] selfLoop;
+    private final int levelCount;
+    private final VisitMarks.Pool visitMarks;
+
+    private GraphComponents(int[] component, int[] memberOffsets, int[] members, int[] outOffsets, int[] outTargets,
+                            int[] inOffsets, int[] inSources, int[] levels, boolean[] selfLoop, int levelCount) {
+        this.component = component;
+        this.memberOffsets = memberOffsets;
+        this.members = members;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+        this.levels = levels;
+        this.selfLoop = selfLoop;
+        this.levelCount = levelCount;
+        this.visitMarks = new VisitMarks.Pool(levels.length);
+    }
+
+    public static GraphComponents compute(CompactGraph graph) {
+        int nodeCount = graph.nodeCount();
+        int[] component = new int[nodeCount];
+        int componentCount = tarjan(graph, component);
+
+        // Members grouped by component
+        int[] memberOffsets = new int[componentCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            memberOffsets[component[node] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = new int[nodeCount];
+        int[] cursor = Arrays.copyOf(memberOffsets, componentCount);
+        for (int node = 0; node < nodeCount; node++) {
+            members[cursor[component[node]]++] = node;
+        }
+
+        // Condensed edges, each distinct component pair once; the last source seen per target removes duplicates
+        int[] outOffsets = new int[componentCount + 1];
+        int[] outTargets = new int[16];
+        int edgeCount = 0;
+        int[] lastSource = new int[componentCount];
+        Arrays.fill(lastSource, -1);
+        boolean[] selfLoop = new boolean[componentCount];
+        for (int c = 0; c < componentCount; c++) {
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int node = members[m];
+                for (int e = graph.outStart(node); e < graph.outEnd(node); e++) {
+                    int target = graph.target(e);
+                    int d = component[target];
+                    if (d == c) {
+                        if (target == node) selfLoop[c] = true;
+                        continue;
+                    }
+                    if (lastSource[d] == c) continue;
+                    lastSource[d] = c;
+                    if (edgeCount == outTargets.length) outTargets = Arrays.copyOf(outTargets, edgeCount * 2);
+                    outTargets[edgeCount++] = d;
+                }
+            }
+            outOffsets[c + 1] = edgeCount;
+        }
+        outTargets = Arrays.copyOf(outTargets, edgeCount);
+
+        int[] inOffsets = new int[componentCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            inOffsets[outTargets[i] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            inOffsets[c + 1] += inOffsets[c];
+        }
+        int[] inSources = new int[edgeCount];
+        int[] inCursor = Arrays.copyOf(inOffsets, componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            for (int i = outOffsets[c]; i < outOffsets[c + 1]; i++) {
+                inSources[inCursor[outTargets[i]]++] = c;
+            }
+        }
+
+        // Dependencies always have lower ids, so one ascending pass sees them before their dependents
+        int[] levels = new int[componentCount];
+        int levelCount = 0;
+        for (int c = 0; c < componentCount; c++) {
+            int level = 0;
+            for (int i = outOffsets[c]; i < outOffsets[c + 1]; i++) {
+                level = Math.max(level, levels[outTargets[i]] + 1);
+            }
+            levels[c] = level;
+            levelCount = Math.max(levelCount, level + 1);
+        }
+
+        return new GraphComponents(component, memberOffsets, members, outOffsets, outTargets, inOffsets, inSources,
+                levels, selfLoop, levelCount);
+    }
+
+    // Iterative Tarjan: an explicit call stack of (node, next edge) replaces recursion. Returns the component count.
+    private static int tarjan(CompactGraph graph, int[] component) {
+        int nodeCount = graph.nodeCount();
+        int[] index = new int[nodeCount];
+        int[] low = new int[nodeCount];
+        Arrays.fill(index, -1);
+        Arrays.fill(component, -1);
+        int[] stack = new int[nodeCount];
+        int[] callNode = new int[nodeCount];
+        int[] callEdge = new int[nodeCount];
+        int sp = 0;
+        int counter = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] >= 0) continue;
+            index[root] = low[root] = counter++;
+            stack[sp++] = root;
+            callNode[0] = root;
+            callEdge[0] = graph.outStart(root);
+            int csp = 1;
+
+            while (csp > 0) {
+                int v = callNode[csp - 1];
+                int e = callEdge[csp - 1];
+                if (e < graph.outEnd(v)) {
+                    callEdge[csp - 1] = e + 1;
+                    int w = graph.target(e);
+                    if (index[w] < 0) {
+                        index[w] = low[w] = counter++;
+                        stack[sp++] = w;
+                        callNode[csp] = w;
+                        callEdge[csp] = graph.outStart(w);
+                        csp++;
+                    } else if (component[w] < 0) {
+                        // Visited and not yet assigned, so still on the stack
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                csp--;
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--sp];
+                        component[w] = componentCount;
+                    } while (w != v);
+                    componentCount++;
+                }
+                if (csp > 0) {
+                    int parent = callNode[csp - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        return componentCount;
+    }
+
+    public int componentCount() {
+        return levels.length;
+    }
+
+    /**
+     * Visited sets over the component ids, shared by the traversals of the condensed DAG.
+     */
+    public VisitMarks.Pool visitMarks() {
+        return visitMarks;
+    }
+
+    public int component(int node) {
+        return component[node];
+    }
+
+    public int size(int component) {
+        return memberOffsets[component + 1] - memberOffsets[component];
+    }
+
+    public int memberStart(int component) {
+        return memberOffsets[component];
+    }
+
+    public int memberEnd(int component) {
+        return memberOffsets[component + 1];
+    }
+
+    public int member(int index) {
+        return members[index];
+    }
+
+    public int outStart(int component) {
+        return outOffsets[component];
+    }
+
+    public int outEnd(int component) {
+        return outOffsets[component + 1];
+    }
+
+    public int target(int edge) {
+        return outTargets[edge];
+    }
+
+    public int inStart(int component) {
+        return inOffsets[component];
+    }
+
+    public int inEnd(int component) {
+        return inOffsets[component + 1];
+    }
+
+    public int source(int inEdge) {
+        return inSources[inEdge];
+    }
+
+    public int edgeCount() {
+        return outTargets.length;
+    }
+
+    public int level(int component) {
+        return levels[component];
+    }
+
+    public int levelCount() {
+        return levelCount;
+    }
+
+    /**
+     * True when the component contains a dependency cycle: more than one member, or a class depending on itself.
+     */
+    public boolean isCyclic(int component) {
+        return size(component) > 1 || selfLoop[component];
+    }
+
+    /**
+     * Ids of the cyclic components, largest first.
+     */
+    public int[] cycles() {
+        return IntStream.range(0, componentCount())
+                .filter(this::isCyclic)
+                .boxed()
+                .sorted((a, b) -> Integer.compare(size(b), size(a)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
@@ -16,6 +16,12 @@ public class GraphNode {
         this.dependencies = Collections.newSetFromMap(new ConcurrentHashMap<>());
     }
 
+    // For views whose dependencies are derived rather than stored
+    protected GraphNode(String name, Set<GraphNode> dependencies) {
+        this.name = name;
+        this.dependencies = dependencies;
+    }
+
     public String getName() {
         return name;
     }
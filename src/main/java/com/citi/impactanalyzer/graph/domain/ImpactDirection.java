@@ -0,0 +1,28 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.Locale;
+
+/**
+ * Which edges an impact traversal follows from the changed class.
+ */
+public enum ImpactDirection {
+    /** Classes that depend on the changed class, directly or transitively: what may break. */
+    DOWNSTREAM,
+    /** Classes the changed class depends on. */
+    UPSTREAM,
+    /** Both of the above. */
+    BOTH;
+
+    public static ImpactDirection from(String value) {
+        if (value == null || value.isBlank()) return DOWNSTREAM;
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public boolean followsDependents() {
+        return this != UPSTREAM;
+    }
+
+    public boolean followsDependencies() {
+        return this != DOWNSTREAM;
+    }
+}
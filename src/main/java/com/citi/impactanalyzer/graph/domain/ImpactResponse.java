@@ -0,0 +1,52 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.List;
+
+public class ImpactResponse {
+
+    private final String node;
+    private final ImpactDirection direction;
+    private final List<String> matches;
+    private final List<String> impacted;
+    private final boolean truncated;
+
+    public ImpactResponse(String node, ImpactDirection direction, List<String> matches, List<String> impacted) {
+        this(node, direction, matches, impacted, false);
+    }
+
+    public ImpactResponse(String node, ImpactDirection direction, List<String> matches, List<String> impacted,
+                          boolean truncated) {
+        this.node = node;
+        this.direction = direction;
+        this.matches = matches != null ? matches : List.of();
+        this.impacted = impacted != null ? impacted : List.of();
+        this.truncated = truncated;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public ImpactDirection getDirection() {
+        return direction;
+    }
+
+    public List<String> getMatches() {
+        return matches;
+    }
+
+    public List<String> getImpacted() {
+        return impacted;
+    }
+
+    /**
+     * True when a traversal limit stopped the walk before the full transitive impact was reached.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public int getCount() {
+        return impacted.size();
+    }
+}
@@ -0,0 +1,152 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Case-insensitive name lookup over the nodes of a {@link CompactGraph}.
+ * <p>
+ * Names are lowercased once. Every distinct trigram maps to the sorted ids of the names containing it, so a
+ * substring query intersects the postings of its trigrams and only verifies the few surviving candidates.
+ * Queries shorter than three characters fall back to a scan of the lowercased names. Simple class names (the
+ * part after the last dot) have their own exact-match table.
+ */
+public final class NodeNameIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final String[] lowerNames;
+    private final Map<Long, int[]> trigrams;
+    private final Map<String, int[]> simpleNames;
+
+    private NodeNameIndex(String[] lowerNames, Map<Long, int[]> trigrams, Map<String, int[]> simpleNames) {
+        this.lowerNames = lowerNames;
+        this.trigrams = trigrams;
+        this.simpleNames = simpleNames;
+    }
+
+    public static NodeNameIndex build(CompactGraph graph) {
+        int count = graph.nodeCount();
+        String[] lowerNames = new String[count];
+        Map<Long, IntList> trigramLists = new HashMap<>();
+        Map<String, IntList> simpleLists = new HashMap<>();
+
+        for (int id = 0; id < count; id++) {
+            String lower = graph.name(id).toLowerCase(Locale.ROOT);
+            lowerNames[id] = lower;
+            for (int i = 0; i + 3 <= lower.length(); i++) {
+                // Ids arrive in increasing order, so a repeated trigram of this name is the list's last element
+                trigramLists.computeIfAbsent(trigram(lower, i), k -> new IntList()).addIfNotLast(id);
+            }
+            simpleLists.computeIfAbsent(simpleName(lower), k -> new IntList()).addIfNotLast(id);
+        }
+
+        Map<Long, int[]> trigrams = new HashMap<>(Math.max(16, (int) (trigramLists.size() / 0.75f) + 1));
+        trigramLists.forEach((key, ids) -> trigrams.put(key, ids.toArray()));
+        Map<String, int[]> simpleNames = new HashMap<>(Math.max(16, (int) (simpleLists.size() / 0.75f) + 1));
+        simpleLists.forEach((key, ids) -> simpleNames.put(key, ids.toArray()));
+        return new NodeNameIndex(lowerNames, trigrams, simpleNames);
+    }
+
+    /**
+     * Ids of the nodes whose name contains {@code query}, ignoring case, in ascending order.
+     */
+    public int[] search(String query) {
+        if (query == null) return NONE;
+        String q = query.toLowerCase(Locale.ROOT);
+        if (q.length() < 3) {
+            return scan(q);
+        }
+
+        int gramCount = q.length() - 2;
+        int[][] postings = new int[gramCount][];
+        for (int i = 0; i < gramCount; i++) {
+            int[] ids = trigrams.get(trigram(q, i));
+            if (ids == null) return NONE;
+            postings[i] = ids;
+        }
+        Arrays.sort(postings, Comparator.comparingInt(p -> p.length));
+
+        int[] candidates = postings[0];
+        // Intersecting a few of the shortest lists narrows enough; verification below handles the rest
+        for (int i = 1; i < postings.length && i < 4 && candidates.length > 0; i++) {
+            candidates = intersect(candidates, postings[i]);
+        }
+
+        int[] result = new int[candidates.length];
+        int n = 0;
+        for (int id : candidates) {
+            if (postings.length == 1 || lowerNames[id].contains(q)) {
+                result[n++] = id;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Ids of the nodes whose simple class name equals {@code simpleName}, ignoring case.
+     */
+    public int[] findBySimpleName(String simpleName) {
+        if (simpleName == null) return NONE;
+        int[] ids = simpleNames.get(simpleName.toLowerCase(Locale.ROOT));
+        return ids != null ? ids.clone() : NONE;
+    }
+
+    private int[] scan(String q) {
+        int[] result = new int[16];
+        int n = 0;
+        for (int id = 0; id < lowerNames.length; id++) {
+            if (lowerNames[id].contains(q)) {
+                if (n == result.length) result = Arrays.copyOf(result, n * 2);
+                result[n++] = id;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    private static String simpleName(String name) {
+        int lastDot = name.lastIndexOf('.');
+        return lastDot >= 0 ? name.substring(lastDot + 1) : name;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void addIfNotLast(int value) {
+            if (size > 0 && values[size - 1] == value) return;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
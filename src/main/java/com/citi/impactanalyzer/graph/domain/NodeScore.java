@@ -0,0 +1,58 @@
+package com.citi.impactanalyzer.graph.domain;
+
+/**
+ * Structural scores of one class, as reported by the scores endpoint.
+ */
+public class NodeScore {
+
+    private final String node;
+    private final int inDegree;
+    private final int outDegree;
+    private final float pageRank;
+    private final float betweenness;
+    private final int crossPackageFanIn;
+
+    public NodeScore(String node, int inDegree, int outDegree, float pageRank, float betweenness, int crossPackageFanIn) {
+        this.node = node;
+        this.inDegree = inDegree;
+        this.outDegree = outDegree;
+        this.pageRank = pageRank;
+        this.betweenness = betweenness;
+        this.crossPackageFanIn = crossPackageFanIn;
+    }
+
+    public static NodeScore of(NodeScores scores, int id) {
+        return new NodeScore(scores.getGraph().name(id), scores.inDegree(id), scores.outDegree(id),
+                scores.pageRank(id), scores.betweenness(id), scores.crossPackageFanIn(id));
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public int getInDegree() {
+        return inDegree;
+    }
+
+    public int getOutDegree() {
+        return outDegree;
+    }
+
+    public float getPageRank() {
+        return pageRank;
+    }
+
+    /**
+     * Approximate number of shortest dependency paths passing through the class.
+     */
+    public float getBetweenness() {
+        return betweenness;
+    }
+
+    /**
+     * Number of other packages containing a class that depends on this one.
+     */
+    public int getCrossPackageFanIn() {
+        return crossPackageFanIn;
+    }
+}
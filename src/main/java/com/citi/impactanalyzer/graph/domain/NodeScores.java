@@ -0,0 +1,238 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Per-node structural scores of a {@link CompactGraph}, one primitive array per signal indexed by node id.
+ * <p>
+ * In- and out-degree come straight from the CSR offsets. PageRank follows dependency edges, so classes that many
+ * important classes depend on rank highest. Betweenness is approximated with Brandes' algorithm from a fixed
+ * sample of source nodes and scaled to the full node count. Cross-package fan-in counts the distinct packages,
+ * other than the node's own, that contain a class depending on it. Every pass runs in parallel on the common
+ * fork-join pool.
+ */
+public final class NodeScores {
+
+    private static final double DAMPING = 0.85;
+    private static final double CONVERGENCE = 1e-6;
+
+    private final CompactGraph graph;
+    private final float[] pageRank;
+    private final float[] betweenness;
+    private final int[] crossPackageFanIn;
+
+    private NodeScores(CompactGraph graph, float[] pageRank, float[] betweenness, int[] crossPackageFanIn) {
+        this.graph = graph;
+        this.pageRank = pageRank;
+        this.betweenness = betweenness;
+        this.crossPackageFanIn = crossPackageFanIn;
+    }
+
+    /**
+     * @param pageRankIterations maximum PageRank iterations; 0 skips PageRank
+     * @param betweennessSamples source nodes sampled for betweenness; 0 skips it
+     */
+    public static NodeScores compute(CompactGraph graph, int pageRankIterations, int betweennessSamples) {
+        return new NodeScores(graph, pageRank(graph, pageRankIterations), betweenness(graph, betweennessSamples),
+                crossPackageFanIn(graph));
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    public int inDegree(int node) {
+        return graph.inDegree(node);
+    }
+
+    public int outDegree(int node) {
+        return graph.outDegree(node);
+    }
+
+    public float pageRank(int node) {
+        return pageRank[node];
+    }
+
+    public float betweenness(int node) {
+        return betweenness[node];
+    }
+
+    public int crossPackageFanIn(int node) {
+        return crossPackageFanIn[node];
+    }
+
+    // Pull-based power iteration over the reverse index; rank of dangling nodes is spread evenly
+    private static float[] pageRank(CompactGraph graph, int iterations) {
+        int n = graph.nodeCount();
+        float[] result = new float[n];
+        if (n == 0 || iterations <= 0) return result;
+
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int i = 0; i < iterations; i++) {
+            double[] current = rank;
+            double dangling = IntStream.range(0, n).parallel()
+                    .mapToDouble(v -> {
+                        int degree = graph.outDegree(v);
+                        share[v] = degree > 0 ? current[v] / degree : 0;
+                        return degree > 0 ? 0 : current[v];
+                    })
+                    .sum();
+            double base = (1 - DAMPING) / n + DAMPING * dangling / n;
+            double[] target = next;
+            double delta = IntStream.range(0, n).parallel()
+                    .mapToDouble(v -> {
+                        double sum = 0;
+                        for (int e = graph.inStart(v); e < graph.inEnd(v); e++) {
+                            sum += share[graph.source(e)];
+                        }
+                        target[v] = base + DAMPING * sum;
+                        return Math.abs(target[v] - current[v]);
+                    })
+                    .sum();
+            next = rank;
+            rank = target;
+            if (delta < CONVERGENCE) break;
+        }
+        for (int v = 0; v < n; v++) {
+            result[v] = (float) rank[v];
+        }
+        return result;
+    }
+
+    // Brandes from sampled sources, split into one chunk per worker so each reuses its scratch arrays
+    private static float[] betweenness(CompactGraph graph, int samples) {
+        int n = graph.nodeCount();
+        float[] result = new float[n];
+        if (n == 0 || samples <= 0) return result;
+
+        int[] sources = sampleSources(n, Math.min(samples, n));
+        int chunks = Math.min(sources.length, ForkJoinPool.getCommonPoolParallelism());
+        double[] total = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    BrandesScratch scratch = new BrandesScratch(n);
+                    for (int i = chunk; i < sources.length; i += chunks) {
+                        scratch.accumulate(graph, sources[i]);
+                    }
+                    return scratch.centrality;
+                })
+                .reduce((a, b) -> {
+                    for (int v = 0; v < n; v++) a[v] += b[v];
+                    return a;
+                })
+                .orElseGet(() -> new double[n]);
+
+        double scale = (double) n / sources.length;
+        for (int v = 0; v < n; v++) {
+            result[v] = (float) (total[v] * scale);
+        }
+        return result;
+    }
+
+    // Fixed seed, so the same graph always gets the same scores
+    private static int[] sampleSources(int n, int count) {
+        if (count == n) return IntStream.range(0, n).toArray();
+        Random random = new Random(n);
+        int[] ids = IntStream.range(0, n).toArray();
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(n - i);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private static final class BrandesScratch {
+        final double[] centrality;
+        final double[] sigma;
+        final double[] delta;
+        final int[] distance;
+        final int[] order;
+
+        BrandesScratch(int n) {
+            centrality = new double[n];
+            sigma = new double[n];
+            delta = new double[n];
+            distance = new int[n];
+            order = new int[n];
+            Arrays.fill(distance, -1);
+        }
+
+        void accumulate(CompactGraph graph, int source) {
+            // Breadth-first from source; order doubles as the queue and, reversed, as the dependency stack
+            int head = 0;
+            int tail = 0;
+            sigma[source] = 1;
+            distance[source] = 0;
+            order[tail++] = source;
+            while (head < tail) {
+                int v = order[head++];
+                for (int e = graph.outStart(v); e < graph.outEnd(v); e++) {
+                    int w = graph.target(e);
+                    if (distance[w] < 0) {
+                        distance[w] = distance[v] + 1;
+                        order[tail++] = w;
+                    }
+                    if (distance[w] == distance[v] + 1) {
+                        sigma[w] += sigma[v];
+                    }
+                }
+            }
+            for (int i = tail - 1; i >= 0; i--) {
+                int w = order[i];
+                for (int e = graph.outStart(w); e < graph.outEnd(w); e++) {
+                    int x = graph.target(e);
+                    if (distance[x] == distance[w] + 1) {
+                        delta[w] += sigma[w] / sigma[x] * (1 + delta[x]);
+                    }
+                }
+                if (w != source) centrality[w] += delta[w];
+            }
+            // Reset only what this source touched
+            for (int i = 0; i < tail; i++) {
+                int v = order[i];
+                sigma[v] = 0;
+                delta[v] = 0;
+                distance[v] = -1;
+            }
+        }
+    }
+
+    private static int[] crossPackageFanIn(CompactGraph graph) {
+        int n = graph.nodeCount();
+        int[] packageIds = new int[n];
+        Map<String, Integer> ids = new HashMap<>();
+        for (int v = 0; v < n; v++) {
+            String name = graph.name(v);
+            int lastDot = name.lastIndexOf('.');
+            packageIds[v] = ids.computeIfAbsent(lastDot >= 0 ? name.substring(0, lastDot) : "", k -> ids.size());
+        }
+
+        int[] fanIn = new int[n];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int degree = graph.inDegree(v);
+            if (degree == 0) return;
+            int[] packages = new int[degree];
+            int count = 0;
+            for (int e = graph.inStart(v); e < graph.inEnd(v); e++) {
+                int pkg = packageIds[graph.source(e)];
+                if (pkg != packageIds[v]) packages[count++] = pkg;
+            }
+            Arrays.sort(packages, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || packages[i] != packages[i - 1]) distinct++;
+            }
+            fanIn[v] = distinct;
+        });
+        return fanIn;
+    }
+}
@@ -0,0 +1,97 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Kind of a dependency edge, as reported by the extractors. Each kind owns one bit of the {@link CompactGraph}
+ * edge flag word above the bits used for criticality, so an edge carries every relation found between its two
+ * classes and a traversal can be restricted to some kinds with a single mask test.
+ */
+public enum RelationType {
+    CALLS,
+    CALLS_CONSTRUCTOR,
+    READS,
+    WRITES,
+    IMPLEMENTS,
+    EXTENDS,
+    USES_TYPE,
+    ANNOTATED_WITH,
+    THROWS,
+    IMPORTS,
+    DEPENDS_ON_PACKAGE,
+    DEPENDS_ON_VIEW,
+    DEPENDS_ON_PROCEDURE,
+    /** A relation name no extractor is expected to produce. */
+    OTHER;
+
+    private static final int FIRST_BIT = 8;
+
+    /** Type-level relations: a change to the target's shape affects the source. */
+    public static final Set<RelationType> STRUCTURAL = EnumSet.of(IMPLEMENTS, EXTENDS, USES_TYPE, ANNOTATED_WITH,
+            THROWS, IMPORTS, DEPENDS_ON_PACKAGE);
+    /** Calls into methods, constructors and procedures. */
+    public static final Set<RelationType> INVOCATION = EnumSet.of(CALLS, CALLS_CONSTRUCTOR, DEPENDS_ON_PROCEDURE);
+    /** Reads and writes of fields, tables and views. */
+    public static final Set<RelationType> DATA = EnumSet.of(READS, WRITES, DEPENDS_ON_VIEW);
+
+    /**
+     * All relation bits of an edge flag word.
+     */
+    public static final int MASK = ((1 << values().length) - 1) << FIRST_BIT;
+
+    public int bit() {
+        return 1 << (FIRST_BIT + ordinal());
+    }
+
+    /**
+     * The relation named {@code value}, ignoring case, or null when it names none.
+     */
+    public static RelationType from(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static int maskOf(Set<RelationType> relations) {
+        int mask = 0;
+        for (RelationType relation : relations) {
+            mask |= relation.bit();
+        }
+        return mask;
+    }
+
+    public static Set<RelationType> fromMask(int flags) {
+        Set<RelationType> relations = EnumSet.noneOf(RelationType.class);
+        for (RelationType relation : values()) {
+            if ((flags & relation.bit()) != 0) relations.add(relation);
+        }
+        return relations;
+    }
+
+    /**
+     * Mask for a comma-separated list of relation names and the groups {@code structural}, {@code invocation} and
+     * {@code data}; 0 for a blank filter.
+     *
+     * @throws IllegalArgumentException for a name that is neither a relation nor a group
+     */
+    public static int parseMask(String filter) {
+        if (filter == null || filter.isBlank()) return 0;
+        int mask = 0;
+        for (String token : filter.split(",")) {
+            String name = token.trim().toUpperCase(Locale.ROOT);
+            if (name.isEmpty()) continue;
+            mask |= switch (name) {
+                case "STRUCTURAL" -> maskOf(STRUCTURAL);
+                case "INVOCATION" -> maskOf(INVOCATION);
+                case "DATA" -> maskOf(DATA);
+                default -> valueOf(name).bit();
+            };
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,52 @@
+package com.citi.impactanalyzer.graph.domain;
+
+/**
+ * Bounds for a graph traversal. Zero or negative values mean unlimited; {@code edgeFlagMask} restricts the walk
+ * to edges having at least one of the given {@link CompactGraph} flag bits (0 = every edge).
+ */
+public final class TraversalLimits {
+
+    private static final TraversalLimits UNLIMITED = new TraversalLimits(0, 0, 0, 0, 0);
+
+    private final int maxDepth;
+    private final int maxNodes;
+    private final int maxEdges;
+    private final long timeoutMs;
+    private final int edgeFlagMask;
+
+    public TraversalLimits(int maxDepth, int maxNodes, int maxEdges, long timeoutMs, int edgeFlagMask) {
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.maxEdges = maxEdges;
+        this.timeoutMs = timeoutMs;
+        this.edgeFlagMask = edgeFlagMask;
+    }
+
+    public static TraversalLimits unlimited() {
+        return UNLIMITED;
+    }
+
+    public TraversalLimits withEdgeFlagMask(int mask) {
+        return new TraversalLimits(maxDepth, maxNodes, maxEdges, timeoutMs, mask);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    public int getMaxEdges() {
+        return maxEdges;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public int getEdgeFlagMask() {
+        return edgeFlagMask;
+    }
+}
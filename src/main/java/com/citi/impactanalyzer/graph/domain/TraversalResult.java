@@ -0,0 +1,67 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.List;
+
+/**
+ * Nodes reached by a bounded traversal in visit order, the edges walked, and which limit, if any, stopped it.
+ */
+public final class TraversalResult {
+
+    public enum Cutoff {
+        NONE, DEPTH, NODES, EDGES, DEADLINE
+    }
+
+    public static final class Edge {
+        private final String source;
+        private final String target;
+        private final int flags;
+
+        public Edge(String source, String target, int flags) {
+            this.source = source;
+            this.target = target;
+            this.flags = flags;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public int getFlags() {
+            return flags;
+        }
+
+        public boolean isCritical() {
+            return (flags & CompactGraph.FLAG_CRITICAL) != 0;
+        }
+    }
+
+    private final List<String> nodes;
+    private final List<Edge> edges;
+    private final Cutoff cutoff;
+
+    public TraversalResult(List<String> nodes, List<Edge> edges, Cutoff cutoff) {
+        this.nodes = nodes != null ? nodes : List.of();
+        this.edges = edges != null ? edges : List.of();
+        this.cutoff = cutoff != null ? cutoff : Cutoff.NONE;
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public List<Edge> getEdges() {
+        return edges;
+    }
+
+    public Cutoff getCutoff() {
+        return cutoff;
+    }
+
+    public boolean isTruncated() {
+        return cutoff != Cutoff.NONE;
+    }
+}
@@ -0,0 +1,66 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Visited set for int ids that is cleared in O(1): an id is visited when its mark equals the current epoch.
+ * <p>
+ * Instances come from a {@link Pool} owned by the graph structure they index, so a traversal allocates nothing
+ * proportional to the graph size once the pool is warm, and the arrays are released together with the graph when
+ * it is replaced.
+ */
+public final class VisitMarks {
+
+    private final int[] marks;
+    private int epoch;
+
+    private VisitMarks(int size) {
+        marks = new int[size];
+    }
+
+    private void reset() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Marks {@code id} and returns true when it was not visited yet in this traversal.
+     */
+    public boolean mark(int id) {
+        if (marks[id] == epoch) return false;
+        marks[id] = epoch;
+        return true;
+    }
+
+    /**
+     * Marks for ids below a fixed size. Holds at most as many instances as traversals ever ran at once.
+     */
+    public static final class Pool {
+        private final int size;
+        private final Queue<VisitMarks> free = new ConcurrentLinkedQueue<>();
+
+        public Pool(int size) {
+            this.size = size;
+        }
+
+        /**
+         * A cleared set of marks for this traversal; hand it back with {@link #release} when done.
+         */
+        public VisitMarks acquire() {
+            VisitMarks marks = free.poll();
+            if (marks == null) {
+                marks = new VisitMarks(size);
+            }
+            marks.reset();
+            return marks;
+        }
+
+        public void release(VisitMarks marks) {
+            free.offer(marks);
+        }
+    }
+}
@@ -2,14 +2,27 @@ package com.citi.impactanalyzer.graph.service;
 
 import com.citi.impactanalyzer.graph.domain.NgxGraphResponse;
 import com.citi.impactanalyzer.graph.domain.NgxGraphMultiResponse;
+import com.citi.impactanalyzer.graph.domain.NodeScore;
+import com.citi.impactanalyzer.graph.domain.NodeScores;
+import com.citi.impactanalyzer.graph.domain.RelationType;
 import com.citi.impactanalyzer.parser.service.RepositoryCloneService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.citi.impactanalyzer.graph.domain.CompactGraph;
+import com.citi.impactanalyzer.graph.domain.CycleReport;
 import com.citi.impactanalyzer.graph.domain.DependencyGraph;
+import com.citi.impactanalyzer.graph.domain.DependencyGraphBuilder;
 import com.citi.impactanalyzer.graph.domain.EdgeMetadata;
+import com.citi.impactanalyzer.graph.domain.GraphComponents;
 import com.citi.impactanalyzer.graph.domain.GraphNode;
+import com.citi.impactanalyzer.graph.domain.ImpactDirection;
+import com.citi.impactanalyzer.graph.domain.ImpactResponse;
+import com.citi.impactanalyzer.graph.domain.TraversalLimits;
+import com.citi.impactanalyzer.graph.domain.TraversalResult;
 import com.citi.impactanalyzer.parser.service.DependencyAggregationService;
 import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
+import com.citi.impactanalyzer.parser.domain.DependencyDelta;
+import com.citi.impactanalyzer.parser.service.DependencyGraphReader;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -17,7 +30,24 @@ import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
 import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +56,7 @@ import org.slf4j.LoggerFactory;
 public class GraphService {
 
     private static final Logger logger = LoggerFactory.getLogger(GraphService.class);
+    private static final int DEFAULT_LOAD_BATCH_SIZE = 1024;
 
     private final DependencyGraph graph;
 
@@ -37,22 +68,36 @@ public class GraphService {
     private final DependencyAggregationService aggregationService;
     private final DependencyAnalyzerProperties analyzerProperties;
     RepositoryCloneService repositoryCloneService;
+    private final GraphTraversalService traversalService;
+    private final ImpactCache impactCache;
+    private volatile ExecutorService cacheWarmer;
+    private volatile NodeScores nodeScores;
 
     public GraphService(
             DependencyGraph graph,
             DependencyAggregationService aggregationService,
-            DependencyAnalyzerProperties analyzerProperties, RepositoryCloneService repositoryCloneService
+            DependencyAnalyzerProperties analyzerProperties, RepositoryCloneService repositoryCloneService,
+            GraphTraversalService traversalService
     ) {
         this.graph = graph;
         this.aggregationService = aggregationService;
         this.analyzerProperties = analyzerProperties;
         this.repositoryCloneService=repositoryCloneService;
+        this.traversalService = traversalService;
+        this.impactCache = new ImpactCache(() -> analyzerProperties.getGraphImpactCacheMaxEntries());
     }
 
     public DependencyGraph getGraph() {
         return graph;
     }
 
+    /**
+     * Version of the live graph; changes whenever a new graph is swapped in.
+     */
+    public long getGraphVersion() {
+        return graph.getVersion();
+    }
+
     @PostConstruct
     public void init() throws Exception {
         logger.info("GraphService init...");
@@ -71,6 +116,225 @@ public class GraphService {
             logger.info("Dependency aggregation disabled via properties; skipping aggregation invocation from GraphService");
         }
 
+        loadGraph();
+    }
+
+    /**
+     * Pulls the repository, re-runs aggregation and brings the live graph up to date. Incremental runs only
+     * replace the edges of the affected sources; anything else rebuilds the graph from the regenerated JSON and
+     * swaps it in once complete, so queries keep using the previous graph until then. Aggregation is skipped when
+     * disabled, in which case the graph is reloaded from the existing JSON.
+     */
+    public synchronized void refreshGraph() throws IOException {
+        repositoryCloneService.cloneRepo();
+        DependencyDelta delta = analyzerProperties.isDependencyAggregationEnabled()
+                ? aggregationService.generateDependencyGraph()
+                : null;
+        if (delta != null && delta.isIncremental()) {
+            applyDelta(delta);
+            return;
+        }
+        loadGraph();
+    }
+
+    /**
+     * Splices an incremental aggregation result into the graph: every edge of the live graph is carried over
+     * except the outgoing edges of the affected sources, which are re-added from the delta's entries. An affected
+     * source with no entry in the delta, e.g. the class of a deleted file, is dropped unless something still
+     * depends on it, as a full rebuild would. The result is built and its criticality computed off to the side,
+     * then published in one step, so queries see either the previous graph or the complete new one.
+     */
+    public void applyDelta(DependencyDelta delta) {
+        if (delta.getAffectedSources().isEmpty()) {
+            logger.info("No dependency changes to apply");
+            return;
+        }
+        long start = System.nanoTime();
+        DependencyGraphBuilder builder = new DependencyGraphBuilder();
+        ObjectMapper mapper = new ObjectMapper();
+        Set<String> uniqueSources = new HashSet<>();
+        int added = 0;
+        for (Object entry : delta.getAffectedEntries()) {
+            added += addEntry(mapper.valueToTree(entry), uniqueSources, builder::addDependency);
+        }
+        copyEdgesExcept(delta.getAffectedSources(), uniqueSources, builder);
+
+        CompactGraph compact = builder.build();
+        computeEdgeCriticality(compact);
+        graph.load(compact);
+        graphChanged();
+        logger.info("Applied incremental update for {} sources ({} dependencies) in {} ms; nodeCount={}",
+                delta.getAffectedSources().size(), added, (System.nanoTime() - start) / 1_000_000, graph.nodeCount());
+        writeSnapshot();
+    }
+
+    // Every edge of the live graph not leaving one of the given sources, with its relation kinds, and every node
+    // except those sources that are no longer reported; the copied edges still bring in any that remain a target
+    private void copyEdgesExcept(Set<String> sources, Set<String> reportedSources, DependencyGraphBuilder builder) {
+        CompactGraph current = graph.getCompact();
+        if (current != null) {
+            for (int src = 0; src < current.nodeCount(); src++) {
+                String name = current.name(src);
+                boolean affected = sources.contains(name);
+                if (!affected || reportedSources.contains(name)) builder.addNode(name);
+                if (affected) continue;
+                for (int e = current.outStart(src); e < current.outEnd(src); e++) {
+                    builder.addDependency(name, current.name(current.target(e)), current.flags(e));
+                }
+            }
+            return;
+        }
+        for (GraphNode node : graph.getAllNodes()) {
+            boolean affected = sources.contains(node.getName());
+            if (!affected || reportedSources.contains(node.getName())) builder.addNode(node.getName());
+            if (affected) continue;
+            for (GraphNode dep : node.getDependencies()) {
+                EdgeMetadata meta = graph.getEdgeMetadata(node.getName(), dep.getName());
+                builder.addDependency(node.getName(), dep.getName(), meta != null ? meta.getFlags() : 0);
+            }
+        }
+    }
+
+    /**
+     * Loads the graph from its binary snapshot when one matches the current JSON, otherwise from the JSON.
+     */
+    private void loadGraph() throws IOException {
+        if (!loadGraphFromSnapshot()) {
+            loadGraphFromJson();
+        }
+        graphChanged();
+    }
+
+    // Cached impact results describe the previous graph; drop them and re-warm the most depended-on classes
+    private void graphChanged() {
+        impactCache.invalidate();
+        CompactGraph compact = graph.getCompact();
+        if (compact != null) {
+            long start = System.nanoTime();
+            GraphComponents components = compact.components();
+            logger.info("Condensed graph: {} components, {} cycles, {} levels in {} ms", components.componentCount(),
+                    components.cycles().length, components.levelCount(), (System.nanoTime() - start) / 1_000_000);
+            computeNodeScores(compact);
+        }
+        int warmCount = analyzerProperties.getGraphImpactCacheWarmCount();
+        if (warmCount <= 0 || analyzerProperties.getGraphImpactCacheMaxEntries() <= 0 || compact == null) {
+            return;
+        }
+        long version = graph.getVersion();
+        cacheWarmer().execute(() -> {
+            long start = System.nanoTime();
+            int[] hubs = highestInDegree(compact, Math.min(warmCount, analyzerProperties.getGraphImpactCacheMaxEntries()));
+            for (int hub : hubs) {
+                if (graph.getVersion() != version) return;
+                getImpact(compact.name(hub), ImpactDirection.DOWNSTREAM);
+            }
+            logger.info("Warmed impact cache with {} classes in {} ms", hubs.length, (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    // Ids of the {@code count} nodes with the most dependents, most depended-on first
+    static int[] highestInDegree(CompactGraph compact, int count) {
+        int n = Math.min(count, compact.nodeCount());
+        PriorityQueue<Integer> top = new PriorityQueue<>(Comparator.comparingInt(compact::inDegree));
+        for (int id = 0; id < compact.nodeCount(); id++) {
+            if (top.size() < n) {
+                top.add(id);
+            } else if (n > 0 && compact.inDegree(id) > compact.inDegree(top.peek())) {
+                top.poll();
+                top.add(id);
+            }
+        }
+        int[] ids = new int[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = top.poll();
+        }
+        return ids;
+    }
+
+    // A single daemon thread, so warm-ups of successive reloads queue instead of competing with queries
+    private ExecutorService cacheWarmer() {
+        ExecutorService executor = cacheWarmer;
+        if (executor == null) {
+            synchronized (this) {
+                executor = cacheWarmer;
+                if (executor == null) {
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(), runnable -> {
+                                Thread thread = new Thread(runnable, "impact-cache-warmer");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                    pool.allowCoreThreadTimeOut(true);
+                    cacheWarmer = executor = pool;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private boolean loadGraphFromSnapshot() {
+        if (!analyzerProperties.isGraphSnapshotEnabled() || graphJsonPath == null || graphJsonPath.isBlank()) {
+            return false;
+        }
+        File jsonFile = new File(graphJsonPath);
+        Path snapshotFile = snapshotPath();
+        if (!jsonFile.exists() || !Files.isRegularFile(snapshotFile)) {
+            return false;
+        }
+
+        try {
+            long start = System.nanoTime();
+            GraphSnapshot snapshot = GraphSnapshot.read(snapshotFile);
+            if (!snapshot.matches(jsonFile.length(), jsonFile.lastModified())) {
+                logger.info("Graph snapshot {} is older than {}; loading from JSON", snapshotFile, graphJsonPath);
+                return false;
+            }
+            if (snapshot.getCriticalityHash() != criticalityHash()) {
+                logger.info("Graph snapshot {} was built with other criticality settings; loading from JSON", snapshotFile);
+                return false;
+            }
+            graph.load(snapshot.getGraph());
+            repoName = snapshot.getRepo();
+            logger.info("Loaded graph snapshot {} in {} ms; nodeCount={}, edges={}", snapshotFile,
+                    (System.nanoTime() - start) / 1_000_000, snapshot.getGraph().nodeCount(), snapshot.getGraph().edgeCount());
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not read graph snapshot {}; loading from JSON: {}", snapshotFile, e.getMessage());
+            return false;
+        }
+    }
+
+    private void writeSnapshot() {
+        if (!analyzerProperties.isGraphSnapshotEnabled() || graphJsonPath == null || graphJsonPath.isBlank()) {
+            return;
+        }
+        File jsonFile = new File(graphJsonPath);
+        CompactGraph compact = graph.getCompact();
+        if (!jsonFile.exists() || compact == null) {
+            return;
+        }
+        Path snapshotFile = snapshotPath();
+        try {
+            GraphSnapshot.write(snapshotFile, compact, repoName, jsonFile.length(), jsonFile.lastModified(),
+                    criticalityHash());
+            logger.info("Wrote graph snapshot {}", snapshotFile);
+        } catch (IOException e) {
+            logger.warn("Failed to write graph snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    // The graph-critical-* settings that computeEdgeCriticality bakes into the edge flags
+    private int criticalityHash() {
+        return Objects.hash(analyzerProperties.getGraphCriticalInDegreeThreshold(),
+                analyzerProperties.isGraphMarkCrossPackageCritical());
+    }
+
+    private Path snapshotPath() {
+        Path json = Path.of(graphJsonPath);
+        return json.resolveSibling(json.getFileName() + ".snapshot");
+    }
+
+    private void loadGraphFromJson() throws IOException {
         if (graphJsonPath == null || graphJsonPath.isBlank()) {
             logger.warn("graph.json.path is not configured; skipping graph build");
             return;
@@ -82,18 +346,74 @@ public class GraphService {
             return;
         }
 
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode root = mapper.readTree(jsonFile);
-        JsonNode dependencies = root.get("dependencies");
-        repoName = root.get("repo").asText();
-
-        buildGraphFromJson(dependencies);
-        computeEdgeCriticality();
+        long start = System.nanoTime();
+        DependencyGraphBuilder builder = new DependencyGraphBuilder();
+        Set<String> uniqueSources = ConcurrentHashMap.newKeySet();
+        LongAdder totalDependencies = new LongAdder();
+        DependencyGraphReader.Header header = readInParallel(jsonFile.toPath(),
+                node -> totalDependencies.add(addEntry(node, uniqueSources, builder::addDependency)));
+        repoName = header.getRepo();
+        logger.info("Streamed {} dependency entries from {}. Unique sources: {}, Total dependencies added: {}",
+                header.getEntryCount(), graphJsonPath, uniqueSources.size(), totalDependencies.sum());
+
+        // Flags are set before the graph is published, so no reader sees them half computed
+        CompactGraph compact = builder.build();
+        computeEdgeCriticality(compact);
+        graph.load(compact);
+        logger.info("Built graph from JSON in {} ms", (System.nanoTime() - start) / 1_000_000);
 
         for (GraphNode node : graph.getAllNodes()) {
             logger.debug("Loaded graph node: {}", node.getName());
         }
         logger.info("Finished building graph; nodeCount={}", graph.getAllNodes().size());
+        writeSnapshot();
+    }
+
+    /**
+     * Parses entries on the calling thread and hands them to {@code handler} in batches on a bounded worker pool.
+     * When the queue is full the reader handles a batch itself, which keeps the number of parsed entries in memory
+     * bounded.
+     */
+    private DependencyGraphReader.Header readInParallel(Path file, Consumer<JsonNode> handler) throws IOException {
+        int workers = analyzerProperties.getGraphLoadWorkers() > 0
+                ? analyzerProperties.getGraphLoadWorkers()
+                : Runtime.getRuntime().availableProcessors();
+        int batchSize = analyzerProperties.getGraphLoadBatchSize() > 0
+                ? analyzerProperties.getGraphLoadBatchSize()
+                : DEFAULT_LOAD_BATCH_SIZE;
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 2), runnable -> {
+                    Thread thread = new Thread(runnable, "graph-loader-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            List<JsonNode> batch = new ArrayList<>(batchSize);
+            DependencyGraphReader.Header header = DependencyGraphReader.read(file, node -> {
+                batch.add(node);
+                if (batch.size() >= batchSize) {
+                    List<JsonNode> full = new ArrayList<>(batch);
+                    batch.clear();
+                    futures.add(executor.submit(() -> full.forEach(handler)));
+                }
+            });
+            if (!batch.isEmpty()) {
+                futures.add(executor.submit(() -> batch.forEach(handler)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return header;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Graph load interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to load dependency entries from " + file, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     public void buildGraphFromJson(JsonNode root) {
@@ -112,86 +432,106 @@ public class GraphService {
         int totalDependencies = 0;
 
         for (JsonNode node : root) {
-            if (node == null) continue;
+            totalDependencies += addEntry(node, uniqueSources, graph::addDependency);
+        }
 
-            if (node.has("source") && node.has("relation") && node.has("target")) {
-                String source = node.get("source").asText();
-                String relation = node.get("relation").asText();
-                String target = node.get("target").asText();
+        logger.info("Finished building graph from JSON. Unique sources: {}, Total dependencies added: {}", uniqueSources.size(), totalDependencies);
+    }
 
-                if (source != null && !source.isBlank() && target != null && !target.isBlank()) {
-                    uniqueSources.add(source);
-                    graph.addDependency(source, target);
-                    totalDependencies++;
+    // Where parsed edges go: the live graph for incremental updates, a builder for full loads
+    private interface EdgeSink {
+        void addDependency(String source, String target, RelationType relation);
+    }
 
-                }
-                continue;
-            }
+    /**
+     * Adds the edges of one dependency entry, in either the flat source/relation/target form or the grouped
+     * form with one array per relation, and returns how many were added.
+     */
+    private int addEntry(JsonNode node, Set<String> uniqueSources, EdgeSink sink) {
+        if (node == null) return 0;
+        int added = 0;
 
-            if (node.has("source")) {
-                String source = node.get("source").asText();
-                if (source == null || source.isBlank()) {
-                    logger.debug("Skipping JSON node with empty 'source'");
-                    continue;
-                }
+        if (node.has("source") && node.has("relation") && node.has("target")) {
+            String source = node.get("source").asText();
+            String relation = node.get("relation").asText();
+            String target = node.get("target").asText();
 
+            if (source != null && !source.isBlank() && target != null && !target.isBlank()) {
                 uniqueSources.add(source);
-                String[] fields = {"CALLS", "READS", "WRITES", "IMPLEMENTS", "EXTENDS", "USES_TYPE", "ANNOTATED_WITH", "THROWS", "CALLS_CONSTRUCTOR", "IMPORTS", "DEPENDS_ON_PACKAGE"};
+                RelationType type = RelationType.from(relation);
+                sink.addDependency(source, target, type != null ? type : RelationType.OTHER);
+                added++;
+
+            }
+            return added;
+        }
 
-                for (String field : fields) {
-                    if (!node.has(field) || node.get(field) == null || !node.get(field).isArray())
-                        continue;
+        if (node.has("source")) {
+            String source = node.get("source").asText();
+            if (source == null || source.isBlank()) {
+                logger.debug("Skipping JSON node with empty 'source'");
+                return 0;
+            }
 
-                    for (JsonNode t : node.get(field)) {
-                        if (t == null || t.isNull()) continue;
-                        String target = t.asText();
-                        if (target == null || target.isBlank()) continue;
+            uniqueSources.add(source);
 
-                        graph.addDependency(source, target);
-                        totalDependencies++;
-                        logger.debug("Added dependency: {} --[{}]--> {}", source, field, target);
-                    }
+            // One array per relation; field names are matched ignoring case, as grouped SQL output uses lower case
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                String field = entry.getKey();
+                RelationType type = RelationType.from(field);
+                if (type == null || entry.getValue() == null || !entry.getValue().isArray())
+                    continue;
+
+                for (JsonNode t : entry.getValue()) {
+                    if (t == null || t.isNull()) continue;
+                    String target = t.asText();
+                    if (target == null || target.isBlank()) continue;
+
+                    sink.addDependency(source, target, type);
+                    added++;
+                    logger.debug("Added dependency: {} --[{}]--> {}", source, field, target);
                 }
             }
         }
-
-        logger.info("Finished building graph from JSON. Unique sources: {}, Total dependencies added: {}", uniqueSources.size(), totalDependencies);
+        return added;
     }
 
-    private void computeEdgeCriticality() {
+    /**
+     * Flags edges into high in-degree targets and edges crossing top-level packages; the latter also count as
+     * critical when configured. Runs in parallel over the source rows of the compact graph, using the reverse index
+     * for in-degrees. Each row is written by one task only, so no locking is needed.
+     */
+    private void computeEdgeCriticality(CompactGraph compact) {
+        long start = System.nanoTime();
         int inDegreeThreshold = analyzerProperties.getGraphCriticalInDegreeThreshold();
         boolean markCrossPackage = analyzerProperties.isGraphMarkCrossPackageCritical();
 
-        Map<String, Integer> inDegree = new HashMap<>();
-        for (GraphNode n : graph.getAllNodes()) {
-            for (GraphNode dep : n.getDependencies()) {
-                inDegree.put(dep.getName(), inDegree.getOrDefault(dep.getName(), 0) + 1);
-            }
+        int[] topLevel = new int[compact.nodeCount()];
+        Map<String, Integer> packageIds = new HashMap<>();
+        for (int n = 0; n < topLevel.length; n++) {
+            topLevel[n] = packageIds.computeIfAbsent(topLevelPackage(compact.name(n)), k -> packageIds.size());
         }
 
-        for (GraphNode n : graph.getAllNodes()) {
-            String src = n.getName();
-            for (GraphNode dep : n.getDependencies()) {
-                String tgt = dep.getName();
-                EdgeMetadata meta = graph.getEdgeMetadata(src, tgt);
-                if (meta == null) continue;
-
-                int deg = inDegree.getOrDefault(tgt, 0);
-                if (deg >= inDegreeThreshold) {
-                    meta.setCritical(true);
-                }
-
-                if (markCrossPackage) {
-                    String srcTop = topLevelPackage(src);
-                    String tgtTop = topLevelPackage(tgt);
-                    if (!srcTop.equals(tgtTop)) {
-                        meta.setCritical(true);
-                    }
-                }
+        IntStream.range(0, compact.nodeCount()).parallel().forEach(src -> {
+            for (int e = compact.outStart(src); e < compact.outEnd(src); e++) {
+                int tgt = compact.target(e);
+                boolean crossPackage = topLevel[src] != topLevel[tgt];
+                compact.setFlag(e, CompactGraph.FLAG_CROSS_PACKAGE, crossPackage);
+                compact.setFlag(e, CompactGraph.FLAG_CRITICAL,
+                        compact.inDegree(tgt) >= inDegreeThreshold || (markCrossPackage && crossPackage));
             }
-        }
+        });
 
-        logger.info("Edge criticality computed. edges={}", graph.edgeCount());
+        logger.info("Edge criticality computed. edges={} in {} ms", compact.edgeCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Structural scores of the current frozen graph; recomputed after every load
+    private void computeNodeScores(CompactGraph compact) {
+        long start = System.nanoTime();
+        nodeScores = NodeScores.compute(compact, analyzerProperties.getGraphPageRankIterations(),
+                analyzerProperties.getGraphBetweennessSamples());
+        logger.info("Node scores computed for {} nodes in {} ms", compact.nodeCount(), (System.nanoTime() - start) / 1_000_000);
     }
 
     private String topLevelPackage(String fqName) {
@@ -206,25 +546,22 @@ public class GraphService {
             return ResponseEntity.badRequest().body(Map.of("error", "nodes parameter is required"));
         }
 
-        DependencyGraph graph = getGraph();
+        TraversalLimits limits = traversalLimits();
         Set<String> processed = new HashSet<>();
+        boolean trackProcessed = nodes.size() > 1;
         List<NgxGraphResponse> graphs = new ArrayList<>();
         for (String node : nodes) {
             if (node != null && !node.isBlank()) {
-                Set<String> visited = new HashSet<>();
-                List<NgxGraphResponse.NgxLink> links = new ArrayList<>();
-                Set<GraphNode> startNodes = graph.findNodes(node);
-                for (GraphNode start : startNodes) {
-                    buildNgxLinks(start, visited, links, graph);
-                }
-                Set<String> newNodes = new HashSet<>(visited);
-                newNodes.removeAll(processed);
+                NgxGraphResponse impact = impactGraph(node, limits);
+                // Classes already shown for an earlier node of this request are left out of later graphs
+                List<NgxGraphResponse.NgxNode> newNodes = processed.isEmpty() ? impact.getNodes()
+                        : impact.getNodes().stream().filter(n -> !processed.contains(n.getId())).toList();
                 if (!newNodes.isEmpty()) {
-                    List<NgxGraphResponse.NgxNode> resultNodes = newNodes.stream()
-                            .map(name -> new NgxGraphResponse.NgxNode(name, getSimpleClassName(name), isNodeCritical(node, name)))
-                            .toList();
-                    graphs.add(new NgxGraphResponse(resultNodes, links));
-                    processed.addAll(newNodes);
+                    graphs.add(newNodes.size() == impact.getNodes().size() ? impact
+                            : new NgxGraphResponse(newNodes, impact.getLinks()));
+                    if (trackProcessed) {
+                        newNodes.forEach(n -> processed.add(n.getId()));
+                    }
                 }
             }
         }
@@ -236,22 +573,253 @@ public class GraphService {
                 new NgxGraphMultiResponse.NgxRepo("Repo", repoName ));
     }
 
+    /**
+     * Everything reachable from the classes matching {@code node}, served from the impact cache when the same
+     * query was answered for the current graph.
+     */
+    private NgxGraphResponse impactGraph(String node, TraversalLimits limits) {
+        long version = graph.getVersion();
+        long generation = impactCache.generation();
+        String key = ImpactCache.key("ngx", node);
+        if (impactCache.get(version, key) instanceof NgxGraphResponse cached) {
+            return cached;
+        }
+
+        Set<String> visited = new HashSet<>();
+        List<NgxGraphResponse.NgxLink> links = new ArrayList<>();
+        Set<GraphNode> startNodes = graph.findNodes(node);
+        boolean frozen = graph.getCompact() != null;
+        if (frozen) {
+            TraversalResult result = traversalService.traverse(graph,
+                    startNodes.stream().map(GraphNode::getName).toList(), ImpactDirection.UPSTREAM, limits, true);
+            visited.addAll(result.getNodes());
+            for (TraversalResult.Edge edge : result.getEdges()) {
+                links.add(new NgxGraphResponse.NgxLink(edge.getSource(), edge.getTarget(), linkLabel(edge.getFlags()), edge.isCritical()));
+            }
+            if (result.isTruncated()) {
+                logger.info("Impact graph for {} cut off by {} limit at {} nodes", node, result.getCutoff(), visited.size());
+            }
+        } else {
+            for (GraphNode start : startNodes) {
+                buildNgxLinks(start, visited, links, graph, limits);
+            }
+        }
+        List<NgxGraphResponse.NgxNode> resultNodes = visited.stream()
+                .map(name -> new NgxGraphResponse.NgxNode(name, getSimpleClassName(name), isNodeCritical(node, name)))
+                .toList();
+        NgxGraphResponse response = new NgxGraphResponse(resultNodes, List.copyOf(links));
+        if (frozen) {
+            impactCache.put(version, generation, key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Transitive impact of a change to {@code node}: an exact class name, or a partial name matching several.
+     * {@link ImpactDirection#DOWNSTREAM} returns every class that depends on it, directly or transitively.
+     */
+    public Object getImpact(String node, ImpactDirection direction) {
+        return getImpact(node, direction, 0);
+    }
+
+    /**
+     * Impact of a change to {@code node} along edges carrying at least one of the relations in
+     * {@code relationMask} (see {@link RelationType#parseMask}); 0 follows every edge.
+     */
+    public Object getImpact(String node, ImpactDirection direction, int relationMask) {
+        if (node == null || node.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "node parameter is required"));
+        }
+        long version = graph.getVersion();
+        long generation = impactCache.generation();
+        String key = ImpactCache.key(direction.name() + ':' + relationMask, node);
+        if (impactCache.get(version, key) instanceof ImpactResponse cached) {
+            return cached;
+        }
+
+        List<String> matches = resolveMatches(node);
+        if (matches.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "No matching nodes found for: " + node));
+        }
+
+        TraversalResult result = traversalService.traverse(graph, matches, direction,
+                traversalLimits().withEdgeFlagMask(relationMask & RelationType.MASK), false);
+        Set<String> impacted = new LinkedHashSet<>(result.getNodes());
+        matches.forEach(impacted::remove);
+        logger.info("Impact of {} ({}): {} matches, {} impacted, cutoff={}", node, direction, matches.size(),
+                impacted.size(), result.getCutoff());
+        ImpactResponse response = new ImpactResponse(node, direction, matches, List.copyOf(impacted), result.isTruncated());
+        if (graph.getCompact() != null) {
+            impactCache.put(version, generation, key, response);
+        }
+        return response;
+    }
+
+    // Exact name first, then simple class name, then any name containing the text
+    private List<String> resolveMatches(String node) {
+        if (graph.getNode(node) != null) {
+            return List.of(node);
+        }
+        Set<GraphNode> found = graph.findBySimpleName(node);
+        if (found.isEmpty()) {
+            found = graph.findNodes(node);
+        }
+        return found.stream().map(GraphNode::getName).sorted().toList();
+    }
+
+    /**
+     * Structural scores of the classes matching {@code node}, or of the {@code limit} highest scoring classes when
+     * no node is given. {@code sort} is one of pagerank, betweenness, in-degree, out-degree or fan-in.
+     */
+    public Object getNodeScores(String node, String sort, int limit) {
+        NodeScores scores = nodeScores;
+        CompactGraph compact = graph.getCompact();
+        if (scores == null || scores.getGraph() != compact) {
+            return ResponseEntity.status(503).body(Map.of("error", "Node scores are not available until the graph is loaded"));
+        }
+        IntToDoubleFunction key = scoreKey(scores, sort);
+        if (key == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown sort: " + sort));
+        }
+
+        if (node != null && !node.isBlank()) {
+            List<String> matches = resolveMatches(node);
+            if (matches.isEmpty()) {
+                return ResponseEntity.status(404).body(Map.of("error", "No matching nodes found for: " + node));
+            }
+            return matches.stream()
+                    .map(compact::indexOf)
+                    .filter(id -> id >= 0)
+                    .sorted(Comparator.comparingDouble((Integer id) -> key.applyAsDouble(id)).reversed())
+                    .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                    .map(id -> NodeScore.of(scores, id))
+                    .toList();
+        }
+
+        int count = Math.min(limit > 0 ? limit : compact.nodeCount(), compact.nodeCount());
+        PriorityQueue<Integer> top = new PriorityQueue<>(Comparator.comparingDouble((Integer id) -> key.applyAsDouble(id)));
+        for (int id = 0; id < compact.nodeCount(); id++) {
+            if (top.size() < count) {
+                top.add(id);
+            } else if (count > 0 && key.applyAsDouble(id) > key.applyAsDouble(top.peek())) {
+                top.poll();
+                top.add(id);
+            }
+        }
+        List<NodeScore> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(NodeScore.of(scores, top.poll()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static IntToDoubleFunction scoreKey(NodeScores scores, String sort) {
+        return switch (sort == null ? "pagerank" : sort.toLowerCase(Locale.ROOT)) {
+            case "pagerank" -> scores::pageRank;
+            case "betweenness" -> scores::betweenness;
+            case "in-degree" -> scores::inDegree;
+            case "out-degree" -> scores::outDegree;
+            case "fan-in" -> scores::crossPackageFanIn;
+            default -> null;
+        };
+    }
+
+    /**
+     * Dependency cycles of the loaded graph, largest first; at most {@code limit} are listed (0 = all).
+     */
+    public Object getCycleReport(int limit) {
+        CompactGraph compact = graph.getCompact();
+        if (compact == null) {
+            return ResponseEntity.status(503).body(Map.of("error", "Dependency graph is not loaded"));
+        }
+        GraphComponents components = compact.components();
+        int[] cycleIds = components.cycles();
+        int listed = limit > 0 ? Math.min(limit, cycleIds.length) : cycleIds.length;
+        List<CycleReport.Cycle> cycles = new ArrayList<>(listed);
+        for (int i = 0; i < listed; i++) {
+            int component = cycleIds[i];
+            List<String> members = new ArrayList<>(components.size(component));
+            for (int m = components.memberStart(component); m < components.memberEnd(component); m++) {
+                members.add(compact.name(components.member(m)));
+            }
+            Collections.sort(members);
+            cycles.add(new CycleReport.Cycle(members.size(), components.level(component), members));
+        }
+        return new CycleReport(components.componentCount(), cycleIds.length, components.levelCount(), cycles);
+    }
+
     private boolean isNodeCritical(String impactedNode, String nodeName) {
         if (impactedNode == null || nodeName == null) return false;
         return nodeName.contains(impactedNode.toLowerCase());
     }
 
-    private void buildNgxLinks(GraphNode node, Set<String> visited, List<NgxGraphResponse.NgxLink> links, DependencyGraph graph) {
-        if (node == null || visited.contains(node.getName())) return;
-        visited.add(node.getName());
-        for (GraphNode dep : node.getDependencies()) {
-            EdgeMetadata meta = graph.getEdgeMetadata(node.getName(), dep.getName());
-            boolean critical = meta != null && meta.isCritical();
-            links.add(new NgxGraphResponse.NgxLink(node.getName(), dep.getName(), "depends", critical));
-            buildNgxLinks(dep, visited, links, graph);
+    // Breadth-first over GraphNode objects, for a graph that is not frozen
+    private void buildNgxLinks(GraphNode start, Set<String> visited, List<NgxGraphResponse.NgxLink> links,
+                               DependencyGraph graph, TraversalLimits limits) {
+        if (start == null || !visited.add(start.getName())) return;
+        int maxDepth = limits.getMaxDepth() > 0 ? limits.getMaxDepth() : Integer.MAX_VALUE;
+        int maxNodes = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Integer.MAX_VALUE;
+        int maxEdges = limits.getMaxEdges() > 0 ? limits.getMaxEdges() : Integer.MAX_VALUE;
+
+        Deque<Map.Entry<GraphNode, Integer>> queue = new ArrayDeque<>();
+        queue.add(Map.entry(start, 0));
+        while (!queue.isEmpty()) {
+            Map.Entry<GraphNode, Integer> entry = queue.poll();
+            GraphNode node = entry.getKey();
+            int depth = entry.getValue();
+            Collection<GraphNode> deps = node.getDependencies();
+            if (depth >= maxDepth || deps == null) continue;
+            for (GraphNode dep : deps) {
+                if (links.size() >= maxEdges) return;
+                EdgeMetadata meta = graph.getEdgeMetadata(node.getName(), dep.getName());
+                boolean critical = meta != null && meta.isCritical();
+                links.add(new NgxGraphResponse.NgxLink(node.getName(), dep.getName(), linkLabel(meta != null ? meta.getFlags() : 0), critical));
+                if (visited.size() < maxNodes && visited.add(dep.getName())) {
+                    queue.add(Map.entry(dep, depth + 1));
+                }
+            }
         }
     }
 
+    // Relation names of an edge, e.g. "CALLS, USES_TYPE"; edges loaded without relations keep the generic label
+    private static String linkLabel(int flags) {
+        if ((flags & RelationType.MASK) == 0) return "depends";
+        StringJoiner label = new StringJoiner(", ");
+        RelationType.fromMask(flags).forEach(relation -> label.add(relation.name()));
+        return label.toString();
+    }
+
+    /**
+     * Number of edges carrying each relation kind; an edge with several kinds counts once for each.
+     */
+    public Object getRelationCounts() {
+        CompactGraph compact = graph.getCompact();
+        if (compact == null) {
+            return ResponseEntity.status(503).body(Map.of("error", "Dependency graph is not loaded"));
+        }
+        long[] counts = new long[RelationType.values().length];
+        for (int e = 0; e < compact.edgeCount(); e++) {
+            int flags = compact.flags(e);
+            for (RelationType relation : RelationType.values()) {
+                if ((flags & relation.bit()) != 0) counts[relation.ordinal()]++;
+            }
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("edges", (long) compact.edgeCount());
+        for (RelationType relation : RelationType.values()) {
+            result.put(relation.name(), counts[relation.ordinal()]);
+        }
+        return result;
+    }
+
+    private TraversalLimits traversalLimits() {
+        return new TraversalLimits(analyzerProperties.getGraphTraversalMaxDepth(),
+                analyzerProperties.getGraphTraversalMaxNodes(),
+                analyzerProperties.getGraphTraversalMaxEdges(),
+                analyzerProperties.getGraphTraversalTimeoutMs(), 0);
+    }
+
     private String getSimpleClassName(String fullName) {
         if (fullName == null) return null;
         int lastDot = fullName.lastIndexOf('.');
@@ -0,0 +1,227 @@
+package com.citi.impactanalyzer.graph.service;
+
+import com.citi.impactanalyzer.graph.domain.CompactGraph;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary image of a frozen {@link CompactGraph}, so startup does not re-parse the graph JSON.
+ * <p>
+ * Layout (big-endian): magic, version, size and modification time of the JSON it was built from, hash of the
+ * criticality settings its edge flags were computed with, repo name, node and edge counts, a string table
+ * (offsets into one UTF-8 blob, node id = index), CSR adjacency ({@code nodeCount + 1} offsets into the edge
+ * target array) and one {@link CompactGraph} flag word per edge.
+ * The file is read with {@link FileChannel#map} and the arrays are bulk-copied out of the mapping straight into
+ * the compact graph, without per-edge objects.
+ */
+public final class GraphSnapshot {
+
+    private static final int MAGIC = 0x49414753; // "IAGS"
+    // 2: edge flag words carry relation bits
+    // 3: cross-package edges carry their own flag bit; header records the criticality settings
+    private static final int VERSION = 3;
+
+    private final String repo;
+    private final long sourceSize;
+    private final long sourceModified;
+    private final int criticalityHash;
+    private final CompactGraph graph;
+
+    private GraphSnapshot(String repo, long sourceSize, long sourceModified, int criticalityHash, CompactGraph graph) {
+        this.repo = repo;
+        this.sourceSize = sourceSize;
+        this.sourceModified = sourceModified;
+        this.criticalityHash = criticalityHash;
+        this.graph = graph;
+    }
+
+    /**
+     * Writes {@code graph} to {@code target}, stamped with the size and modification time of the JSON it was
+     * loaded from and the hash of the criticality settings its flags were computed with. The file is written beside
+     * the target and moved over it once complete.
+     */
+    public static void write(Path target, CompactGraph graph, String repo, long sourceSize, long sourceModified,
+                             int criticalityHash) throws IOException {
+        int nodeCount = graph.nodeCount();
+        int edgeCount = graph.edgeCount();
+        byte[][] encoded = new byte[nodeCount][];
+        for (int i = 0; i < nodeCount; i++) {
+            encoded[i] = graph.name(i).getBytes(StandardCharsets.UTF_8);
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path partial = target.resolveSibling(target.getFileName() + ".partial");
+        try (SnapshotOutput out = new SnapshotOutput(FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(sourceSize);
+            out.putLong(sourceModified);
+            out.putInt(criticalityHash);
+            byte[] repoBytes = (repo != null ? repo : "").getBytes(StandardCharsets.UTF_8);
+            out.putInt(repoBytes.length);
+            out.put(repoBytes);
+            out.putInt(nodeCount);
+            out.putInt(edgeCount);
+
+            int position = 0;
+            out.putInt(0);
+            for (byte[] name : encoded) {
+                position += name.length;
+                out.putInt(position);
+            }
+            for (byte[] name : encoded) {
+                out.put(name);
+            }
+
+            for (int n = 0; n < nodeCount; n++) {
+                out.putInt(graph.outStart(n));
+            }
+            out.putInt(edgeCount);
+            for (int e = 0; e < edgeCount; e++) {
+                out.putInt(graph.target(e));
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                out.putInt(graph.flags(e));
+            }
+        }
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public static GraphSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Corrupt graph snapshot " + file, e);
+        }
+    }
+
+    private static GraphSnapshot decode(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a graph snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported graph snapshot version " + version);
+        }
+        long sourceSize = buffer.getLong();
+        long sourceModified = buffer.getLong();
+        int criticalityHash = buffer.getInt();
+        byte[] repoBytes = new byte[buffer.getInt()];
+        buffer.get(repoBytes);
+        int nodeCount = buffer.getInt();
+        int edgeCount = buffer.getInt();
+
+        int[] nameOffsets = readInts(buffer, nodeCount + 1);
+        byte[] blob = new byte[nameOffsets[nodeCount]];
+        buffer.get(blob);
+        String[] names = new String[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            names[i] = new String(blob, nameOffsets[i], nameOffsets[i + 1] - nameOffsets[i], StandardCharsets.UTF_8);
+        }
+
+        int[] offsets = readInts(buffer, nodeCount + 1);
+        int[] targets = readInts(buffer, edgeCount);
+        int[] flags = readInts(buffer, edgeCount);
+        return new GraphSnapshot(new String(repoBytes, StandardCharsets.UTF_8), sourceSize, sourceModified,
+                criticalityHash, CompactGraph.of(names, offsets, targets, flags));
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    // Fills a heap buffer and drains it to the channel when full
+    private static final class SnapshotOutput implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+        SnapshotOutput(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int written = 0;
+            while (written < bytes.length) {
+                ensure(1);
+                int n = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, n);
+                written += n;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * True when the snapshot was built from a JSON file of this size and modification time.
+     */
+    public boolean matches(long size, long modified) {
+        return sourceSize == size && sourceModified == modified;
+    }
+
+    /**
+     * Hash of the criticality settings the edge flags were computed with.
+     */
+    public int getCriticalityHash() {
+        return criticalityHash;
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    public String getRepo() {
+        return repo;
+    }
+
+}
@@ -1,6 +1,15 @@
 package com.citi.impactanalyzer.graph.service;
 
+import com.citi.impactanalyzer.graph.domain.CompactGraph;
+import com.citi.impactanalyzer.graph.domain.CompactGraphNode;
+import com.citi.impactanalyzer.graph.domain.DependencyGraph;
+import com.citi.impactanalyzer.graph.domain.GraphComponents;
 import com.citi.impactanalyzer.graph.domain.GraphNode;
+import com.citi.impactanalyzer.graph.domain.ImpactDirection;
+import com.citi.impactanalyzer.graph.domain.TraversalLimits;
+import com.citi.impactanalyzer.graph.domain.TraversalResult;
+import com.citi.impactanalyzer.graph.domain.TraversalResult.Cutoff;
+import com.citi.impactanalyzer.graph.domain.VisitMarks;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -8,22 +17,385 @@ import java.util.*;
 @Service
 public class GraphTraversalService {
 
+    // Checking the clock on every step would cost more than the step itself
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
     public Set<String> traverseDFS(GraphNode start) {
+        if (start instanceof CompactGraphNode view) {
+            return traverseDFS(view.getGraph(), view.getId());
+        }
         Set<String> visited = new LinkedHashSet<>();
-        dfsHelper(start, visited);
+        if (start == null) return visited;
+
+        // Explicit stack of dependency iterators: same preorder as recursion, without its depth limit
+        Deque<Iterator<GraphNode>> stack = new ArrayDeque<>();
+        visited.add(start.getName());
+        stack.push(dependencyIterator(start));
+        while (!stack.isEmpty()) {
+            Iterator<GraphNode> deps = stack.peek();
+            if (!deps.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            GraphNode dep = deps.next();
+            if (dep == null || !visited.add(dep.getName())) continue;
+            stack.push(dependencyIterator(dep));
+        }
         return visited;
     }
 
-    private void dfsHelper(GraphNode node, Set<String> visited) {
-        if (node == null || visited.contains(node.getName())) return;
-
-        visited.add(node.getName());
+    private Iterator<GraphNode> dependencyIterator(GraphNode node) {
         Collection<GraphNode> deps = node.getDependencies();
-        if (deps != null) {
-            for (GraphNode dep : deps) {
-                dfsHelper(dep, visited);
+        return deps != null ? deps.iterator() : Collections.emptyIterator();
+    }
+
+    /**
+     * Depth-first preorder over a frozen graph, using an explicit stack of (node, next edge) pairs and a bitmap
+     * of visited ids.
+     */
+    public Set<String> traverseDFS(CompactGraph graph, int start) {
+        Set<String> visited = new LinkedHashSet<>();
+        if (graph == null || start < 0 || start >= graph.nodeCount()) return visited;
+
+        BitSet seen = new BitSet(graph.nodeCount());
+        int[] nodes = new int[16];
+        int[] cursors = new int[16];
+        int depth = 0;
+        nodes[0] = start;
+        cursors[0] = graph.outStart(start);
+        seen.set(start);
+        visited.add(graph.name(start));
+
+        while (depth >= 0) {
+            int node = nodes[depth];
+            if (cursors[depth] == graph.outEnd(node)) {
+                depth--;
+                continue;
             }
+            int next = graph.target(cursors[depth]++);
+            if (seen.get(next)) continue;
+            seen.set(next);
+            visited.add(graph.name(next));
+            if (++depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                cursors = Arrays.copyOf(cursors, depth * 2);
+            }
+            nodes[depth] = next;
+            cursors[depth] = graph.outStart(next);
+        }
+        return visited;
+    }
+
+    /**
+     * Breadth-first impact traversal from {@code start} along dependents, dependencies or both. The result is in
+     * visit order and starts with {@code start}; it is empty when the node is unknown. Neighbors come straight
+     * from the forward or reverse adjacency, so each step costs only the node's degree.
+     */
+    public Set<String> traverse(DependencyGraph graph, String start, ImpactDirection direction) {
+        return new LinkedHashSet<>(traverse(graph, List.of(start), direction, TraversalLimits.unlimited(), false).getNodes());
+    }
+
+    /**
+     * Bounded breadth-first traversal from every node in {@code starts} (depth 0). Stops at the first limit hit
+     * and reports it in the result; nodes at the maximum depth are included but not expanded. Edges are
+     * collected only when {@code collectEdges} is set, but always count against the edge budget.
+     */
+    public TraversalResult traverse(DependencyGraph graph, Collection<String> starts, ImpactDirection direction,
+                                    TraversalLimits limits, boolean collectEdges) {
+        if (graph == null || starts == null) return new TraversalResult(List.of(), List.of(), Cutoff.NONE);
+        ImpactDirection dir = direction != null ? direction : ImpactDirection.DOWNSTREAM;
+        TraversalLimits bounds = limits != null ? limits : TraversalLimits.unlimited();
+
+        CompactGraph compact = graph.getCompact();
+        if (compact != null) {
+            int[] ids = starts.stream().filter(Objects::nonNull).mapToInt(compact::indexOf).filter(id -> id >= 0).toArray();
+            return traverse(compact, ids, dir, bounds, collectEdges);
         }
+        return traverseUnfrozen(graph, starts, dir, bounds, collectEdges);
     }
 
+    public TraversalResult traverse(CompactGraph graph, int[] starts, ImpactDirection direction,
+                                    TraversalLimits limits, boolean collectEdges) {
+        Budget budget = new Budget(limits);
+        int mask = limits.getEdgeFlagMask();
+        if (!collectEdges && mask == 0 && direction != ImpactDirection.BOTH) {
+            TraversalResult condensed = traverseCondensed(graph, starts, direction, budget);
+            if (condensed != null) return condensed;
+        }
+        VisitMarks marks = graph.visitMarks().acquire();
+        try {
+            return traverseBreadthFirst(graph, starts, direction, budget, mask, collectEdges, marks);
+        } finally {
+            graph.visitMarks().release(marks);
+        }
+    }
+
+    private TraversalResult traverseBreadthFirst(CompactGraph graph, int[] starts, ImpactDirection direction,
+                                                 Budget budget, int mask, boolean collectEdges, VisitMarks marks) {
+        List<String> nodes = new ArrayList<>();
+        List<TraversalResult.Edge> edges = collectEdges ? new ArrayList<>() : null;
+        int edgeCount = 0;
+
+        int[] queue = new int[Math.max(16, Math.min(graph.nodeCount(), 1024))];
+        int[] depths = new int[queue.length];
+        int head = 0;
+        int tail = 0;
+        Cutoff cutoff = Cutoff.NONE;
+
+        for (int start : starts) {
+            if (!marks.mark(start)) continue;
+            if (nodes.size() >= budget.maxNodes) {
+                return new TraversalResult(nodes, edges, Cutoff.NODES);
+            }
+            nodes.add(graph.name(start));
+            queue[tail] = start;
+            depths[tail++] = 0;
+        }
+
+        outer:
+        while (head < tail) {
+            if (head % DEADLINE_CHECK_INTERVAL == 0 && budget.expired()) {
+                cutoff = Cutoff.DEADLINE;
+                break;
+            }
+            int node = queue[head];
+            int depth = depths[head++];
+            boolean expand = depth < budget.maxDepth;
+
+            if (direction.followsDependencies()) {
+                for (int e = graph.outStart(node); e < graph.outEnd(node); e++) {
+                    if (mask != 0 && (graph.flags(e) & mask) == 0) continue;
+                    if (!expand) {
+                        if (cutoff == Cutoff.NONE) cutoff = Cutoff.DEPTH;
+                        break;
+                    }
+                    if (edgeCount++ >= budget.maxEdges) {
+                        cutoff = Cutoff.EDGES;
+                        break outer;
+                    }
+                    int next = graph.target(e);
+                    if (edges != null) edges.add(new TraversalResult.Edge(graph.name(node), graph.name(next), graph.flags(e)));
+                    if (!marks.mark(next)) continue;
+                    if (nodes.size() >= budget.maxNodes) {
+                        cutoff = Cutoff.NODES;
+                        break outer;
+                    }
+                    nodes.add(graph.name(next));
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                        depths = Arrays.copyOf(depths, tail * 2);
+                    }
+                    queue[tail] = next;
+                    depths[tail++] = depth + 1;
+                }
+            }
+            if (direction.followsDependents()) {
+                for (int i = graph.inStart(node); i < graph.inEnd(node); i++) {
+                    int next = graph.source(i);
+                    int flags = mask != 0 || edges != null ? graph.flags(graph.edgeIndex(next, node)) : 0;
+                    if (mask != 0 && (flags & mask) == 0) continue;
+                    if (!expand) {
+                        if (cutoff == Cutoff.NONE) cutoff = Cutoff.DEPTH;
+                        break;
+                    }
+                    if (edgeCount++ >= budget.maxEdges) {
+                        cutoff = Cutoff.EDGES;
+                        break outer;
+                    }
+                    if (edges != null) edges.add(new TraversalResult.Edge(graph.name(next), graph.name(node), flags));
+                    if (!marks.mark(next)) continue;
+                    if (nodes.size() >= budget.maxNodes) {
+                        cutoff = Cutoff.NODES;
+                        break outer;
+                    }
+                    nodes.add(graph.name(next));
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                        depths = Arrays.copyOf(depths, tail * 2);
+                    }
+                    queue[tail] = next;
+                    depths[tail++] = depth + 1;
+                }
+            }
+        }
+        return new TraversalResult(nodes, edges, cutoff);
+    }
+
+    /**
+     * Reachability over the condensed DAG of strongly connected components, for walks that need no edges. A
+     * dependency cycle is entered once and all of its members are reached together, instead of its internal edges
+     * being scanned from every entry point.
+     * <p>
+     * Depth and edge limits are charged per component. A member of a component lies at most the component's size
+     * minus one steps past its entry, so each component carries an upper bound on the depth of its members, and
+     * the degrees of its members are charged against the edge budget as the edge walk would scan them. When a
+     * bound exceeds the depth limit, or the charge the edge limit, the walk gives up and returns null so the caller
+     * runs the exact edge-by-edge walk. A result from here therefore reaches the same nodes as that walk would; the
+     * node budget and deadline cut it off the same way.
+     */
+    private TraversalResult traverseCondensed(CompactGraph graph, int[] starts, ImpactDirection direction, Budget budget) {
+        GraphComponents components = graph.components();
+        VisitMarks marks = graph.visitMarks().acquire();
+        VisitMarks componentMarks = components.visitMarks().acquire();
+        try {
+            return traverseCondensed(graph, components, starts, direction, budget, marks, componentMarks);
+        } finally {
+            components.visitMarks().release(componentMarks);
+            graph.visitMarks().release(marks);
+        }
+    }
+
+    private TraversalResult traverseCondensed(CompactGraph graph, GraphComponents components, int[] starts,
+                                              ImpactDirection direction, Budget budget, VisitMarks marks,
+                                              VisitMarks componentMarks) {
+        boolean forward = direction.followsDependencies();
+        List<String> nodes = new ArrayList<>();
+        int[] queue = new int[Math.max(16, Math.min(components.componentCount(), 1024))];
+        // Upper bound on the depth of every member of the queued component
+        int[] depthBounds = new int[queue.length];
+        int head = 0;
+        int tail = 0;
+        long edgeCharge = 0;
+
+        for (int start : starts) {
+            if (!marks.mark(start)) continue;
+            if (nodes.size() >= budget.maxNodes) {
+                return new TraversalResult(nodes, null, Cutoff.NODES);
+            }
+            nodes.add(graph.name(start));
+            int component = components.component(start);
+            if (componentMarks.mark(component)) {
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, tail * 2);
+                    depthBounds = Arrays.copyOf(depthBounds, tail * 2);
+                }
+                queue[tail] = component;
+                depthBounds[tail++] = components.memberEnd(component) - components.memberStart(component) - 1;
+            }
+        }
+
+        while (head < tail) {
+            if (head % DEADLINE_CHECK_INTERVAL == 0 && budget.expired()) {
+                return new TraversalResult(nodes, null, Cutoff.DEADLINE);
+            }
+            int depthBound = depthBounds[head];
+            int component = queue[head++];
+            if (depthBound > budget.maxDepth) {
+                return null;
+            }
+            for (int m = components.memberStart(component); m < components.memberEnd(component); m++) {
+                int member = components.member(m);
+                edgeCharge += forward ? graph.outEnd(member) - graph.outStart(member) : graph.inEnd(member) - graph.inStart(member);
+                if (!marks.mark(member)) continue;
+                if (nodes.size() >= budget.maxNodes) {
+                    return new TraversalResult(nodes, null, Cutoff.NODES);
+                }
+                nodes.add(graph.name(member));
+            }
+            if (edgeCharge > budget.maxEdges) {
+                return null;
+            }
+            int from = forward ? components.outStart(component) : components.inStart(component);
+            int to = forward ? components.outEnd(component) : components.inEnd(component);
+            for (int i = from; i < to; i++) {
+                int next = forward ? components.target(i) : components.source(i);
+                if (componentMarks.mark(next)) {
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                        depthBounds = Arrays.copyOf(depthBounds, tail * 2);
+                    }
+                    queue[tail] = next;
+                    depthBounds[tail++] = (int) Math.min(Integer.MAX_VALUE, (long) depthBound + 1
+                            + components.memberEnd(next) - components.memberStart(next) - 1);
+                }
+            }
+        }
+        return new TraversalResult(nodes, null, Cutoff.NONE);
+    }
+
+    // Same walk over the map-backed graph, used only while the graph is not frozen (e.g. during an update)
+    private TraversalResult traverseUnfrozen(DependencyGraph graph, Collection<String> starts, ImpactDirection direction,
+                                             TraversalLimits limits, boolean collectEdges) {
+        Budget budget = new Budget(limits);
+        Set<String> visited = new LinkedHashSet<>();
+        List<TraversalResult.Edge> edges = collectEdges ? new ArrayList<>() : null;
+        Deque<String> queue = new ArrayDeque<>();
+        Map<String, Integer> depths = new HashMap<>();
+        int edgeCount = 0;
+        Cutoff cutoff = Cutoff.NONE;
+
+        for (String start : starts) {
+            if (start == null || graph.getNode(start) == null || visited.contains(start)) continue;
+            if (visited.size() >= budget.maxNodes) return new TraversalResult(new ArrayList<>(visited), edges, Cutoff.NODES);
+            visited.add(start);
+            depths.put(start, 0);
+            queue.add(start);
+        }
+
+        outer:
+        while (!queue.isEmpty()) {
+            if (budget.expired()) {
+                cutoff = Cutoff.DEADLINE;
+                break;
+            }
+            String name = queue.poll();
+            int depth = depths.get(name);
+            List<String[]> neighbors = new ArrayList<>();
+            if (direction.followsDependencies() && graph.getNode(name) != null) {
+                for (GraphNode dep : graph.getNode(name).getDependencies()) {
+                    neighbors.add(new String[]{name, dep.getName()});
+                }
+            }
+            if (direction.followsDependents()) {
+                for (String dependent : graph.getDependents(name)) {
+                    neighbors.add(new String[]{dependent, name});
+                }
+            }
+            for (String[] edge : neighbors) {
+                int flags = 0;
+                if (limits.getEdgeFlagMask() != 0 || edges != null) {
+                    var meta = graph.getEdgeMetadata(edge[0], edge[1]);
+                    flags = meta != null ? meta.getFlags() : 0;
+                }
+                if (limits.getEdgeFlagMask() != 0 && (flags & limits.getEdgeFlagMask()) == 0) continue;
+                if (depth >= budget.maxDepth) {
+                    if (cutoff == Cutoff.NONE) cutoff = Cutoff.DEPTH;
+                    break;
+                }
+                if (edgeCount++ >= budget.maxEdges) {
+                    cutoff = Cutoff.EDGES;
+                    break outer;
+                }
+                if (edges != null) edges.add(new TraversalResult.Edge(edge[0], edge[1], flags));
+                String next = edge[0].equals(name) ? edge[1] : edge[0];
+                if (visited.contains(next)) continue;
+                if (visited.size() >= budget.maxNodes) {
+                    cutoff = Cutoff.NODES;
+                    break outer;
+                }
+                visited.add(next);
+                depths.put(next, depth + 1);
+                queue.add(next);
+            }
+        }
+        return new TraversalResult(new ArrayList<>(visited), edges, cutoff);
+    }
+
+    private static final class Budget {
+        final int maxDepth;
+        final int maxNodes;
+        final int maxEdges;
+        final long deadline;
+
+        Budget(TraversalLimits limits) {
+            maxDepth = limits.getMaxDepth() > 0 ? limits.getMaxDepth() : Integer.MAX_VALUE;
+            maxNodes = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Integer.MAX_VALUE;
+            maxEdges = limits.getMaxEdges() > 0 ? limits.getMaxEdges() : Integer.MAX_VALUE;
+            deadline = limits.getTimeoutMs() > 0 ? System.nanoTime() + limits.getTimeoutMs() * 1_000_000L : Long.MAX_VALUE;
+        }
+
+        boolean expired() {
+            return deadline != Long.MAX_VALUE && System.nanoTime() > deadline;
+        }
+    }
 }
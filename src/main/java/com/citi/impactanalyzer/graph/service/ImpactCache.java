@@ -0,0 +1,82 @@
+package com.citi.impactanalyzer.graph.service;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * In-memory LRU cache of impact query results for one version of the dependency graph.
+ * <p>
+ * Entries are only returned for the graph version they were computed against. {@link #invalidate()} drops every
+ * entry and starts a new generation; a result computed before that is discarded when it is put, so a query that
+ * overlaps a reload cannot repopulate the cache with stale data. Callers take {@link #generation()} before
+ * computing a result and pass it back to {@link #put}.
+ */
+public final class ImpactCache {
+
+    private final IntSupplier maxEntries;
+    private final LinkedHashMap<String, Object> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long version = -1;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxEntries capacity, read on every put so configuration changes apply; 0 disables the cache
+     */
+    public ImpactCache(IntSupplier maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public synchronized Object get(long graphVersion, String key) {
+        Object value = graphVersion == version ? entries.get(key) : null;
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    public synchronized void put(long graphVersion, long generation, String key, Object value) {
+        int capacity = maxEntries.getAsInt();
+        if (capacity <= 0 || value == null || generation != this.generation || graphVersion < version) return;
+        if (graphVersion > version) {
+            entries.clear();
+            version = graphVersion;
+        }
+        entries.put(key, value);
+        while (entries.size() > capacity) {
+            entries.remove(entries.keySet().iterator().next());
+        }
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void invalidate() {
+        entries.clear();
+        generation++;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Cache key for a query of the given kind, e.g. an impact direction.
+     */
+    public static String key(String kind, String query) {
+        return kind + '\u0000' + query;
+    }
+}
@@ -20,6 +20,9 @@ public class DependencyAnalyzerProperties {
 
     private Map<String, String> paths = new HashMap<>();
 
+    // Extraction mode per language: ast, llm or hybrid (defaults to llm when not configured)
+    private Map<String, String> extractionModes = new HashMap<>();
+
     // New configurable properties (defaults moved to application.properties)
     private String basePackage;
 
@@ -30,19 +33,64 @@ public class DependencyAnalyzerProperties {
 
     private long fileScannerMaxFileSizeBytes;
     private List<String> fileScannerExcludes = new ArrayList<>();
+    private int fileScannerParallelism;
 
     private boolean dependencyAggregationEnabled;
     private boolean dependencyAggregationAsync;
+    private int dependencyAggregationWorkers;
+    private int dependencyAggregationQueueCapacity;
+    private boolean incrementalAnalysisEnabled;
+
+    // Packing of small LLM-mode files into one prompt
+    private boolean promptBatchingEnabled;
+    private int promptBatchMaxChars;
+    private int promptBatchMaxFileChars;
+    private int promptBatchMaxFiles;
+
+    // Splitting of oversized files into separately extracted chunks
+    private int chunkMaxChars;
+    private int chunkWorkers;
+
+    // Dependency graph file output: json or ndjson, optionally gzip-compressed
+    private String graphOutputFormat;
+    private boolean graphOutputGzip;
+
+    // Per-file extraction result cache
+    private boolean extractionCacheEnabled;
+    private String extractionCacheDir;
+    private long extractionCacheMaxBytes;
 
     // Chat/LLM properties
     private long chatTimeoutMs;
     private int chatRetryCount;
     private long chatRetryDelayMs;
+    private int chatMaxInFlight;
 
     // Graph/criticality properties
     private int graphCriticalInDegreeThreshold = 5; // default
     private boolean graphMarkCrossPackageCritical = true; // default
 
+    // Binary snapshot of the loaded graph, reused at startup while the graph JSON is unchanged
+    private boolean graphSnapshotEnabled;
+
+    // Bounds for impact traversals (0 = unlimited)
+    private int graphTraversalMaxDepth;
+    private int graphTraversalMaxNodes;
+    private int graphTraversalMaxEdges;
+    private long graphTraversalTimeoutMs;
+
+    // In-memory cache of impact query results (0 = disabled) and how many hub classes to precompute after a load
+    private int graphImpactCacheMaxEntries;
+    private int graphImpactCacheWarmCount;
+
+    // Node scoring after each load: PageRank iterations and betweenness sample size (0 = skip)
+    private int graphPageRankIterations;
+    private int graphBetweennessSamples;
+
+    // Parallel graph load from JSON: worker threads (0 = available processors) and entries handed to a worker at once
+    private int graphLoadWorkers;
+    private int graphLoadBatchSize;
+
     public String getBaseDir() {
         return baseDir;
     }
@@ -80,6 +128,25 @@ public class DependencyAnalyzerProperties {
         return paths.get(lang);
     }
 
+    public Map<String, String> getExtractionModes() {
+        return extractionModes;
+    }
+
+    public void setExtractionModes(Map<String, String> extractionModes) {
+        this.extractionModes = extractionModes;
+    }
+
+    public String getExtractionModeForLanguage(String lang) {
+        if (lang == null || extractionModes == null) return null;
+        String mode = extractionModes.get(lang);
+        if (mode != null) return mode;
+        return extractionModes.entrySet().stream()
+                .filter(e -> lang.equalsIgnoreCase(e.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
     // New getters/setters
     public String getBasePackage() {
         return basePackage;
@@ -137,6 +204,14 @@ public class DependencyAnalyzerProperties {
         this.fileScannerExcludes = fileScannerExcludes;
     }
 
+    public int getFileScannerParallelism() {
+        return fileScannerParallelism;
+    }
+
+    public void setFileScannerParallelism(int fileScannerParallelism) {
+        this.fileScannerParallelism = fileScannerParallelism;
+    }
+
     public boolean isDependencyAggregationEnabled() {
         return dependencyAggregationEnabled;
     }
@@ -153,6 +228,118 @@ public class DependencyAnalyzerProperties {
         this.dependencyAggregationAsync = dependencyAggregationAsync;
     }
 
+    public int getDependencyAggregationWorkers() {
+        return dependencyAggregationWorkers;
+    }
+
+    public void setDependencyAggregationWorkers(int dependencyAggregationWorkers) {
+        this.dependencyAggregationWorkers = dependencyAggregationWorkers;
+    }
+
+    public int getDependencyAggregationQueueCapacity() {
+        return dependencyAggregationQueueCapacity;
+    }
+
+    public void setDependencyAggregationQueueCapacity(int dependencyAggregationQueueCapacity) {
+        this.dependencyAggregationQueueCapacity = dependencyAggregationQueueCapacity;
+    }
+
+    public boolean isIncrementalAnalysisEnabled() {
+        return incrementalAnalysisEnabled;
+    }
+
+    public void setIncrementalAnalysisEnabled(boolean incrementalAnalysisEnabled) {
+        this.incrementalAnalysisEnabled = incrementalAnalysisEnabled;
+    }
+
+    public boolean isPromptBatchingEnabled() {
+        return promptBatchingEnabled;
+    }
+
+    public void setPromptBatchingEnabled(boolean promptBatchingEnabled) {
+        this.promptBatchingEnabled = promptBatchingEnabled;
+    }
+
+    public int getPromptBatchMaxChars() {
+        return promptBatchMaxChars;
+    }
+
+    public void setPromptBatchMaxChars(int promptBatchMaxChars) {
+        this.promptBatchMaxChars = promptBatchMaxChars;
+    }
+
+    public int getPromptBatchMaxFileChars() {
+        return promptBatchMaxFileChars;
+    }
+
+    public void setPromptBatchMaxFileChars(int promptBatchMaxFileChars) {
+        this.promptBatchMaxFileChars = promptBatchMaxFileChars;
+    }
+
+    public int getPromptBatchMaxFiles() {
+        return promptBatchMaxFiles;
+    }
+
+    public void setPromptBatchMaxFiles(int promptBatchMaxFiles) {
+        this.promptBatchMaxFiles = promptBatchMaxFiles;
+    }
+
+    public int getChunkMaxChars() {
+        return chunkMaxChars;
+    }
+
+    public void setChunkMaxChars(int chunkMaxChars) {
+        this.chunkMaxChars = chunkMaxChars;
+    }
+
+    public int getChunkWorkers() {
+        return chunkWorkers;
+    }
+
+    public void setChunkWorkers(int chunkWorkers) {
+        this.chunkWorkers = chunkWorkers;
+    }
+
+    public String getGraphOutputFormat() {
+        return graphOutputFormat;
+    }
+
+    public void setGraphOutputFormat(String graphOutputFormat) {
+        this.graphOutputFormat = graphOutputFormat;
+    }
+
+    public boolean isGraphOutputGzip() {
+        return graphOutputGzip;
+    }
+
+    public void setGraphOutputGzip(boolean graphOutputGzip) {
+        this.graphOutputGzip = graphOutputGzip;
+    }
+
+    public boolean isExtractionCacheEnabled() {
+        return extractionCacheEnabled;
+    }
+
+    public void setExtractionCacheEnabled(boolean extractionCacheEnabled) {
+        this.extractionCacheEnabled = extractionCacheEnabled;
+    }
+
+    public String getExtractionCacheDir() {
+        return extractionCacheDir;
+    }
+
+    public void setExtractionCacheDir(String extractionCacheDir) {
+        this.extractionCacheDir = extractionCacheDir;
+    }
+
+    public long getExtractionCacheMaxBytes() {
+        return extractionCacheMaxBytes;
+    }
+
+    public void setExtractionCacheMaxBytes(long extractionCacheMaxBytes) {
+        this.extractionCacheMaxBytes = extractionCacheMaxBytes;
+    }
+
     public long getChatTimeoutMs() {
         return chatTimeoutMs;
     }
@@ -177,6 +364,14 @@ public class DependencyAnalyzerProperties {
         this.chatRetryDelayMs = chatRetryDelayMs;
     }
 
+    public int getChatMaxInFlight() {
+        return chatMaxInFlight;
+    }
+
+    public void setChatMaxInFlight(int chatMaxInFlight) {
+        this.chatMaxInFlight = chatMaxInFlight;
+    }
+
     // Graph/criticality getters/setters
     public int getGraphCriticalInDegreeThreshold() {
         return graphCriticalInDegreeThreshold;
@@ -193,4 +388,92 @@ public class DependencyAnalyzerProperties {
     public void setGraphMarkCrossPackageCritical(boolean graphMarkCrossPackageCritical) {
         this.graphMarkCrossPackageCritical = graphMarkCrossPackageCritical;
     }
+
+    public boolean isGraphSnapshotEnabled() {
+        return graphSnapshotEnabled;
+    }
+
+    public void setGraphSnapshotEnabled(boolean graphSnapshotEnabled) {
+        this.graphSnapshotEnabled = graphSnapshotEnabled;
+    }
+
+    public int getGraphTraversalMaxDepth() {
+        return graphTraversalMaxDepth;
+    }
+
+    public void setGraphTraversalMaxDepth(int graphTraversalMaxDepth) {
+        this.graphTraversalMaxDepth = graphTraversalMaxDepth;
+    }
+
+    public int getGraphTraversalMaxNodes() {
+        return graphTraversalMaxNodes;
+    }
+
+    public void setGraphTraversalMaxNodes(int graphTraversalMaxNodes) {
+        this.graphTraversalMaxNodes = graphTraversalMaxNodes;
+    }
+
+    public int getGraphTraversalMaxEdges() {
+        return graphTraversalMaxEdges;
+    }
+
+    public void setGraphTraversalMaxEdges(int graphTraversalMaxEdges) {
+        this.graphTraversalMaxEdges = graphTraversalMaxEdges;
+    }
+
+    public long getGraphTraversalTimeoutMs() {
+        return graphTraversalTimeoutMs;
+    }
+
+    public void setGraphTraversalTimeoutMs(long graphTraversalTimeoutMs) {
+        this.graphTraversalTimeoutMs = graphTraversalTimeoutMs;
+    }
+
+    public int getGraphImpactCacheMaxEntries() {
+        return graphImpactCacheMaxEntries;
+    }
+
+    public void setGraphImpactCacheMaxEntries(int graphImpactCacheMaxEntries) {
+        this.graphImpactCacheMaxEntries = graphImpactCacheMaxEntries;
+    }
+
+    public int getGraphImpactCacheWarmCount() {
+        return graphImpactCacheWarmCount;
+    }
+
+    public void setGraphImpactCacheWarmCount(int graphImpactCacheWarmCount) {
+        this.graphImpactCacheWarmCount = graphImpactCacheWarmCount;
+    }
+
+    public int getGraphPageRankIterations() {
+        return graphPageRankIterations;
+    }
+
+    public void setGraphPageRankIterations(int graphPageRankIterations) {
+        this.graphPageRankIterations = graphPageRankIterations;
+    }
+
+    public int getGraphBetweennessSamples() {
+        return graphBetweennessSamples;
+    }
+
+    public void setGraphBetweennessSamples(int graphBetweennessSamples) {
+        this.graphBetweennessSamples = graphBetweennessSamples;
+    }
+
+    public int getGraphLoadWorkers() {
+        return graphLoadWorkers;
+    }
+
+    public void setGraphLoadWorkers(int graphLoadWorkers) {
+        this.graphLoadWorkers = graphLoadWorkers;
+    }
+
+    public int getGraphLoadBatchSize() {
+        return graphLoadBatchSize;
+    }
+
+    public void setGraphLoadBatchSize(int graphLoadBatchSize) {
+        this.graphLoadBatchSize = graphLoadBatchSize;
+    }
 }
@@ -1,5 +1,13 @@
 package com.citi.impactanalyzer.parser.domain;
 
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/**
+ * A source or SQL file to analyze. Files produced by a directory scan are lazy handles: their content is
+ * read from disk on each {@link #getContent()} call and never retained, so holding many of them costs only
+ * their metadata.
+ */
 public class CodeFile {
 
     public enum Type { CODE, SQL }
@@ -8,12 +16,31 @@ public class CodeFile {
     private final String language; // for CODE files
     private final String content;
     private final String dialect;  // for SQL files
+    private final Path path;       // location on disk, null when not read from a file
+    private final Supplier<String> contentLoader; // set for lazy handles instead of content
 
     public CodeFile(Type type, String language, String content, String dialect) {
+        this(type, language, content, dialect, null);
+    }
+
+    public CodeFile(Type type, String language, String content, String dialect, Path path) {
+        this(type, language, content, dialect, path, null);
+    }
+
+    private CodeFile(Type type, String language, String content, String dialect, Path path, Supplier<String> contentLoader) {
         this.type = type;
         this.language = language;
         this.content = content;
         this.dialect = dialect;
+        this.path = path;
+        this.contentLoader = contentLoader;
+    }
+
+    /**
+     * A file whose content is produced by {@code contentLoader} whenever it is requested.
+     */
+    public static CodeFile lazy(Type type, String language, String dialect, Path path, Supplier<String> contentLoader) {
+        return new CodeFile(type, language, null, dialect, path, contentLoader);
     }
 
     public Type getType() {
@@ -24,11 +51,24 @@ public class CodeFile {
         return language;
     }
 
+    /**
+     * File content. For lazy handles this reads the file again on every call; callers should keep the
+     * result only as long as they need it.
+     *
+     * @throws java.io.UncheckedIOException if a lazy handle can no longer be read
+     */
     public String getContent() {
+        if (content == null && contentLoader != null) {
+            return contentLoader.get();
+        }
         return content;
     }
 
     public String getDialect() {
         return dialect;
     }
+
+    public Path getPath() {
+        return path;
+    }
 }
@@ -0,0 +1,40 @@
+package com.citi.impactanalyzer.parser.domain;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of a dependency graph generation run. For incremental runs it lists the sources whose edges
+ * changed together with their complete, current dependency entries so a live graph can be spliced
+ * instead of rebuilt.
+ */
+public class DependencyDelta {
+
+    private static final DependencyDelta FULL = new DependencyDelta(false, Set.of(), List.of());
+
+    private final boolean incremental;
+    private final Set<String> affectedSources;
+    private final List<Object> affectedEntries;
+
+    public DependencyDelta(boolean incremental, Set<String> affectedSources, List<Object> affectedEntries) {
+        this.incremental = incremental;
+        this.affectedSources = affectedSources != null ? affectedSources : Set.of();
+        this.affectedEntries = affectedEntries != null ? affectedEntries : List.of();
+    }
+
+    public static DependencyDelta full() {
+        return FULL;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public Set<String> getAffectedSources() {
+        return affectedSources;
+    }
+
+    public List<Object> getAffectedEntries() {
+        return affectedEntries;
+    }
+}
@@ -0,0 +1,26 @@
+package com.citi.impactanalyzer.parser.domain;
+
+import java.util.Locale;
+
+/**
+ * How dependencies are extracted for a language.
+ * <ul>
+ *     <li>{@code AST}    - local parser only, the LLM is never called</li>
+ *     <li>{@code LLM}    - every file is sent to the model</li>
+ *     <li>{@code HYBRID} - local parser first, the LLM only for files the parser cannot fully resolve</li>
+ * </ul>
+ */
+public enum ExtractionMode {
+    AST, LLM, HYBRID;
+
+    public static ExtractionMode from(String value, ExtractionMode defaultMode) {
+        if (value == null || value.isBlank()) {
+            return defaultMode;
+        }
+        try {
+            return ExtractionMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultMode;
+        }
+    }
+}
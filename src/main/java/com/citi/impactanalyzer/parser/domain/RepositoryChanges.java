@@ -0,0 +1,42 @@
+package com.citi.impactanalyzer.parser.domain;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Files that changed between two commits, as repository-relative paths with '/' separators.
+ */
+public class RepositoryChanges {
+
+    private final String fromCommit;
+    private final String toCommit;
+    private final Set<String> changedPaths; // added, modified, or the new side of a rename/copy
+    private final Set<String> removedPaths; // deleted, or the old side of a rename
+
+    public RepositoryChanges(String fromCommit, String toCommit, Set<String> changedPaths, Set<String> removedPaths) {
+        this.fromCommit = fromCommit;
+        this.toCommit = toCommit;
+        this.changedPaths = Collections.unmodifiableSet(changedPaths);
+        this.removedPaths = Collections.unmodifiableSet(removedPaths);
+    }
+
+    public String getFromCommit() {
+        return fromCommit;
+    }
+
+    public String getToCommit() {
+        return toCommit;
+    }
+
+    public Set<String> getChangedPaths() {
+        return changedPaths;
+    }
+
+    public Set<String> getRemovedPaths() {
+        return removedPaths;
+    }
+
+    public boolean isEmpty() {
+        return changedPaths.isEmpty() && removedPaths.isEmpty();
+    }
+}
@@ -0,0 +1,20 @@
+package com.citi.impactanalyzer.parser.exception;
+
+/**
+ * Thrown when only part of a file's dependencies could be extracted, e.g. because one chunk of a large file failed
+ * or the model's reply could not be parsed. Carries the dependencies that were found as a JSON array; they are
+ * usable for this run but must not be cached as the file's result.
+ */
+public class PartialExtractionException extends RuntimeException {
+
+    private final String partialResult;
+
+    public PartialExtractionException(String message, String partialResult) {
+        super(message);
+        this.partialResult = partialResult;
+    }
+
+    public String getPartialResult() {
+        return partialResult;
+    }
+}
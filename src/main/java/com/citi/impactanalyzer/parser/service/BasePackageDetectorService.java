@@ -5,6 +5,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -38,7 +39,13 @@ public class BasePackageDetectorService {
 
         for (CodeFile file : codeFiles) {
             if (file.getType() == CodeFile.Type.CODE && "java".equalsIgnoreCase(file.getLanguage())) {
-                String pkg = extractPackageFromJavaCode(file.getContent());
+                String pkg;
+                try {
+                    pkg = extractPackageFromJavaCode(file.getContent());
+                } catch (UncheckedIOException e) {
+                    logger.debug("Skipping unreadable file for package detection: {}", e.getMessage());
+                    continue;
+                }
                 if (pkg != null && !pkg.isBlank()) {
                     packages.add(pkg);
                     logger.debug("Extracted package: {}", pkg);
@@ -8,6 +8,8 @@ import org.springframework.stereotype.Service;
 
 import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
 
+import java.util.concurrent.Semaphore;
+
 @Service
 public class ChatClientService {
 
@@ -15,10 +17,14 @@ public class ChatClientService {
 
     private final ChatClient chatClient;
     private final DependencyAnalyzerProperties properties;
+    // Caps concurrent model calls across all aggregation workers; null when unlimited
+    private final Semaphore inFlight;
 
     public ChatClientService(ChatClient chatClient, DependencyAnalyzerProperties properties) {
         this.chatClient = chatClient;
         this.properties = properties;
+        int maxInFlight = properties.getChatMaxInFlight();
+        this.inFlight = maxInFlight > 0 ? new Semaphore(maxInFlight, true) : null;
     }
 
     public String sendPrompt(String prompt) {
@@ -26,10 +32,9 @@ public class ChatClientService {
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
             try {
                 logger.debug("Sending prompt to ChatClient (attempt {}/{})", attempt, maxAttempts);
-                return chatClient.prompt()
-                        .user(prompt)
-                        .call()
-                        .content();
+                return call(prompt);
+            } catch (ChatClientCommunicationException e) {
+                throw e;
             } catch (Exception e) {
                 logger.warn("Chat client call failed on attempt {}/{}: {}", attempt, maxAttempts, e.getMessage());
 
@@ -47,4 +52,21 @@ public class ChatClientService {
         }
         throw new ChatClientCommunicationException("Chat client failed after retries (unreachable code path).");
     }
+
+    private String call(String prompt) {
+        if (inFlight == null) {
+            return chatClient.prompt().user(prompt).call().content();
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ChatClientCommunicationException("Interrupted while waiting for a free chat client slot.", ie);
+        }
+        try {
+            return chatClient.prompt().user(prompt).call().content();
+        } finally {
+            inFlight.release();
+        }
+    }
 }
\ No newline at end of file
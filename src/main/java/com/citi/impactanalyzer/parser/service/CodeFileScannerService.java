@@ -6,75 +6,253 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.*;
 import java.nio.file.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Stream;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Pattern;
 
 @Service
 public class CodeFileScannerService {
 
     private static final Logger logger = LoggerFactory.getLogger(CodeFileScannerService.class);
 
+    // Directories this many levels below the scan root get their own fork-join task
+    private static final int FORK_DEPTH = 3;
+    private static final Pattern GLOB_CHARS = Pattern.compile("[*?\\[{]");
+
     private final DependencyAnalyzerProperties properties;
+    private volatile ExcludeMatcher excludeMatcher;
 
     public CodeFileScannerService(DependencyAnalyzerProperties properties) {
         this.properties = properties;
     }
 
+    /**
+     * Returns a handle per code or SQL file below {@code rootDir}, sorted by path. Handles carry only metadata;
+     * content is read when {@link CodeFile#getContent()} is called, so the list stays small however large the
+     * repository's sources are.
+     */
     public List<CodeFile> scanDirectory(Path rootDir) throws IOException {
-        List<CodeFile> codeFiles = new ArrayList<>();
-
         if (rootDir == null || !Files.exists(rootDir)) {
             logger.warn("Root directory for scanning does not exist: {}", rootDir);
-            return codeFiles;
+            return new ArrayList<>();
         }
 
-        try (Stream<Path> paths = Files.walk(rootDir)) {
-            paths.filter(Files::isRegularFile)
-                    .forEach(file -> {
-                        try {
-                            // exclude common folders
-                            for (String ex : properties.getFileScannerExcludes()) {
-                                if (file.toString().contains(FileSystems.getDefault().getSeparator() + ex + FileSystems.getDefault().getSeparator())) {
-                                    return;
-                                }
-                            }
+        long start = System.currentTimeMillis();
+        ExcludeMatcher excludes = excludeMatcher();
+        ForkJoinPool pool = new ForkJoinPool(parallelism());
+        List<CodeFile> codeFiles;
+        try {
+            codeFiles = pool.invoke(new DirectoryWalkTask(rootDir, rootDir, excludes));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
 
-                            long size = Files.size(file);
-                            if (size > properties.getFileScannerMaxFileSizeBytes()) {
-                                logger.debug("Skipping large file {} ({} bytes)", file, size);
-                                return;
-                            }
+        // Subtrees complete in any order; keep results stable across runs
+        codeFiles.sort(Comparator.comparing(CodeFile::getPath));
+        logger.info("Scanned {} in {} ms - {} code/sql files", rootDir, System.currentTimeMillis() - start, codeFiles.size());
+        return codeFiles;
+    }
 
-                            String content = readFileSafely(file);
+    /**
+     * Loads a single file below {@code rootDir}, applying the same excludes, size limit and type detection
+     * as {@link #scanDirectory(Path)}. Used to re-read only the files that changed since the last analysis.
+     */
+    public Optional<CodeFile> scanFile(Path rootDir, Path file) {
+        if (file == null) {
+            return Optional.empty();
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attrs.isRegularFile()) {
+                return Optional.empty();
+            }
+            if (rootDir != null) {
+                ExcludeMatcher excludes = excludeMatcher();
+                Path root = rootDir.toAbsolutePath().normalize();
+                for (Path dir = file.toAbsolutePath().normalize().getParent();
+                     dir != null && dir.startsWith(root) && !dir.equals(root); dir = dir.getParent()) {
+                    if (excludes.matches(root.relativize(dir))) {
+                        return Optional.empty();
+                    }
+                }
+            }
+            return toCodeFile(file, attrs.size());
+        } catch (IOException e) {
+            logger.warn("Failed to read file: {} - {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-                             if (isCodeFile(file)) {
-                                String language = detectLanguage(file);
-                                codeFiles.add(new CodeFile(CodeFile.Type.CODE, language, content, null));
-                            } else if (isSqlFile(file)) {
-                                String dialect = detectSqlDialect(content);
-                                codeFiles.add(new CodeFile(CodeFile.Type.SQL, null, content, dialect));
-                            }
+    private int parallelism() {
+        int configured = properties.getFileScannerParallelism();
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    private ExcludeMatcher excludeMatcher() {
+        List<String> patterns = properties.getFileScannerExcludes();
+        ExcludeMatcher current = excludeMatcher;
+        if (current == null || !current.patterns.equals(patterns)) {
+            current = new ExcludeMatcher(patterns);
+            excludeMatcher = current;
+        }
+        return current;
+    }
+
+    /**
+     * Walks one directory with {@link Files#walkFileTree}, reading attributes once per entry. Excluded
+     * directories are pruned before they are opened; subdirectories near the top of the tree are forked as
+     * separate tasks and deeper ones are walked inline to keep tasks reasonably sized.
+     */
+    private final class DirectoryWalkTask extends RecursiveTask<List<CodeFile>> {
+
+        private final Path scanRoot;
+        private final Path dir;
+        private final ExcludeMatcher excludes;
+
+        DirectoryWalkTask(Path scanRoot, Path dir, ExcludeMatcher excludes) {
+            this.scanRoot = scanRoot;
+            this.dir = dir;
+            this.excludes = excludes;
+        }
+
+        @Override
+        protected List<CodeFile> compute() {
+            List<CodeFile> files = new ArrayList<>();
+            List<DirectoryWalkTask> forked = new ArrayList<>();
+            try {
+                Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attrs) {
+                        if (subDir.equals(dir)) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                        Path relative = scanRoot.relativize(subDir);
+                        if (excludes.matches(relative)) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        if (relative.getNameCount() <= FORK_DEPTH) {
+                            DirectoryWalkTask task = new DirectoryWalkTask(scanRoot, subDir, excludes);
+                            task.fork();
+                            forked.add(task);
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
 
-                        } catch (IOException e) {
-                            logger.warn("Failed to read file: {} - {}", file, e.getMessage());
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile()) {
+                            try {
+                                toCodeFile(file, attrs.size()).ifPresent(files::add);
+                            } catch (IOException e) {
+                                logger.warn("Failed to read file: {} - {}", file, e.getMessage());
+                            }
                         }
-                    });
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        logger.warn("Failed to read file: {} - {}", file, e.getMessage());
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (DirectoryWalkTask task : forked) {
+                files.addAll(task.join());
+            }
+            return files;
         }
+    }
 
-        return codeFiles;
+    /**
+     * Compiled form of {@code analyzer.file-scanner-excludes}. Plain names match a directory of that name
+     * anywhere in the tree; other patterns are globs, matched against the directory name or, when they
+     * contain '/', against the directory's path relative to the scan root.
+     */
+    private static final class ExcludeMatcher {
+
+        private final List<String> patterns;
+        private final Set<String> names = new HashSet<>();
+        private final List<PathMatcher> nameGlobs = new ArrayList<>();
+        private final List<PathMatcher> pathGlobs = new ArrayList<>();
+
+        ExcludeMatcher(List<String> patterns) {
+            this.patterns = patterns != null ? List.copyOf(patterns) : List.of();
+            FileSystem fs = FileSystems.getDefault();
+            for (String pattern : this.patterns) {
+                String trimmed = pattern.trim();
+                if (trimmed.isEmpty()) continue;
+                if (trimmed.indexOf('/') >= 0) {
+                    pathGlobs.add(fs.getPathMatcher("glob:" + trimmed));
+                } else if (GLOB_CHARS.matcher(trimmed).find()) {
+                    nameGlobs.add(fs.getPathMatcher("glob:" + trimmed));
+                } else {
+                    names.add(trimmed);
+                }
+            }
+        }
+
+        boolean matches(Path relativeDir) {
+            Path name = relativeDir.getFileName();
+            if (name == null) return false;
+            if (names.contains(name.toString())) return true;
+            for (PathMatcher glob : nameGlobs) {
+                if (glob.matches(name)) return true;
+            }
+            for (PathMatcher glob : pathGlobs) {
+                if (glob.matches(relativeDir)) return true;
+            }
+            return false;
+        }
+    }
+
+    private Optional<CodeFile> toCodeFile(Path file, long size) throws IOException {
+        if (size > properties.getFileScannerMaxFileSizeBytes()) {
+            logger.debug("Skipping large file {} ({} bytes)", file, size);
+            return Optional.empty();
+        }
+
+        if (isCodeFile(file)) {
+            String language = detectLanguage(file);
+            return Optional.of(CodeFile.lazy(CodeFile.Type.CODE, language, null, file, () -> readContent(file)));
+        } else if (isSqlFile(file)) {
+            String dialect = detectSqlDialect(file);
+            return Optional.of(CodeFile.lazy(CodeFile.Type.SQL, null, dialect, file, () -> readContent(file)));
+        }
+        return Optional.empty();
+    }
+
+    private String readContent(Path file) {
+        try {
+            return readFileSafely(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read file: " + file, e);
+        }
     }
 
     private String readFileSafely(Path file) throws IOException {
         byte[] bytes = Files.readAllBytes(file);
-        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        return newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+    }
+
+    private CharsetDecoder newDecoder() {
+        return StandardCharsets.UTF_8.newDecoder()
                 .onMalformedInput(CodingErrorAction.REPLACE)
                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
-        return decoder.decode(ByteBuffer.wrap(bytes)).toString();
     }
 
     // Placeholder methods – implement your logic
@@ -97,11 +275,18 @@ public class CodeFileScannerService {
         return "unknown";
     }
 
-    private String detectSqlDialect(String content) {
+    // Line by line so the SQL is not held in memory just to pick a dialect
+    private String detectSqlDialect(Path file) throws IOException {
         // Very naive detection; improve as needed
-        String lower = content.toLowerCase();
-        if (lower.contains("oracle")) return "oracle";
-        if (lower.contains("mysql")) return "mysql";
-        return "unknown";
+        boolean mysql = false;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file), newDecoder()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String lower = line.toLowerCase();
+                if (lower.contains("oracle")) return "oracle";
+                mysql |= lower.contains("mysql");
+            }
+        }
+        return mysql ? "mysql" : "unknown";
     }
 }
@@ -0,0 +1,40 @@
+package com.citi.impactanalyzer.parser.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class ContentHashes {
+
+    private ContentHashes() {
+    }
+
+    /**
+     * SHA-256 over the given parts, hex encoded. Parts are separated by a NUL byte so that
+     * {@code ("ab", "c")} and {@code ("a", "bc")} hash differently; null parts hash as empty strings.
+     */
+    public static String sha256Hex(String... parts) {
+        return HexFormat.of().formatHex(sha256(parts));
+    }
+
+    /**
+     * The raw 32-byte form of {@link #sha256Hex}, for binary keys.
+     */
+    public static byte[] sha256(String... parts) {
+        MessageDigest digest = newDigest();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) digest.update((byte) 0);
+            if (parts[i] != null) digest.update(parts[i].getBytes(StandardCharsets.UTF_8));
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -5,52 +5,86 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
 import com.citi.impactanalyzer.parser.domain.CodeFile;
 import com.citi.impactanalyzer.parser.domain.CodeFile.Type;
+import com.citi.impactanalyzer.parser.domain.DependencyDelta;
+import com.citi.impactanalyzer.parser.domain.ExtractionMode;
+import com.citi.impactanalyzer.parser.domain.RepositoryChanges;
+import com.citi.impactanalyzer.parser.exception.PartialExtractionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Service
 public class DependencyAggregationService {
 
     private static final Logger logger = LoggerFactory.getLogger(DependencyAggregationService.class);
+    private static final String DEFAULT_GRAPH_JSON_PATH = "build/analysis/dependency-graph.json";
+
+    @Value("${graph.json.path:" + DEFAULT_GRAPH_JSON_PATH + "}")
+    private String graphJsonPath;
 
     private final DependencyExtractionService dependencyService;
     private final CodeFileScannerService fileScanner;
     private final ObjectMapper mapper;
     private final DependencyAnalyzerProperties properties;
     private final BasePackageDetectorService basePackageDetector;
+    private final ExtractionResultCache extractionCache;
+    private final RepositoryCloneService repositoryCloneService;
 
     public DependencyAggregationService(DependencyExtractionService dependencyService,
                                         CodeFileScannerService fileScanner,
                                         ObjectMapper mapper,
                                         DependencyAnalyzerProperties properties,
-                                        BasePackageDetectorService basePackageDetector) {
+                                        BasePackageDetectorService basePackageDetector,
+                                        ExtractionResultCache extractionCache,
+                                        RepositoryCloneService repositoryCloneService) {
         this.dependencyService = dependencyService;
         this.fileScanner = fileScanner;
         this.mapper = mapper;
         this.properties = properties;
         this.basePackageDetector = basePackageDetector;
+        this.extractionCache = extractionCache;
+        this.repositoryCloneService = repositoryCloneService;
     }
 
-    public void generateDependencyGraph() {
+    /**
+     * Regenerates the dependency graph JSON. When the previous graph records the commit it was built from,
+     * only the files changed since that commit are re-extracted and spliced in.
+     *
+     * @return what changed, so a live graph can be updated without a full rebuild
+     */
+    public DependencyDelta generateDependencyGraph() {
         long startTime = System.currentTimeMillis();
 
+        extractionCache.resetStats();
         try {
+            String headCommit = repositoryCloneService.resolveHeadCommit(repositoryRoot()).orElse(null);
+
+            Optional<DependencyDelta> incremental = tryIncrementalUpdate(headCommit);
+            if (incremental.isPresent()) {
+                extractionCache.evictIfNeeded();
+                logDuration(startTime);
+                return incremental.get();
+            }
+
             List<CodeFile> allFiles = scanFiles();
             detectAndSetBasePackage(allFiles);
 
-            List<Object> allDependencies = processFiles(allFiles);
-
-            writeDependencyGraph(allDependencies);
+            try (DependencyGraphWriter writer = openGraphWriter(headCommit)) {
+                processFiles(allFiles, writer::write);
+                commitGraph(writer);
+            }
+            extractionCache.evictIfNeeded();
 
             logDuration(startTime);
 
@@ -59,6 +93,138 @@ public class DependencyAggregationService {
         } catch (Exception e) {
               logger.error("Unexpected error while generating dependency graph", e);
         }
+        return DependencyDelta.full();
+    }
+
+    private Optional<DependencyDelta> tryIncrementalUpdate(String headCommit) throws IOException {
+        if (!properties.isIncrementalAnalysisEnabled() || headCommit == null) {
+            return Optional.empty();
+        }
+
+        Path previous = graphOutputFile().toPath();
+        if (!Files.isRegularFile(previous) || Files.size(previous) == 0) {
+            return Optional.empty();
+        }
+        String previousCommit = DependencyGraphReader.readHeader(previous).getCommit();
+        if (previousCommit == null || previousCommit.isBlank()) {
+            logger.info("Previous dependency graph has no commit information; running full analysis");
+            return Optional.empty();
+        }
+
+        if (previousCommit.equals(headCommit)) {
+            logger.info("Dependency graph is already up to date with commit {}", headCommit);
+            return Optional.of(new DependencyDelta(true, Set.of(), List.of()));
+        }
+
+        Optional<RepositoryChanges> changes = repositoryCloneService.diffSince(repositoryRoot(), previousCommit);
+        if (changes.isEmpty()) {
+            return Optional.empty();
+        }
+        return applyChanges(previous, changes.get(), headCommit);
+    }
+
+    /**
+     * Rewrites the graph file with the entries of stale files replaced. The previous file is streamed twice,
+     * once to find the sources of stale entries and once to copy the surviving entries, so it is never held
+     * in memory as a whole.
+     */
+    private Optional<DependencyDelta> applyChanges(Path previous, RepositoryChanges changes, String headCommit) throws IOException {
+        Set<String> stalePaths = new HashSet<>(changes.getRemovedPaths());
+        stalePaths.addAll(changes.getChangedPaths());
+
+        Set<String> affectedSources = new LinkedHashSet<>();
+        long[] unattributed = {0};
+        DependencyGraphReader.Header header = DependencyGraphReader.readPartial(previous, entry -> {
+            String file = entry.path("file").asText(null);
+            if (file == null) {
+                unattributed[0]++;
+            } else if (stalePaths.contains(file)) {
+                affectedSources.add(entry.path("source").asText());
+            }
+        });
+        if (unattributed[0] > 0 || !header.isComplete()) {
+            logger.info("Previous dependency graph is incomplete or has entries without file attribution; running full analysis");
+            return Optional.empty();
+        }
+
+        List<CodeFile> changedFiles = loadChangedFiles(changes.getChangedPaths());
+        List<Object> newEntries = new ArrayList<>();
+        processFiles(changedFiles, newEntries::addAll);
+        newEntries.forEach(entry -> addSource(affectedSources, entry));
+
+        List<Object> affectedEntries = new ArrayList<>();
+        long[] dropped = {0};
+        try (DependencyGraphWriter writer = openGraphWriter(headCommit)) {
+            DependencyGraphReader.read(previous, entry -> {
+                if (stalePaths.contains(entry.path("file").asText(null))) {
+                    dropped[0]++;
+                    return;
+                }
+                if (affectedSources.contains(entry.path("source").asText(null))) {
+                    affectedEntries.add(entry);
+                }
+                try {
+                    writer.append(entry);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.write(newEntries);
+            commitGraph(writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        affectedEntries.addAll(newEntries);
+
+        logger.info("Incremental analysis {}..{}: re-extracted {} files, dropped {} stale entries, added {} entries",
+                changes.getFromCommit(), headCommit, changedFiles.size(), dropped[0], newEntries.size());
+        return Optional.of(new DependencyDelta(true, affectedSources, affectedEntries));
+    }
+
+    private List<CodeFile> loadChangedFiles(Set<String> changedPaths) {
+        Path root = repositoryRoot().toAbsolutePath().normalize();
+        List<Path> scanRoots = scanRoots(root);
+
+        List<CodeFile> files = new ArrayList<>();
+        for (String relativePath : changedPaths) {
+            Path file = root.resolve(relativePath).normalize();
+            if (scanRoots.stream().noneMatch(file::startsWith)) {
+                logger.debug("Changed file outside scanned paths: {}", relativePath);
+                continue;
+            }
+            fileScanner.scanFile(root, file).ifPresent(files::add);
+        }
+        return files;
+    }
+
+    // Mirrors scanFiles(): configured language and SQL folders, or the whole repository when none exist
+    private List<Path> scanRoots(Path root) {
+        List<Path> roots = new ArrayList<>();
+        if (properties.getLanguages() != null) {
+            for (String lang : properties.getLanguages()) {
+                String subPath = properties.getPathForLanguage(lang);
+                if (subPath != null && !subPath.isBlank()) {
+                    roots.add(root.resolve(subPath).normalize());
+                }
+            }
+        }
+        Map<String, String> paths = properties.getPaths();
+        if (paths != null && paths.containsKey("sql")) {
+            roots.add(root.resolve(paths.get("sql")).normalize());
+        }
+        roots.removeIf(p -> !Files.isDirectory(p));
+        if (roots.isEmpty()) {
+            roots.add(root);
+        }
+        return roots;
+    }
+
+    private Path repositoryRoot() {
+        return Path.of(properties.getBaseDir() != null ? properties.getBaseDir() : "build/cloneRepo");
+    }
+
+    private File graphOutputFile() {
+        return new File(graphJsonPath != null && !graphJsonPath.isBlank() ? graphJsonPath : DEFAULT_GRAPH_JSON_PATH);
     }
 
     private List<CodeFile> scanFiles() throws IOException {
@@ -127,17 +293,21 @@ public class DependencyAggregationService {
     private void logDuration(long startTime) {
         long endTime = System.currentTimeMillis();
         double durationSec = (endTime - startTime) / 1000.0;
-        logger.info("Total time taken to generate dependency file: {} seconds", durationSec);
+        logger.info("Total time taken to generate dependency file: {} seconds (extraction cache hits: {}, misses: {})",
+                durationSec, extractionCache.getHits(), extractionCache.getMisses());
     }
 
 
-    private List<Object> processFiles(List<CodeFile> codeFiles) throws IOException {
-        List<Object> allDependencies = new ArrayList<>();
-        int processedCount = 0;
+    /**
+     * Extracts dependencies of all files and hands each file's entries to {@code sink} in file order,
+     * as soon as that file and every file before it are done.
+     */
+    private void processFiles(List<CodeFile> codeFiles, ResultSink sink) throws IOException {
         int skippedCount = 0;
 
         logger.info("Starting to process {} files for dependency analysis", codeFiles.size());
 
+        List<CodeFile> filesToAnalyze = new ArrayList<>();
         for (CodeFile file : codeFiles) {
             logger.debug("Processing: {} language: {}", file, file.getLanguage());
 
@@ -145,20 +315,346 @@ public class DependencyAggregationService {
                 skippedCount++;
                 continue;
             }
+            filesToAnalyze.add(file);
+        }
 
-            try {
-                allDependencies.addAll(analyzeAndParseDependencies(file));
-                processedCount++;
-            } catch (RuntimeException e) {
-                logger.error("Failed to analyze file {}: {}", file.getType(), e.getMessage());
-                skippedCount++;
-            }
+        Map<CodeFile, List<Object>> batchResults = properties.isPromptBatchingEnabled()
+                ? analyzeInBatches(filesToAnalyze)
+                : Map.of();
+
+        List<Callable<List<Object>>> tasks = new ArrayList<>(filesToAnalyze.size());
+        for (CodeFile file : filesToAnalyze) {
+            tasks.add(() -> analyzeSafely(file, batchResults.get(file)));
+        }
+        // Results arrive in input order, so the output matches a sequential run
+        int[] counts = {0, skippedCount};
+        long[] dependencyCount = {0};
+        try {
+            runTasks(tasks, "files", dependencies -> {
+                if (dependencies == null) {
+                    counts[1]++;
+                    return;
+                }
+                try {
+                    sink.accept(dependencies);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                dependencyCount[0] += dependencies.size();
+                counts[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
 
         logger.info("File processing complete. Processed: {}, Skipped: {}, Total dependencies: {}",
-                processedCount, skippedCount, allDependencies.size());
+                counts[0], counts[1], dependencyCount[0]);
+    }
+
+    @FunctionalInterface
+    private interface ResultSink {
+        void accept(List<Object> dependencies) throws IOException;
+    }
+
+    /**
+     * Runs the tasks sequentially or, when async aggregation is enabled, on the bounded worker pool.
+     * Results are passed to {@code onResult} in task order; a task that fails yields null.
+     */
+    private <T> void runTasks(List<Callable<T>> tasks, String description, Consumer<T> onResult) {
+        if (!properties.isDependencyAggregationAsync()) {
+            for (Callable<T> task : tasks) {
+                onResult.accept(callSafely(task));
+            }
+            return;
+        }
+        runConcurrently(tasks, description, onResult);
+    }
+
+    private <T> T callSafely(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            logger.error("Analysis task failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs tasks on a bounded worker pool. When the queue is full the submitting thread runs the task itself,
+     * which throttles submission to the pace of the workers; the chat client separately caps in-flight model calls.
+     * Results are handed over from a window of at most workers + queue capacity pending tasks: after each submit the
+     * finished tasks at its head are drained, and when it is full the submitter waits for the head. A slow task thus
+     * holds back at most one window of finished results instead of every result of the run.
+     */
+    private <T> void runConcurrently(List<Callable<T>> tasks, String description, Consumer<T> onResult) {
+        int workers = properties.getDependencyAggregationWorkers() > 0
+                ? properties.getDependencyAggregationWorkers()
+                : Runtime.getRuntime().availableProcessors();
+        int queueCapacity = properties.getDependencyAggregationQueueCapacity() > 0
+                ? properties.getDependencyAggregationQueueCapacity()
+                : workers * 2;
+        int windowSize = workers + queueCapacity;
+
+        logger.info("Analyzing {} {} concurrently with {} workers (queue capacity {})", tasks.size(), description, workers, queueCapacity);
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            Deque<Future<T>> window = new ArrayDeque<>(windowSize);
+            for (Callable<T> task : tasks) {
+                window.addLast(executor.submit(task));
+                while (!window.isEmpty() && (window.peekFirst().isDone() || window.size() >= windowSize)) {
+                    onResult.accept(awaitResult(window.pollFirst()));
+                }
+            }
+            while (!window.isEmpty()) {
+                onResult.accept(awaitResult(window.pollFirst()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> T awaitResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            logger.error("Analysis task failed: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return null;
+        }
+    }
+
+    private ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "dependency-analyzer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private List<Object> analyzeSafely(CodeFile file, List<Object> batchResult) {
+        try {
+            List<Object> dependencies = batchResult != null ? batchResult : analyzeAndParseDependencies(file);
+            return withFileAttribution(dependencies, file);
+        } catch (RuntimeException | IOException e) {
+            logger.error("Failed to analyze file {}: {}", file.getType(), e.getMessage());
+            return null;
+        }
+    }
 
-        return allDependencies;
+    /**
+     * Packs small files of LLM-mode languages into shared prompts and splits the tagged reply back per file.
+     * Files of a batch that fails or cannot be attributed, and files the reply has no entries for, are absent
+     * from the result and go through the regular per-file extraction afterwards.
+     */
+    private Map<CodeFile, List<Object>> analyzeInBatches(List<CodeFile> files) {
+        List<List<CodeFile>> batches = planBatches(files);
+        if (batches.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<CodeFile, List<Object>> results = new ConcurrentHashMap<>();
+        List<Callable<Void>> tasks = new ArrayList<>(batches.size());
+        for (List<CodeFile> batch : batches) {
+            tasks.add(() -> {
+                analyzeBatch(batch, results);
+                return null;
+            });
+        }
+        runTasks(tasks, "prompt batches", ignored -> { });
+
+        int batchedFiles = batches.stream().mapToInt(List::size).sum();
+        logger.info("Prompt batching: {} files in {} batches, {} resolved without per-file requests",
+                batchedFiles, batches.size(), results.size());
+        return results;
+    }
+
+    /**
+     * Groups consecutive small files of the same language until the character or file budget is reached.
+     * Sizes come from the file system where possible so planning does not load any content.
+     */
+    private List<List<CodeFile>> planBatches(List<CodeFile> files) {
+        int maxChars = properties.getPromptBatchMaxChars();
+        int maxFileChars = properties.getPromptBatchMaxFileChars();
+        int maxFiles = properties.getPromptBatchMaxFiles();
+        if (maxChars <= 0 || maxFileChars <= 0 || maxFiles < 2) {
+            return List.of();
+        }
+
+        List<List<CodeFile>> batches = new ArrayList<>();
+        Map<String, List<CodeFile>> open = new HashMap<>();
+        Map<String, Long> openChars = new HashMap<>();
+        for (CodeFile file : files) {
+            if (file.getType() != Type.CODE || dependencyService.resolveMode(file.getLanguage()) != ExtractionMode.LLM) {
+                continue;
+            }
+            long size = sizeOf(file);
+            if (size < 0 || size > maxFileChars) {
+                continue;
+            }
+
+            String language = file.getLanguage();
+            List<CodeFile> batch = open.get(language);
+            if (batch != null && (batch.size() >= maxFiles || openChars.get(language) + size > maxChars)) {
+                batches.add(batch);
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new ArrayList<>();
+                open.put(language, batch);
+                openChars.put(language, 0L);
+            }
+            batch.add(file);
+            openChars.merge(language, size, Long::sum);
+        }
+        batches.addAll(open.values());
+        // A batch of one is just a per-file request with a longer prompt
+        batches.removeIf(batch -> batch.size() < 2);
+        return batches;
+    }
+
+    private long sizeOf(CodeFile file) {
+        try {
+            if (file.getPath() != null) {
+                return Files.size(file.getPath());
+            }
+            String content = file.getContent();
+            return content != null ? content.length() : -1;
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private void analyzeBatch(List<CodeFile> batch, Map<CodeFile, List<Object>> results) throws IOException {
+        String language = batch.get(0).getLanguage();
+        Map<String, String> codeById = new LinkedHashMap<>();
+        Map<String, CodeFile> fileById = new HashMap<>();
+        Map<String, String> cacheKeyById = new HashMap<>();
+
+        for (CodeFile file : batch) {
+            String content = file.getContent();
+            String cacheKey = extractionCache.keyFor(file, content, dependencyService.extractorFingerprint(file));
+            Optional<List<Object>> cached = extractionCache.get(cacheKey);
+            if (cached.isPresent()) {
+                results.put(file, cached.get());
+                continue;
+            }
+            String id = "F" + (codeById.size() + 1);
+            codeById.put(id, content);
+            fileById.put(id, file);
+            cacheKeyById.put(id, cacheKey);
+        }
+        if (codeById.isEmpty()) {
+            return;
+        }
+
+        String rawOutput = dependencyService.analyzeCodeDependenciesBatch(codeById, language);
+        if (rawOutput == null || rawOutput.indexOf('[') < 0) {
+            logger.warn("Batched reply for {} {} files contained no JSON array; falling back to per-file requests",
+                    codeById.size(), language);
+            return;
+        }
+        List<Object> tagged;
+        try {
+            tagged = mapper.readValue(sanitizeLlmOutput(rawOutput), new TypeReference<>() {});
+        } catch (IOException e) {
+            logger.warn("Could not parse batched reply for {} {} files; falling back to per-file requests: {}",
+                    codeById.size(), language, e.getMessage());
+            return;
+        }
+        if (tagged == null) {
+            return;
+        }
+
+        Map<String, List<Object>> byId = new HashMap<>();
+        int unattributed = 0;
+        for (Object entry : tagged) {
+            String id = fileOf(entry);
+            if (id == null || !fileById.containsKey(id)) {
+                unattributed++;
+                continue;
+            }
+            Map<Object, Object> dependency = new LinkedHashMap<>((Map<?, ?>) entry);
+            dependency.remove("file");
+            byId.computeIfAbsent(id, k -> new ArrayList<>()).add(dependency);
+        }
+        if (unattributed > 0) {
+            logger.warn("Batched reply for {} files had {} entries without a valid file id; falling back to per-file requests",
+                    codeById.size(), unattributed);
+            return;
+        }
+
+        // A file the reply says nothing about may have been skipped by the model rather than have no
+        // dependencies; it goes through per-file extraction instead of being cached as empty
+        int missing = 0;
+        for (Map.Entry<String, CodeFile> file : fileById.entrySet()) {
+            List<Object> dependencies = byId.get(file.getKey());
+            if (dependencies == null) {
+                missing++;
+                continue;
+            }
+            extractionCache.put(cacheKeyById.get(file.getKey()), dependencies);
+            results.put(file.getValue(), dependencies);
+        }
+        if (missing > 0) {
+            logger.info("Batched reply for {} {} files had no entries for {} of them; extracting those per file",
+                    codeById.size(), language, missing);
+        }
+        logger.debug("Batch of {} {} files produced {} dependencies", codeById.size(), language, tagged.size());
+    }
+
+    /**
+     * Records the repository-relative file each entry came from, which is what lets a later incremental run
+     * drop exactly the edges of changed files.
+     */
+    private List<Object> withFileAttribution(List<Object> dependencies, CodeFile file) {
+        String relativePath = relativePath(file);
+        if (relativePath == null) {
+            return dependencies;
+        }
+        List<Object> attributed = new ArrayList<>(dependencies.size());
+        for (Object dependency : dependencies) {
+            if (dependency instanceof Map<?, ?> map) {
+                Map<Object, Object> copy = new LinkedHashMap<>(map);
+                copy.put("file", relativePath);
+                attributed.add(copy);
+            } else {
+                attributed.add(dependency);
+            }
+        }
+        return attributed;
+    }
+
+    private String relativePath(CodeFile file) {
+        if (file.getPath() == null) {
+            return null;
+        }
+        Path root = repositoryRoot().toAbsolutePath().normalize();
+        Path path = file.getPath().toAbsolutePath().normalize();
+        if (!path.startsWith(root)) {
+            return null;
+        }
+        return root.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private static String fileOf(Object entry) {
+        return entry instanceof Map<?, ?> map && map.get("file") != null ? map.get("file").toString() : null;
+    }
+
+    private static String sourceOf(Object entry) {
+        return entry instanceof Map<?, ?> map && map.get("source") != null ? map.get("source").toString() : null;
+    }
+
+    private static void addSource(Set<String> sources, Object entry) {
+        String source = sourceOf(entry);
+        if (source != null) {
+            sources.add(source);
+        }
     }
 
     private boolean shouldSkipFile(CodeFile file) {
@@ -174,63 +670,61 @@ public class DependencyAggregationService {
         return false;
     }
 
-     private List<Object> analyzeAndParseDependencies(CodeFile file) throws IOException {
-        String rawOutput = (file.getType() == Type.SQL)
-                ? dependencyService.analyzeSqlDependencies(file.getContent(), file.getDialect())
-                : dependencyService.analyzeCodeDependencies(file.getContent(), file.getLanguage());
+    private List<Object> analyzeAndParseDependencies(CodeFile file) throws IOException {
+        String content = file.getContent();
+        String cacheKey = extractionCache.keyFor(file, content, dependencyService.extractorFingerprint(file));
+        Optional<List<Object>> cached = extractionCache.get(cacheKey);
+        if (cached.isPresent()) {
+            logger.debug("Extraction cache hit - {} dependencies", cached.get().size());
+            return cached.get();
+        }
+
+        String rawOutput;
+        boolean complete = true;
+        try {
+            rawOutput = (file.getType() == Type.SQL)
+                    ? dependencyService.analyzeSqlDependencies(content, file.getDialect())
+                    : dependencyService.analyzeCodeDependencies(content, file.getLanguage());
+        } catch (PartialExtractionException e) {
+            logger.warn("Extraction of {} is incomplete ({}); keeping what was found without caching it",
+                    file.getPath() != null ? file.getPath() : file.getType(), e.getMessage());
+            rawOutput = e.getPartialResult();
+            complete = false;
+        }
 
+        if (rawOutput == null || rawOutput.indexOf('[') < 0) {
+            logger.warn("Extraction reply for {} contained no JSON array; recording no dependencies for it",
+                    file.getPath() != null ? file.getPath() : file.getType());
+        }
         String depsJson = sanitizeLlmOutput(rawOutput);
         List<Object> dependencies = mapper.readValue(depsJson, new TypeReference<>() {});
 
         logger.info("File processed - found {} dependencies. Content length: {} chars", dependencies.size(),
-                file.getContent() != null ? file.getContent().length() : 0);
+                content != null ? content.length() : 0);
 
+        // A reply without any JSON array is a failed extraction, not an empty result, and a partial one is
+        // retried next run; don't pin either in the cache
+        if (complete && rawOutput != null && rawOutput.indexOf('[') >= 0) {
+            extractionCache.put(cacheKey, dependencies);
+        }
         return dependencies;
     }
 
-    private void writeDependencyGraph(List<Object> allDependencies) throws IOException {
-        File output = new File("build/analysis/dependency-graph.json");
-        ensureParentDirectoryExists(output);
-
-        String repoName = extractRepoName();
-        Map<String, Object> outputWrapper = new HashMap<>();
-        outputWrapper.put("repo", repoName != null ? repoName : "");
-        outputWrapper.put("dependencies", allDependencies);
-
-        try (FileWriter fw = new FileWriter(output)) {
-            mapper.writerWithDefaultPrettyPrinter().writeValue(fw, outputWrapper);
-        }
-
-        logger.info("Dependency graph JSON generated at: {} (repo={})", output.getAbsolutePath(), repoName);
+    private DependencyGraphWriter openGraphWriter(String commit) throws IOException {
+        return DependencyGraphWriter.open(graphOutputFile().toPath(),
+                DependencyGraphWriter.Format.from(properties.getGraphOutputFormat()),
+                properties.isGraphOutputGzip(), extractRepoName(), commit);
     }
 
-    private void ensureParentDirectoryExists(File file) {
-        File parent = file.getParentFile();
-        if (parent != null && !parent.exists()) {
-            boolean created = parent.mkdirs();
-            if (!created) {
-                logger.warn("Could not create directories for output path: {}", parent.getAbsolutePath());
-            }
-        }
+    private void commitGraph(DependencyGraphWriter writer) throws IOException {
+        writer.commit();
+        logger.info("Dependency graph JSON generated at: {} ({} entries)", writer.getTarget().toAbsolutePath(), writer.getEntryCount());
     }
 
     // --- Unchanged Methods ---
 
     private String sanitizeLlmOutput(String raw) {
-        if (raw == null || raw.isEmpty()) {
-            return "[]";
-        }
-
-        String sanitized = raw.replaceAll("(?m)^```.*$", "");
-        int start = sanitized.indexOf('[');
-        int end = sanitized.lastIndexOf(']');
-        if (start >= 0 && end >= start) {
-            sanitized = sanitized.substring(start, end + 1);
-        } else {
-            sanitized = "[]";
-        }
-
-        return sanitized.trim();
+        return LlmOutputSanitizer.sanitize(raw);
     }
 
     private String extractRepoName() {
@@ -1,31 +1,294 @@
 package com.citi.impactanalyzer.parser.service;
 
 import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
+import com.citi.impactanalyzer.parser.domain.CodeFile;
+import com.citi.impactanalyzer.parser.domain.ExtractionMode;
+import com.citi.impactanalyzer.parser.exception.PartialExtractionException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
 @Service
 public class DependencyExtractionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DependencyExtractionService.class);
+
     private final PromptService promptService;
     private final DependencyAnalyzerProperties properties;
+    private final JavaAstDependencyExtractor astExtractor;
+    private final ObjectMapper mapper;
+    private volatile ExecutorService chunkExecutor;
 
     public DependencyExtractionService(PromptService promptService,
-                                       DependencyAnalyzerProperties properties) {
+                                       DependencyAnalyzerProperties properties,
+                                       JavaAstDependencyExtractor astExtractor,
+                                       ObjectMapper mapper) {
         this.promptService = promptService;
         this.properties = properties;
+        this.astExtractor = astExtractor;
+        this.mapper = mapper;
     }
 
+    /**
+     * Extracts the dependencies of one file as a JSON array.
+     *
+     * @throws PartialExtractionException when part of the file could not be extracted; it carries what was found
+     */
     public String analyzeCodeDependencies(String code, String language) {
         if (!properties.getLanguages().contains(language)) {
             throw new IllegalArgumentException("Unsupported language: " + language);
         }
-        return promptService.analyzeCodeDependencies(code, language);
+
+        ExtractionMode mode = resolveMode(language);
+        if (mode == ExtractionMode.LLM) {
+            return analyzeCodeWithModel(code, language);
+        }
+
+        JavaAstDependencyExtractor.Result ast = astExtractor.extract(code);
+        if (mode == ExtractionMode.AST) {
+            if (!ast.isParsed()) {
+                logger.warn("AST extraction failed to parse {} file; no dependencies recorded", language);
+            }
+            return toJson(ast.getDependencies());
+        }
+
+        if (ast.isComplete()) {
+            return toJson(ast.getDependencies());
+        }
+
+        logger.debug("AST extraction incomplete (parsed={}, unresolved={}); falling back to LLM",
+                ast.isParsed(), ast.getUnresolvedTypes());
+        String llmOutput;
+        try {
+            llmOutput = analyzeCodeWithModel(code, language);
+        } catch (PartialExtractionException e) {
+            if (!ast.isParsed()) throw e;
+            List<Map<String, Object>> found = parseLlmOutput(e.getPartialResult());
+            throw new PartialExtractionException(e.getMessage(),
+                    toJson(merge(ast.getDependencies(), found != null ? found : List.of())));
+        }
+        if (!ast.isParsed()) {
+            return llmOutput;
+        }
+        List<Map<String, Object>> llmDependencies = parseLlmOutput(llmOutput);
+        if (llmDependencies == null) {
+            throw new PartialExtractionException("LLM reply for unresolved types could not be parsed",
+                    toJson(merge(ast.getDependencies(), List.of())));
+        }
+        return toJson(merge(ast.getDependencies(), llmDependencies));
+    }
+
+    /**
+     * Extracts dependencies of several small files of one language with a single model call. Only meaningful
+     * for languages in LLM mode; the reply tags each triple with the id of its file.
+     */
+    public String analyzeCodeDependenciesBatch(Map<String, String> codeById, String language) {
+        if (!properties.getLanguages().contains(language)) {
+            throw new IllegalArgumentException("Unsupported language: " + language);
+        }
+        return promptService.analyzeCodeDependenciesBatch(codeById, language);
     }
 
+    /**
+     * Extracts the dependencies of one SQL file as JSON grouped by source.
+     *
+     * @throws PartialExtractionException when a chunk of a large file failed; it carries what was found
+     */
     public String analyzeSqlDependencies(String sql, String dialect) {
         if (!properties.getSqlDialects().contains(dialect)) {
             throw new IllegalArgumentException("Unsupported SQL dialect: " + dialect);
         }
-        return promptService.analyzeAndGroupSqlDependencies(sql, dialect);
+        if (!exceedsChunkSize(sql)) {
+            return promptService.analyzeAndGroupSqlDependencies(sql, dialect);
+        }
+
+        List<String> chunks = SourceChunker.chunkSql(sql, properties.getChunkMaxChars());
+        logger.info("Splitting {} chars of {} SQL into {} chunks", sql.length(), dialect, chunks.size());
+        List<List<Map<String, Object>>> results = analyzeChunks(chunks,
+                chunk -> promptService.analyzeAndGroupSqlDependencies(chunk, dialect));
+        return completeOrThrow(results, toJson(mergeGroupedSql(results)));
+    }
+
+    /**
+     * Sends code to the model, splitting files above {@code analyzer.chunk-max-chars} into member-aligned
+     * chunks that are extracted in parallel and merged into one deduplicated list.
+     */
+    private String analyzeCodeWithModel(String code, String language) {
+        if (!exceedsChunkSize(code)) {
+            return promptService.analyzeCodeDependencies(code, language);
+        }
+
+        int maxChars = properties.getChunkMaxChars();
+        List<String> chunks = "java".equalsIgnoreCase(language)
+                ? SourceChunker.chunkJava(code, maxChars)
+                : SourceChunker.chunkLines(code, maxChars);
+        logger.info("Splitting {} chars of {} into {} chunks", code.length(), language, chunks.size());
+
+        List<List<Map<String, Object>>> results = analyzeChunks(chunks,
+                chunk -> promptService.analyzeCodeDependencies(chunk, language));
+        Map<String, Map<String, Object>> merged = new LinkedHashMap<>();
+        for (List<Map<String, Object>> dependencies : results) {
+            if (dependencies == null) continue;
+            for (Map<String, Object> dependency : dependencies) {
+                merged.putIfAbsent(tripleKey(dependency), dependency);
+            }
+        }
+        return completeOrThrow(results, toJson(new ArrayList<>(merged.values())));
+    }
+
+    // The merged JSON when every chunk succeeded; otherwise it becomes the partial result of the failure
+    private String completeOrThrow(List<List<Map<String, Object>>> results, String mergedJson) {
+        long failed = results.stream().filter(Objects::isNull).count();
+        if (failed > 0) {
+            throw new PartialExtractionException(failed + " of " + results.size() + " chunks failed", mergedJson);
+        }
+        return mergedJson;
+    }
+
+    private boolean exceedsChunkSize(String source) {
+        int maxChars = properties.getChunkMaxChars();
+        return maxChars > 0 && source != null && source.length() > maxChars;
+    }
+
+    // Per chunk, its parsed dependencies, or null when the chunk failed or its reply could not be parsed
+    private List<List<Map<String, Object>>> analyzeChunks(List<String> chunks, Function<String, String> extractor) {
+        ExecutorService executor = chunkExecutor();
+        List<Future<String>> futures = new ArrayList<>(chunks.size());
+        for (String chunk : chunks) {
+            futures.add(executor.submit(() -> extractor.apply(chunk)));
+        }
+
+        List<List<Map<String, Object>>> results = new ArrayList<>(chunks.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(parseLlmOutput(futures.get(i).get()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Interrupted while extracting chunks", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("Chunk {} of {} failed; its dependencies are missing from the result: {}",
+                        i + 1, chunks.size(), cause.getMessage());
+                results.add(null);
+            }
+        }
+        return results;
+    }
+
+    // Grouped SQL output has one object per source with an array per relation; chunks may repeat a source
+    private List<Map<String, Object>> mergeGroupedSql(List<List<Map<String, Object>>> results) {
+        Map<String, Map<String, Object>> bySource = new LinkedHashMap<>();
+        for (List<Map<String, Object>> dependencies : results) {
+            if (dependencies == null) continue;
+            for (Map<String, Object> dependency : dependencies) {
+                Object source = dependency.get("source");
+                if (source == null || dependency.containsKey("relation")) {
+                    bySource.putIfAbsent(tripleKey(dependency), dependency);
+                    continue;
+                }
+                Map<String, Object> group = bySource.computeIfAbsent(source.toString(), s -> {
+                    Map<String, Object> created = new LinkedHashMap<>();
+                    created.put("source", s);
+                    return created;
+                });
+                for (Map.Entry<String, Object> field : dependency.entrySet()) {
+                    if (!(field.getValue() instanceof List<?> targets)) continue;
+                    @SuppressWarnings("unchecked")
+                    Set<Object> union = (Set<Object>) group.computeIfAbsent(field.getKey(), k -> new LinkedHashSet<>());
+                    union.addAll(targets);
+                }
+            }
+        }
+        return new ArrayList<>(bySource.values());
+    }
+
+    // Chunk calls block on the model, so they get their own small pool; idle threads exit on their own
+    private ExecutorService chunkExecutor() {
+        ExecutorService executor = chunkExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = chunkExecutor;
+                if (executor == null) {
+                    int workers = Math.max(1, properties.getChunkWorkers());
+                    AtomicInteger counter = new AtomicInteger();
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 30L, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(), runnable -> {
+                                Thread thread = new Thread(runnable, "chunk-extractor-" + counter.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                    pool.allowCoreThreadTimeOut(true);
+                    chunkExecutor = executor = pool;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Effective extraction mode for a language. Only Java has a local parser, so every other language
+     * is always analyzed by the LLM.
+     */
+    public ExtractionMode resolveMode(String language) {
+        if (!"java".equalsIgnoreCase(language)) {
+            return ExtractionMode.LLM;
+        }
+        return ExtractionMode.from(properties.getExtractionModeForLanguage(language), ExtractionMode.LLM);
+    }
+
+    /**
+     * Identifies everything besides the file content that determines the extracted dependencies:
+     * extraction mode, AST extractor version and prompt templates.
+     */
+    public String extractorFingerprint(CodeFile file) {
+        ExtractionMode mode = file.getType() == CodeFile.Type.SQL ? ExtractionMode.LLM : resolveMode(file.getLanguage());
+        String astVersion = mode == ExtractionMode.LLM ? "-" : JavaAstDependencyExtractor.VERSION;
+        return mode + ";ast=" + astVersion + ";prompt=" + promptService.templateFingerprint();
+    }
+
+    // Null when the reply has no JSON array or cannot be parsed, which is a failed extraction, not an empty one
+    private List<Map<String, Object>> parseLlmOutput(String raw) {
+        if (raw == null || raw.indexOf('[') < 0) {
+            logger.warn("LLM reply contained no JSON array; no dependencies recorded from it");
+            return null;
+        }
+        try {
+            return mapper.readValue(LlmOutputSanitizer.sanitize(raw), new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not parse LLM output, no dependencies recorded from it: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private List<Map<String, Object>> merge(List<Map<String, String>> astDependencies, List<Map<String, Object>> llmDependencies) {
+        Map<String, Map<String, Object>> merged = new LinkedHashMap<>();
+        for (Map<String, String> dependency : astDependencies) {
+            merged.putIfAbsent(tripleKey(dependency), new LinkedHashMap<>(dependency));
+        }
+        for (Map<String, Object> dependency : llmDependencies) {
+            merged.putIfAbsent(tripleKey(dependency), dependency);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private String tripleKey(Map<String, ?> dependency) {
+        return dependency.get("source") + "|" + dependency.get("relation") + "|" + dependency.get("target");
+    }
+
+    private String toJson(Object dependencies) {
+        try {
+            return mapper.writeValueAsString(dependencies);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize extracted dependencies", e);
+        }
     }
 }
@@ -0,0 +1,175 @@
+package com.citi.impactanalyzer.parser.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams the entries of a dependency graph file without building a tree of the whole document.
+ * <p>
+ * Accepts everything {@link DependencyGraphWriter} produces (JSON or NDJSON, plain or gzip, detected from the
+ * content) as well as a bare top-level array. Only one entry is materialized at a time. A truncated or malformed
+ * file, such as the partial output of an interrupted run, fails {@link #read}; {@link #readPartial} instead yields
+ * the entries before the cut and reports the file as incomplete.
+ */
+public final class DependencyGraphReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyGraphReader.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private DependencyGraphReader() {
+    }
+
+    public static final class Header {
+        private String repo;
+        private String commit;
+        private long entryCount;
+        private boolean complete = true;
+
+        public String getRepo() {
+            return repo;
+        }
+
+        public String getCommit() {
+            return commit;
+        }
+
+        public long getEntryCount() {
+            return entryCount;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    /**
+     * Reads the file, handing each dependency entry to {@code entryConsumer} in file order. A truncated or
+     * malformed file fails with an {@link IOException}, after the entries before the fault have been handed over;
+     * callers must then discard whatever they built from them.
+     */
+    public static Header read(Path file, Consumer<JsonNode> entryConsumer) throws IOException {
+        Header header = new Header();
+        try {
+            readAll(file, header, entryConsumer);
+        } catch (EOFException | JsonProcessingException e) {
+            throw new IOException("Dependency graph file " + file + " is truncated or malformed after "
+                    + header.entryCount + " entries", e);
+        }
+        return header;
+    }
+
+    /**
+     * Like {@link #read}, but a truncated or malformed file yields the entries before the fault and a header that
+     * is not {@link Header#isComplete() complete}. For callers that check completeness and fall back themselves.
+     */
+    public static Header readPartial(Path file, Consumer<JsonNode> entryConsumer) throws IOException {
+        Header header = new Header();
+        try {
+            readAll(file, header, entryConsumer);
+        } catch (EOFException | JsonProcessingException e) {
+            header.complete = false;
+            logger.warn("Dependency graph file {} is truncated or malformed after {} entries: {}",
+                    file, header.entryCount, e.getMessage());
+        }
+        return header;
+    }
+
+    private static void readAll(Path file, Header header, Consumer<JsonNode> entryConsumer) throws IOException {
+        try (InputStream in = open(file); JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.START_ARRAY) {
+                    readEntries(parser, header, entryConsumer);
+                } else if (token == JsonToken.START_OBJECT) {
+                    readRootObject(parser, header, entryConsumer);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads only the repo and commit fields, which the writer puts before any entry.
+     */
+    public static Header readHeader(Path file) throws IOException {
+        Header header = new Header();
+        try (InputStream in = open(file); JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return header;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value.isScalarValue()) {
+                    if ("repo".equals(field)) header.repo = parser.getValueAsString();
+                    if ("commit".equals(field)) header.commit = parser.getValueAsString();
+                } else {
+                    break;
+                }
+            }
+        } catch (EOFException | JsonProcessingException e) {
+            header.complete = false;
+        }
+        return header;
+    }
+
+    // Fields are buffered except a "dependencies" array, which is streamed. A root object with a "source" is an
+    // NDJSON entry; otherwise it is the header.
+    private static void readRootObject(JsonParser parser, Header header, Consumer<JsonNode> entryConsumer) throws IOException {
+        ObjectNode fields = MAPPER.createObjectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("dependencies".equals(field) && value == JsonToken.START_ARRAY) {
+                readEntries(parser, header, entryConsumer);
+            } else {
+                fields.set(field, parser.readValueAsTree());
+            }
+        }
+
+        if (fields.has("source")) {
+            header.entryCount++;
+            entryConsumer.accept(fields);
+            return;
+        }
+        if (fields.hasNonNull("repo")) header.repo = fields.get("repo").asText();
+        if (fields.hasNonNull("commit")) header.commit = fields.get("commit").asText();
+    }
+
+    private static void readEntries(JsonParser parser, Header header, Consumer<JsonNode> entryConsumer) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            JsonNode entry = parser.readValueAsTree();
+            header.entryCount++;
+            entryConsumer.accept(entry);
+        }
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        in.mark(2);
+        int b1 = in.read();
+        int b2 = in.read();
+        in.reset();
+        if (b1 == 0x1f && b2 == 0x8b) {
+            return new GZIPInputStream(in, 1 << 16);
+        }
+        return in;
+    }
+}
@@ -0,0 +1,148 @@
+package com.citi.impactanalyzer.parser.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the dependency graph file incrementally with a Jackson {@link JsonGenerator}.
+ * <p>
+ * Entries are flushed as each file's results arrive into {@code <path>.partial}; {@link #commit()} finishes
+ * the document and atomically moves it over the target. If a run dies midway, the partial file keeps
+ * everything written so far and {@link DependencyGraphReader} can still load it.
+ * <p>
+ * {@link Format#JSON} produces {@code {"repo":..,"commit":..,"dependencies":[..]}}; {@link Format#NDJSON}
+ * produces a header object followed by one entry per line. Either can be gzip-compressed.
+ */
+public final class DependencyGraphWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyGraphWriter.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public enum Format {
+        JSON, NDJSON;
+
+        public static Format from(String value) {
+            if (value == null || value.isBlank()) return JSON;
+            return "ndjson".equals(value.trim().toLowerCase(Locale.ROOT)) ? NDJSON : JSON;
+        }
+    }
+
+    private final Path target;
+    private final Path partial;
+    private final Format format;
+    private final JsonGenerator generator;
+    private long entryCount;
+    private boolean committed;
+
+    private DependencyGraphWriter(Path target, Path partial, Format format, JsonGenerator generator) {
+        this.target = target;
+        this.partial = partial;
+        this.format = format;
+        this.generator = generator;
+    }
+
+    public static DependencyGraphWriter open(Path target, Format format, boolean gzip, String repo, String commit) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path partial = target.resolveSibling(target.getFileName() + ".partial");
+
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial), 1 << 16);
+        if (gzip) {
+            // syncFlush so each flush() pushes complete deflate blocks and the partial file stays readable
+            out = new GZIPOutputStream(out, 1 << 16, true);
+        }
+        JsonGenerator generator = MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // An abandoned run must stay recognizably truncated rather than be closed into valid JSON
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        if (format == Format.NDJSON) {
+            generator.setRootValueSeparator(null);
+        }
+
+        generator.writeStartObject();
+        generator.writeStringField("repo", repo != null ? repo : "");
+        if (commit != null) {
+            generator.writeStringField("commit", commit);
+        }
+        if (format == Format.JSON) {
+            generator.writeArrayFieldStart("dependencies");
+        } else {
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        return new DependencyGraphWriter(target, partial, format, generator);
+    }
+
+    /**
+     * Appends entries and flushes them to disk.
+     */
+    public void write(List<?> entries) throws IOException {
+        for (Object entry : entries) {
+            append(entry);
+        }
+        generator.flush();
+    }
+
+    /**
+     * Appends one entry without flushing, for bulk copies where per-entry durability is not needed.
+     */
+    public void append(Object entry) throws IOException {
+        generator.writeObject(entry);
+        if (format == Format.NDJSON) {
+            generator.writeRaw('\n');
+        }
+        entryCount++;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    /**
+     * Completes the document and replaces the target file with it.
+     */
+    public void commit() throws IOException {
+        if (format == Format.JSON) {
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.close();
+        committed = true;
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Releases the file without committing; the partial output stays on disk for inspection or recovery.
+     */
+    @Override
+    public void close() throws IOException {
+        if (committed) return;
+        committed = true;
+        generator.close();
+        logger.warn("Dependency graph output not completed; {} entries kept in {}", entryCount, partial);
+    }
+}
@@ -0,0 +1,181 @@
+package com.citi.impactanalyzer.parser.service;
+
+import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
+import com.citi.impactanalyzer.parser.domain.CodeFile;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of parsed per-file extraction results.
+ * <p>
+ * Entries are keyed by the SHA-256 of the file content, its language or dialect and the extractor fingerprint
+ * (mode, AST extractor version, prompt template hash), so a rerun over unchanged sources needs no model calls.
+ * Each entry is a small JSON file; hits refresh its modification time and {@link #evictIfNeeded()} drops the
+ * least recently used entries once the directory grows past {@code analyzer.extraction-cache-max-bytes}.
+ * Entries are written to a temporary file first and moved into place.
+ */
+@Service
+public class ExtractionResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionResultCache.class);
+    // Temporary files older than this are left over from a crashed write rather than one in progress
+    private static final long STALE_TMP_MILLIS = 60 * 60 * 1000L;
+
+    private final DependencyAnalyzerProperties properties;
+    private final ObjectMapper mapper;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ExtractionResultCache(DependencyAnalyzerProperties properties, ObjectMapper mapper) {
+        this.properties = properties;
+        this.mapper = mapper;
+    }
+
+    public boolean isEnabled() {
+        return properties.isExtractionCacheEnabled() && properties.getExtractionCacheDir() != null
+                && !properties.getExtractionCacheDir().isBlank();
+    }
+
+    /**
+     * Cache key for a file, or null when caching is disabled.
+     */
+    public String keyFor(CodeFile file, String content, String extractorFingerprint) {
+        if (!isEnabled()) return null;
+        String variant = file.getType() == CodeFile.Type.SQL ? file.getDialect() : file.getLanguage();
+        return ContentHashes.sha256Hex(content, file.getType().name(), variant, extractorFingerprint);
+    }
+
+    public Optional<List<Object>> get(String key) {
+        if (key == null) return Optional.empty();
+
+        Path entry = entryPath(key);
+        if (!Files.isRegularFile(entry)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        try {
+            List<Object> dependencies = mapper.readValue(entry.toFile(), new TypeReference<>() {});
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            return Optional.of(dependencies);
+        } catch (IOException e) {
+            logger.warn("Discarding unreadable extraction cache entry {}: {}", entry, e.getMessage());
+            deleteQuietly(entry);
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, List<Object> dependencies) {
+        if (key == null || dependencies == null) return;
+
+        Path entry = entryPath(key);
+        Path tmp = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            tmp = Files.createTempFile(entry.getParent(), key, ".tmp");
+            mapper.writeValue(tmp.toFile(), dependencies);
+            Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write extraction cache entry {}: {}", entry, e.getMessage());
+        } finally {
+            // Still there only when the write or the move failed
+            if (tmp != null) deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * Deletes least recently used entries until the cache fits {@code analyzer.extraction-cache-max-bytes}, and
+     * temporary files left behind by writes that never finished.
+     */
+    public void evictIfNeeded() {
+        long maxBytes = properties.getExtractionCacheMaxBytes();
+        Path root = cacheRoot();
+        if (!isEnabled() || maxBytes <= 0 || !Files.isDirectory(root)) return;
+
+        List<Map.Entry<Path, BasicFileAttributes>> entries = new ArrayList<>();
+        List<Path> staleTmp = new ArrayList<>();
+        long staleBefore = System.currentTimeMillis() - STALE_TMP_MILLIS;
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.forEach(p -> {
+                String name = p.getFileName().toString();
+                boolean tmp = name.endsWith(".tmp");
+                if (!tmp && !name.endsWith(".json")) return;
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(p, BasicFileAttributes.class);
+                    if (!tmp) {
+                        entries.add(Map.entry(p, attributes));
+                    } else if (attributes.lastModifiedTime().toMillis() < staleBefore) {
+                        staleTmp.add(p);
+                    }
+                } catch (IOException e) {
+                    logger.debug("Skipping cache entry {}: {}", p, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Could not scan extraction cache at {}: {}", root, e.getMessage());
+            return;
+        }
+        long removedTmp = staleTmp.stream().filter(this::deleteQuietly).count();
+        if (removedTmp > 0) {
+            logger.info("Extraction cache removed {} leftover temporary files", removedTmp);
+        }
+
+        long total = entries.stream().mapToLong(e -> e.getValue().size()).sum();
+        if (total <= maxBytes) return;
+
+        entries.sort(Comparator.comparing(e -> e.getValue().lastModifiedTime()));
+        int evicted = 0;
+        for (Map.Entry<Path, BasicFileAttributes> e : entries) {
+            if (total <= maxBytes) break;
+            if (deleteQuietly(e.getKey())) {
+                total -= e.getValue().size();
+                evicted++;
+            }
+        }
+        logger.info("Extraction cache evicted {} entries; size now {} bytes (limit {})", evicted, total, maxBytes);
+    }
+
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private Path cacheRoot() {
+        return Path.of(properties.getExtractionCacheDir());
+    }
+
+    // Two-character fan-out keeps directories small on large repositories
+    private Path entryPath(String key) {
+        return cacheRoot().resolve(key.substring(0, 2)).resolve(key + ".json");
+    }
+
+    private boolean deleteQuietly(Path path) {
+        try {
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Could not delete {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.citi.impactanalyzer.parser.service;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithExtends;
+import com.github.javaparser.ast.nodeTypes.NodeWithImplements;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.ReferenceType;
+import com.github.javaparser.ast.type.TypeParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Extracts class-level dependencies from Java source with JavaParser, without calling the LLM.
+ * <p>
+ * Emits the same {@code source / relation / target} triples as the code prompt for the relations that can be
+ * read straight from the syntax tree: EXTENDS, IMPLEMENTS, IMPORTS, USES_TYPE, CALLS_CONSTRUCTOR, THROWS and
+ * ANNOTATED_WITH. Type names are resolved through the file's imports, its own declarations, {@code java.lang} and
+ * finally its package; names that could come from a wildcard import are reported as unresolved.
+ */
+@Service
+public class JavaAstDependencyExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(JavaAstDependencyExtractor.class);
+
+    /** Bump whenever the emitted triples change so that stored extraction results are recomputed. */
+    public static final String VERSION = "1";
+
+    private static final ParserConfiguration PARSER_CONFIGURATION = new ParserConfiguration()
+            .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
+
+    // Same filter as the LLM prompt: framework/JDK targets are only kept for structural relations
+    private static final List<String> EXTERNAL_PREFIXES = List.of("java.", "javax.", "jakarta.", "org.springframework.");
+    private static final Set<String> STRUCTURAL_RELATIONS = Set.of("EXTENDS", "IMPLEMENTS");
+
+    private static final Set<String> JAVA_LANG_TYPES = Set.of(
+            "Object", "String", "StringBuilder", "StringBuffer", "CharSequence", "Boolean", "Byte", "Character",
+            "Short", "Integer", "Long", "Float", "Double", "Number", "Void", "Math", "System", "Thread", "Runnable",
+            "Iterable", "Comparable", "AutoCloseable", "Cloneable", "Class", "ClassLoader", "Enum", "Record",
+            "Throwable", "Exception", "RuntimeException", "Error", "IllegalArgumentException",
+            "IllegalStateException", "NullPointerException", "UnsupportedOperationException",
+            "IndexOutOfBoundsException", "ArithmeticException", "ClassCastException", "InterruptedException",
+            "CloneNotSupportedException", "NumberFormatException", "SecurityException", "Override", "Deprecated",
+            "FunctionalInterface", "SuppressWarnings", "SafeVarargs");
+
+    public Result extract(String code) {
+        if (code == null || code.isBlank()) {
+            return Result.failed();
+        }
+
+        ParseResult<CompilationUnit> parsed = new JavaParser(PARSER_CONFIGURATION).parse(code);
+        if (!parsed.isSuccessful() || parsed.getResult().isEmpty()) {
+            logger.debug("JavaParser could not parse source: {}", parsed.getProblems());
+            return Result.failed();
+        }
+
+        CompilationUnit cu = parsed.getResult().get();
+        TypeNameResolver resolver = new TypeNameResolver(cu);
+        Set<Map<String, String>> dependencies = new LinkedHashSet<>();
+
+        for (TypeDeclaration<?> type : cu.getTypes()) {
+            type.getFullyQualifiedName().ifPresent(source -> collectImports(cu, source, resolver, dependencies));
+        }
+
+        for (TypeDeclaration<?> type : cu.findAll(TypeDeclaration.class)) {
+            Optional<String> source = type.getFullyQualifiedName();
+            if (source.isEmpty()) {
+                continue; // local classes have no stable name
+            }
+            collectTypeDependencies(type, source.get(), resolver, dependencies);
+        }
+
+        return new Result(true, new ArrayList<>(dependencies), resolver.getUnresolved());
+    }
+
+    private void collectImports(CompilationUnit cu, String source, TypeNameResolver resolver, Set<Map<String, String>> out) {
+        for (ImportDeclaration imp : cu.getImports()) {
+            String name = imp.getNameAsString();
+            String target;
+            if (imp.isStatic()) {
+                target = imp.isAsterisk() ? name : name.substring(0, Math.max(0, name.lastIndexOf('.')));
+            } else if (imp.isAsterisk()) {
+                continue; // package imports carry no class-level information
+            } else {
+                target = name;
+            }
+            add(out, source, "IMPORTS", target);
+        }
+    }
+
+    private void collectTypeDependencies(TypeDeclaration<?> type, String source, TypeNameResolver resolver,
+                                         Set<Map<String, String>> out) {
+        Set<Node> handled = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        if (type instanceof NodeWithExtends<?> withExtends) {
+            for (ClassOrInterfaceType extended : withExtends.getExtendedTypes()) {
+                handled.add(extended);
+                add(out, source, "EXTENDS", resolver.resolve(extended));
+            }
+        }
+        if (type instanceof NodeWithImplements<?> withImplements) {
+            for (ClassOrInterfaceType implemented : withImplements.getImplementedTypes()) {
+                handled.add(implemented);
+                add(out, source, "IMPLEMENTS", resolver.resolve(implemented));
+            }
+        }
+
+        for (AnnotationExpr annotation : type.findAll(AnnotationExpr.class)) {
+            if (isOwnedBy(annotation, type)) {
+                add(out, source, "ANNOTATED_WITH", resolver.resolve(annotation.getNameAsString()));
+            }
+        }
+
+        for (ObjectCreationExpr creation : type.findAll(ObjectCreationExpr.class)) {
+            if (isOwnedBy(creation, type)) {
+                handled.add(creation.getType());
+                add(out, source, "CALLS_CONSTRUCTOR", resolver.resolve(creation.getType()));
+            }
+        }
+
+        for (CallableDeclaration<?> callable : type.findAll(CallableDeclaration.class)) {
+            if (!isOwnedBy(callable, type)) continue;
+            for (ReferenceType thrown : callable.getThrownExceptions()) {
+                if (thrown.isClassOrInterfaceType()) {
+                    handled.add(thrown);
+                    add(out, source, "THROWS", resolver.resolve(thrown.asClassOrInterfaceType()));
+                }
+            }
+        }
+
+        for (ClassOrInterfaceType used : type.findAll(ClassOrInterfaceType.class)) {
+            if (handled.contains(used) || isScopeOfAnotherType(used) || !isOwnedBy(used, type)) continue;
+            add(out, source, "USES_TYPE", resolver.resolve(used));
+        }
+    }
+
+    private boolean isOwnedBy(Node node, TypeDeclaration<?> type) {
+        return node.findAncestor(TypeDeclaration.class).map(owner -> owner == type).orElse(false);
+    }
+
+    // For Map.Entry the inner "Map" node is only the scope of the real type reference
+    private boolean isScopeOfAnotherType(ClassOrInterfaceType type) {
+        return type.getParentNode()
+                .filter(ClassOrInterfaceType.class::isInstance)
+                .map(ClassOrInterfaceType.class::cast)
+                .flatMap(ClassOrInterfaceType::getScope)
+                .map(scope -> scope == type)
+                .orElse(false);
+    }
+
+    private void add(Set<Map<String, String>> out, String source, String relation, String target) {
+        if (target == null || target.isBlank() || target.equals(source)) {
+            return;
+        }
+        if (!STRUCTURAL_RELATIONS.contains(relation) && isExternal(target)) {
+            return;
+        }
+        Map<String, String> dependency = new LinkedHashMap<>();
+        dependency.put("source", source);
+        dependency.put("relation", relation);
+        dependency.put("target", target);
+        out.add(dependency);
+    }
+
+    private boolean isExternal(String target) {
+        for (String prefix : EXTERNAL_PREFIXES) {
+            if (target.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static final class TypeNameResolver {
+
+        private final String packageName;
+        private final Map<String, String> imported = new HashMap<>();
+        private final Map<String, String> declared = new HashMap<>();
+        private final Set<String> typeParameters = new HashSet<>();
+        private final boolean wildcardImports;
+        private final Set<String> unresolved = new LinkedHashSet<>();
+
+        TypeNameResolver(CompilationUnit cu) {
+            this.packageName = cu.getPackageDeclaration().map(p -> p.getNameAsString()).orElse("");
+            boolean wildcard = false;
+            for (ImportDeclaration imp : cu.getImports()) {
+                if (imp.isAsterisk()) {
+                    wildcard |= !imp.isStatic();
+                    continue;
+                }
+                String name = imp.getNameAsString();
+                imported.put(name.substring(name.lastIndexOf('.') + 1), name);
+            }
+            this.wildcardImports = wildcard;
+            for (TypeDeclaration<?> type : cu.findAll(TypeDeclaration.class)) {
+                type.getFullyQualifiedName().ifPresent(fqn -> declared.putIfAbsent(type.getNameAsString(), fqn));
+            }
+            for (TypeParameter parameter : cu.findAll(TypeParameter.class)) {
+                typeParameters.add(parameter.getNameAsString());
+            }
+        }
+
+        String resolve(ClassOrInterfaceType type) {
+            return resolve(type.getNameWithScope());
+        }
+
+        String resolve(String name) {
+            if (name == null || name.isBlank()) return null;
+
+            int dot = name.indexOf('.');
+            String head = dot < 0 ? name : name.substring(0, dot);
+            String rest = dot < 0 ? "" : name.substring(dot);
+
+            if (Character.isLowerCase(head.charAt(0))) {
+                return name; // already qualified
+            }
+            if (typeParameters.contains(head)) {
+                return null;
+            }
+            String known = declared.get(head);
+            if (known == null) known = imported.get(head);
+            if (known != null) {
+                return known + rest;
+            }
+            if (JAVA_LANG_TYPES.contains(head)) {
+                return "java.lang." + name;
+            }
+            if (wildcardImports) {
+                unresolved.add(name);
+                return null;
+            }
+            return packageName.isEmpty() ? name : packageName + "." + name;
+        }
+
+        Set<String> getUnresolved() {
+            return unresolved;
+        }
+    }
+
+    public static final class Result {
+
+        private final boolean parsed;
+        private final List<Map<String, String>> dependencies;
+        private final Set<String> unresolvedTypes;
+
+        public Result(boolean parsed, List<Map<String, String>> dependencies, Set<String> unresolvedTypes) {
+            this.parsed = parsed;
+            this.dependencies = dependencies != null ? dependencies : List.of();
+            this.unresolvedTypes = unresolvedTypes != null ? unresolvedTypes : Set.of();
+        }
+
+        static Result failed() {
+            return new Result(false, List.of(), Set.of());
+        }
+
+        public boolean isParsed() {
+            return parsed;
+        }
+
+        /** True when the file parsed and every referenced type could be resolved locally. */
+        public boolean isComplete() {
+            return parsed && unresolvedTypes.isEmpty();
+        }
+
+        public List<Map<String, String>> getDependencies() {
+            return dependencies;
+        }
+
+        public Set<String> getUnresolvedTypes() {
+            return unresolvedTypes;
+        }
+    }
+}
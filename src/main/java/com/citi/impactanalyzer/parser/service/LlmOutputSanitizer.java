@@ -0,0 +1,28 @@
+package com.citi.impactanalyzer.parser.service;
+
+final class LlmOutputSanitizer {
+
+    private LlmOutputSanitizer() {
+    }
+
+    /**
+     * Strips markdown fences and surrounding chatter from a model reply and returns the JSON array it contains,
+     * or {@code "[]"} when no array can be found.
+     */
+    static String sanitize(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return "[]";
+        }
+
+        String sanitized = raw.replaceAll("(?m)^```.*$", "");
+        int start = sanitized.indexOf('[');
+        int end = sanitized.lastIndexOf(']');
+        if (start >= 0 && end >= start) {
+            sanitized = sanitized.substring(start, end + 1);
+        } else {
+            sanitized = "[]";
+        }
+
+        return sanitized.trim();
+    }
+}
@@ -5,6 +5,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Service
 public class PromptService {
 
@@ -12,12 +15,29 @@ public class PromptService {
     // Removed AUTO_DETECT_ALL constant and related logic for simplicity
 
     private final ChatClientService chatService;
+    private volatile String templateFingerprint;
 
     public PromptService(ChatClientService chatService) {
         this.chatService = chatService;
 
     }
 
+    /**
+     * Hash of the prompt templates, so stored extraction results are invalidated when a prompt changes.
+     */
+    public String templateFingerprint() {
+        String fingerprint = templateFingerprint;
+        if (fingerprint == null) {
+            fingerprint = ContentHashes.sha256Hex(
+                    buildCodePrompt("{code}", "{language}"),
+                    buildSqlPrompt("{sql}", "{dialect}", false),
+                    buildSqlPrompt("{sql}", "{dialect}", true),
+                    buildBatchCodePrompt(new LinkedHashMap<>(Map.of("{id}", "{code}")), "{language}"));
+            templateFingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
     /**
      * Analyze code dependencies for Java, Python, Go, JS/TS
      */
@@ -26,6 +46,15 @@ public class PromptService {
         return chatService.sendPrompt(prompt);
     }
 
+    /**
+     * Analyze several small files in one request. Keys of {@code codeById} are short file ids; every returned
+     * triple carries the id of the file it came from in a "file" field.
+     */
+    public String analyzeCodeDependenciesBatch(Map<String, String> codeById, String language) {
+        String prompt = buildBatchCodePrompt(codeById, language);
+        return chatService.sendPrompt(prompt);
+    }
+
     /**
      * Analyze SQL dependencies (flat list)
      */
@@ -77,6 +106,46 @@ public class PromptService {
     }
 
 
+    private String buildBatchCodePrompt(Map<String, String> codeById, String language) {
+        String exampleBasePackage = "com.app.example";
+
+        StringBuilder files = new StringBuilder();
+        for (Map.Entry<String, String> file : codeById.entrySet()) {
+            files.append("=== FILE ").append(file.getKey()).append(" ===\n")
+                    .append(file.getValue()).append('\n')
+                    .append("=== END FILE ").append(file.getKey()).append(" ===\n\n");
+        }
+
+        return String.format("""
+    You are a %s class dependency analyzer.
+
+    Given the following %d %s files, each delimited by "=== FILE <id> ===" and "=== END FILE <id> ===":
+
+    %s
+    Output strictly valid JSON only, without backticks, markdown, or extra explanation.
+    JSON must start with '[' and end with ']'.
+    Do not include any other text or field.
+
+    Each JSON object must represent a class-level dependency and must have:
+    - "file": the id of the file the dependency was found in, exactly as given in its FILE delimiter
+    - "source": fully qualified **class or interface name** (e.g., %s.service.MyService)
+    - "relation": one of CALLS, READS, WRITES, IMPLEMENTS, EXTENDS, USES_TYPE, ANNOTATED_WITH, THROWS, CALLS_CONSTRUCTOR, IMPORTS, DEPENDS_ON_PACKAGE
+    - "target": fully qualified **class, interface, or annotation name** (e.g., %s.repo.Helper)
+
+    ### CRUCIAL FILTERING RULES ###
+    - **Analyze every file independently.** A dependency belongs to the file whose class is the source.
+    - **Crucially, 'source' and 'target' MUST be the fully qualified CLASS or INTERFACE name.**
+    - **Class-Level Aggregation:** If a method/field in Class A has a relation with Class B, report the relation between Class A and Class B.
+    - **Filter External/Framework Classes:** DO NOT include dependencies where the target starts with: java.*, javax.*, jakarta.*, org.springframework.*, or other common third-party libraries, **unless** the relation is IMPLEMENTS or EXTENDS (structural dependencies are always kept).
+
+    Example output:
+    [
+      {"file": "F1", "source": "%s.service.MyService", "relation": "CALLS", "target": "%s.repo.Helper"},
+      {"file": "F2", "source": "%s.model.Pet", "relation": "EXTENDS", "target": "org.springframework.data.repository.Repository"}
+    ]
+    """, language, codeById.size(), language, files, exampleBasePackage, exampleBasePackage, exampleBasePackage, exampleBasePackage, exampleBasePackage);
+    }
+
     // The extractBasePackageFromCode method has been commented out/removed for simplicity
 
     /**
@@ -1,9 +1,18 @@
 package com.citi.impactanalyzer.parser.service;
 
 import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
+import com.citi.impactanalyzer.parser.domain.RepositoryChanges;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -11,6 +20,11 @@ import org.springframework.stereotype.Service;
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class RepositoryCloneService {
@@ -54,6 +68,72 @@ public class RepositoryCloneService {
         }
     }
 
+    /**
+     * Commit SHA that HEAD points to in the repository at {@code repoRoot}, if it is a git repository.
+     */
+    public Optional<String> resolveHeadCommit(Path repoRoot) {
+        if (repoRoot == null || !isExistingRepository(repoRoot.toFile())) {
+            return Optional.empty();
+        }
+        try (Git git = Git.open(repoRoot.toFile())) {
+            ObjectId head = git.getRepository().resolve(Constants.HEAD);
+            return head != null ? Optional.of(head.name()) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not resolve HEAD of {}: {}", repoRoot, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Files added, modified, deleted or renamed between {@code fromCommit} and HEAD. Empty when the
+     * commit is no longer reachable (e.g. history was rewritten) so the caller can fall back to a full scan.
+     */
+    public Optional<RepositoryChanges> diffSince(Path repoRoot, String fromCommit) {
+        if (repoRoot == null || fromCommit == null || !isExistingRepository(repoRoot.toFile())) {
+            return Optional.empty();
+        }
+        try (Git git = Git.open(repoRoot.toFile())) {
+            Repository repository = git.getRepository();
+            ObjectId head = repository.resolve(Constants.HEAD);
+            ObjectId oldTree = repository.resolve(fromCommit + "^{tree}");
+            ObjectId newTree = repository.resolve(Constants.HEAD + "^{tree}");
+            if (head == null || oldTree == null || newTree == null) {
+                logger.info("Commit {} not found in {}; incremental diff unavailable", fromCommit, repoRoot);
+                return Optional.empty();
+            }
+
+            try (ObjectReader reader = repository.newObjectReader();
+                 DiffFormatter formatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+                CanonicalTreeParser oldParser = new CanonicalTreeParser();
+                oldParser.reset(reader, oldTree);
+                CanonicalTreeParser newParser = new CanonicalTreeParser();
+                newParser.reset(reader, newTree);
+
+                formatter.setRepository(repository);
+                formatter.setDetectRenames(true);
+                List<DiffEntry> entries = formatter.scan(oldParser, newParser);
+
+                Set<String> changed = new LinkedHashSet<>();
+                Set<String> removed = new LinkedHashSet<>();
+                for (DiffEntry entry : entries) {
+                    switch (entry.getChangeType()) {
+                        case ADD, COPY, MODIFY -> changed.add(entry.getNewPath());
+                        case DELETE -> removed.add(entry.getOldPath());
+                        case RENAME -> {
+                            changed.add(entry.getNewPath());
+                            removed.add(entry.getOldPath());
+                        }
+                    }
+                }
+                logger.info("Diff {}..{}: {} changed, {} removed paths", fromCommit, head.name(), changed.size(), removed.size());
+                return Optional.of(new RepositoryChanges(fromCommit, head.name(), changed, removed));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not diff {} against HEAD in {}: {}", fromCommit, repoRoot, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     private boolean isExistingRepository(File repoDir) {
         return repoDir.exists() && new File(repoDir, ".git").exists();
     }
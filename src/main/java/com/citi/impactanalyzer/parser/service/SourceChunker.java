@@ -0,0 +1,215 @@
+package com.citi.impactanalyzer.parser.service;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits oversized sources into prompt-sized chunks at natural boundaries.
+ * <p>
+ * Java is cut between members of each top-level type. Every chunk repeats the package, imports and the type
+ * declaration, so the model still sees which class the members belong to and how their types resolve.
+ * SQL is cut between statements. A single member or statement larger than the budget becomes its own chunk.
+ */
+final class SourceChunker {
+
+    private static final ParserConfiguration PARSER_CONFIGURATION = new ParserConfiguration()
+            .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
+
+    private SourceChunker() {
+    }
+
+    static List<String> chunkJava(String code, int maxChars) {
+        if (code.length() <= maxChars) {
+            return List.of(code);
+        }
+
+        ParseResult<CompilationUnit> parsed = new JavaParser(PARSER_CONFIGURATION).parse(code);
+        if (!parsed.isSuccessful() || parsed.getResult().isEmpty()) {
+            return chunkLines(code, maxChars);
+        }
+        CompilationUnit unit = parsed.getResult().get();
+        String[] lines = code.split("\n", -1);
+
+        int headerEnd = 0;
+        if (unit.getPackageDeclaration().isPresent()) {
+            headerEnd = endLine(unit.getPackageDeclaration().get());
+        }
+        if (!unit.getImports().isEmpty()) {
+            headerEnd = Math.max(headerEnd, endLine(unit.getImports().get(unit.getImports().size() - 1)));
+        }
+        String fileHeader = join(lines, 1, headerEnd);
+
+        List<String> chunks = new ArrayList<>();
+        for (TypeDeclaration<?> type : unit.getTypes()) {
+            if (!type.getRange().isPresent()) continue;
+            List<BodyDeclaration<?>> members = type.getMembers();
+            int typeStart = startLine(type);
+            int typeEnd = endLine(type);
+            if (members.isEmpty()) {
+                chunks.add(fileHeader + "\n" + join(lines, typeStart, typeEnd));
+                continue;
+            }
+
+            int firstMemberLine = startLine(members.get(0));
+            if (firstMemberLine <= typeStart) {
+                // Members share a line with the declaration; there is no clean boundary to cut at
+                return chunkLines(code, maxChars);
+            }
+            String typeHeader = join(lines, typeStart, firstMemberLine - 1);
+            String prefix = fileHeader + "\n" + typeHeader + "\n";
+            StringBuilder current = new StringBuilder();
+            int lastLine = firstMemberLine - 1;
+            for (BodyDeclaration<?> member : members) {
+                // Members declared on one line are emitted once, with the first of them
+                int from = Math.max(startLine(member), lastLine + 1);
+                int to = endLine(member);
+                if (from > to) continue;
+                lastLine = to;
+                String text = join(lines, from, to) + "\n";
+                if (!current.isEmpty() && prefix.length() + current.length() + text.length() + 2 > maxChars) {
+                    chunks.add(prefix + current + "}\n");
+                    current.setLength(0);
+                }
+                current.append(text);
+            }
+            if (!current.isEmpty()) {
+                chunks.add(prefix + current + "}\n");
+            }
+        }
+        return chunks.isEmpty() ? chunkLines(code, maxChars) : chunks;
+    }
+
+    /**
+     * Splits SQL between statements. Scripts that terminate blocks with a line holding only {@code /} (Oracle)
+     * or {@code GO} (Sybase, SQL Server) are split only there, since their procedure bodies contain semicolons.
+     */
+    static List<String> chunkSql(String sql, int maxChars) {
+        if (sql.length() <= maxChars) {
+            return List.of(sql);
+        }
+
+        String[] lines = sql.split("\n", -1);
+        boolean blockTerminated = false;
+        for (String line : lines) {
+            if (isBlockTerminator(line)) {
+                blockTerminated = true;
+                break;
+            }
+        }
+
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+        if (blockTerminated) {
+            for (String line : lines) {
+                statement.append(line).append('\n');
+                if (isBlockTerminator(line)) {
+                    statements.add(statement.toString());
+                    statement.setLength(0);
+                }
+            }
+        } else {
+            splitOnSemicolons(sql, statements, statement);
+        }
+        if (!statement.toString().isBlank()) {
+            statements.add(statement.toString());
+        }
+        return pack(statements, maxChars);
+    }
+
+    /**
+     * Fallback for sources that cannot be parsed: consecutive lines up to the budget.
+     */
+    static List<String> chunkLines(String code, int maxChars) {
+        List<String> lines = new ArrayList<>();
+        for (String line : code.split("\n", -1)) {
+            lines.add(line + "\n");
+        }
+        return pack(lines, maxChars);
+    }
+
+    // Quotes and comments are tracked so semicolons inside them do not end a statement
+    private static void splitOnSemicolons(String sql, List<String> statements, StringBuilder statement) {
+        boolean inQuote = false;
+        boolean inLineComment = false;
+        boolean inBlockComment = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            char next = i + 1 < sql.length() ? sql.charAt(i + 1) : '\0';
+            statement.append(c);
+
+            if (inLineComment) {
+                if (c == '\n') inLineComment = false;
+            } else if (inBlockComment) {
+                if (c == '*' && next == '/') {
+                    statement.append(next);
+                    i++;
+                    inBlockComment = false;
+                }
+            } else if (inQuote) {
+                if (c == '\'') inQuote = false;
+            } else if (c == '\'') {
+                inQuote = true;
+            } else if (c == '-' && next == '-') {
+                inLineComment = true;
+            } else if (c == '/' && next == '*') {
+                statement.append(next);
+                i++;
+                inBlockComment = true;
+            } else if (c == ';') {
+                statements.add(statement.toString());
+                statement.setLength(0);
+            }
+        }
+    }
+
+    private static boolean isBlockTerminator(String line) {
+        String trimmed = line.trim().toUpperCase(Locale.ROOT);
+        return trimmed.equals("/") || trimmed.equals("GO");
+    }
+
+    private static List<String> pack(List<String> pieces, int maxChars) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String piece : pieces) {
+            if (!current.isEmpty() && current.length() + piece.length() > maxChars) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+            current.append(piece);
+        }
+        if (!current.toString().isBlank()) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+
+    // Includes a leading javadoc or comment so chunks keep the member's documentation
+    private static int startLine(Node node) {
+        int line = node.getBegin().map(p -> p.line).orElse(1);
+        if (node.getComment().isPresent() && node.getComment().get().getBegin().isPresent()) {
+            line = Math.min(line, node.getComment().get().getBegin().get().line);
+        }
+        return line;
+    }
+
+    private static int endLine(Node node) {
+        return node.getEnd().map(p -> p.line).orElse(1);
+    }
+
+    private static String join(String[] lines, int fromLine, int toLine) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = Math.max(fromLine, 1); i <= Math.min(toLine, lines.length); i++) {
+            sb.append(lines[i - 1]).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.citi.impactanalyzer.analyzer.controller;
+
+import com.citi.impactanalyzer.analyzer.domain.ReloadStatus;
+import com.citi.impactanalyzer.analyzer.service.ReloadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ReloadControllerTest {
+
+    private MockMvc mockMvc;
+    private ReloadService reloadService;
+
+    @BeforeEach
+    void setUp() {
+        reloadService = Mockito.mock(ReloadService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReloadController(reloadService)).build();
+    }
+
+    @Test
+    void testReload_StartsReloadAndReturnsAccepted() throws Exception {
+        when(reloadService.getStatus()).thenReturn(new ReloadStatus(true, "endpoint", 1L, 0L, 3L, 1L, null));
+
+        mockMvc.perform(post("/reload"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.running").value(true))
+                .andExpect(jsonPath("$.graphVersion").value(3));
+
+        verify(reloadService).reload("endpoint");
+    }
+
+    @Test
+    void testGetStatus() throws Exception {
+        when(reloadService.getStatus()).thenReturn(new ReloadStatus(false, "schedule", 1L, 120L, 5L, 2L, "boom"));
+
+        mockMvc.perform(get("/reload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.running").value(false))
+                .andExpect(jsonPath("$.embeddingVersion").value(2))
+                .andExpect(jsonPath("$.error").value("boom"));
+    }
+}
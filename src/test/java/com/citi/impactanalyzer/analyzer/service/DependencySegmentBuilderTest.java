@@ -0,0 +1,53 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencySegmentBuilderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void testBuild_OneSummaryPerSourceClassFromBothEntryForms() throws Exception {
+        DependencySegmentBuilder builder = new DependencySegmentBuilder(2, false);
+        builder.add(mapper.readTree("{\"source\":\"com.shop.OrderService\",\"relation\":\"CALLS\",\"target\":\"com.shop.OrderRepository\"}"));
+        builder.add(mapper.readTree("{\"source\":\"com.shop.OrderService\",\"relation\":\"CALLS\",\"target\":\"com.shop.PaymentClient\"}"));
+        builder.add(mapper.readTree("{\"source\":\"com.shop.OrderService\",\"CALLS\":[\"com.shop.PaymentClient\",\"com.shop.Audit\"],"
+                + "\"uses_type\":[\"com.shop.Order\"],\"note\":\"ignored\"}"));
+        builder.add(mapper.readTree("{\"source\":\"com.shop.OrderController\",\"CALLS\":[\"com.shop.OrderService\"]}"));
+        builder.add(mapper.readTree("{\"relation\":\"CALLS\",\"target\":\"com.shop.Orphan\"}"));
+
+        List<String> segments = builder.build();
+
+        assertEquals(2, builder.getClassCount());
+        assertEquals(6, builder.getEdgeCount());
+        assertEquals(List.of(
+                "Class OrderService (com.shop.OrderService) in package com.shop. Depends on 4 classes through 4 relations: CALLS 3, USES_TYPE 1.\n"
+                        + "CALLS: com.shop.PaymentClient, com.shop.Audit and 1 more.\n"
+                        + "USES_TYPE: com.shop.Order.\n"
+                        + "Used by 1 class: com.shop.OrderController.",
+                "Class OrderController (com.shop.OrderController) in package com.shop. Depends on 1 class through 1 relation: CALLS 1.\n"
+                        + "CALLS: com.shop.OrderService."), segments);
+    }
+
+    @Test
+    void testBuild_SplitByRelationGivesOneSummaryPerRelationAndDependents() throws Exception {
+        DependencySegmentBuilder builder = new DependencySegmentBuilder(20, true);
+        builder.add(mapper.readTree("{\"source\":\"Billing\",\"CALLS\":[\"Ledger\"],\"READS\":[\"INVOICES\"]}"));
+        builder.add(mapper.readTree("{\"source\":\"Ledger\",\"CALLS\":[]}"));
+        builder.add(mapper.readTree("{\"source\":\"Report\",\"CALLS\":[\"Billing\"]}"));
+
+        List<String> segments = builder.build();
+
+        assertEquals(List.of(
+                "Class Billing (Billing) in the default package. CALLS 1 class: Ledger.",
+                "Class Billing (Billing) in the default package. READS 1 class: INVOICES.",
+                "Class Billing (Billing) in the default package.\nUsed by 1 class: Report.",
+                "Class Ledger (Ledger) in the default package.\nUsed by 1 class: Billing.",
+                "Class Report (Report) in the default package. CALLS 1 class: Billing."), segments);
+    }
+}
@@ -0,0 +1,150 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswEmbeddingStoreTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HnswEmbeddingStoreTest.class);
+
+    @Test
+    void testSearch_SmallStoreMatchesExactScan() {
+        List<float[]> vectors = clusteredVectors(new Random(3), 300, 16, 8);
+        HnswEmbeddingStore store = new HnswEmbeddingStore(8, 100, 300);
+        List<TextSegment> segments = new ArrayList<>();
+        for (int i = 0; i < vectors.size(); i++) {
+            segments.add(TextSegment.from("node-" + i));
+        }
+        store.addAll(vectors.stream().map(Embedding::from).toList(), segments);
+
+        float[] query = vectors.get(17);
+        List<EmbeddingMatch<TextSegment>> matches = store.search(request(query, 5, 0)).matches();
+
+        int[] expected = exactTop(vectors, query, 5);
+        assertEquals(5, matches.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("node-" + expected[i], matches.get(i).embedded().text());
+            double score = (cosine(query, vectors.get(expected[i])) + 1) / 2;
+            assertEquals(score, matches.get(i).score(), 1e-5);
+        }
+        assertEquals(1.0, matches.get(0).score(), 1e-5);
+
+        double cutoff = matches.get(2).score();
+        assertEquals(3, store.search(request(query, 5, cutoff)).matches().size());
+        assertEquals(300, store.size());
+        assertThrows(IllegalArgumentException.class, () -> store.search(request(new float[4], 5, 0)));
+
+        store.removeAll();
+        assertTrue(store.search(request(query, 5, 0)).matches().isEmpty());
+    }
+
+    /**
+     * Recall@10 against an exact scan and mean query latency for increasing efSearch, on a store built in one
+     * parallel batch. The figures are logged; only recall is asserted, latency depends on the machine.
+     */
+    @Test
+    void testSearch_RecallAndLatencyByEfSearch() {
+        Random random = new Random(7);
+        int dimension = 64;
+        List<float[]> vectors = clusteredVectors(random, 10_000, dimension, 100);
+        HnswEmbeddingStore store = new HnswEmbeddingStore(16, 100, 10);
+        long buildStart = System.nanoTime();
+        store.addAll(vectors.stream().map(Embedding::from).toList());
+        logger.info("Built HNSW over {} vectors of dimension {} in {} ms", vectors.size(), dimension,
+                (System.nanoTime() - buildStart) / 1_000_000);
+
+        List<float[]> queries = clusteredVectors(random, 200, dimension, 100);
+        List<int[]> truth = new ArrayList<>();
+        long scanStart = System.nanoTime();
+        for (float[] query : queries) {
+            truth.add(exactTop(vectors, query, 10));
+        }
+        logger.info("Exact scan: {} us per query", (System.nanoTime() - scanStart) / 1000 / queries.size());
+
+        double previousRecall = 0;
+        for (int ef : new int[]{10, 20, 50, 100, 200}) {
+            store.setEfSearch(ef);
+            int hits = 0;
+            long start = System.nanoTime();
+            List<List<EmbeddingMatch<TextSegment>>> results = new ArrayList<>();
+            for (float[] query : queries) {
+                results.add(store.search(request(query, 10, 0)).matches());
+            }
+            long micros = (System.nanoTime() - start) / 1000 / queries.size();
+            for (int q = 0; q < queries.size(); q++) {
+                Set<String> expected = new HashSet<>();
+                for (int node : truth.get(q)) {
+                    expected.add(Arrays.toString(vectors.get(node)));
+                }
+                for (EmbeddingMatch<TextSegment> match : results.get(q)) {
+                    if (expected.contains(Arrays.toString(match.embedding().vector()))) hits++;
+                }
+            }
+            double recall = hits / (10.0 * queries.size());
+            logger.info("efSearch={}: recall@10={} at {} us per query", ef, recall, micros);
+            assertTrue(recall >= previousRecall - 0.02, "recall should not drop as efSearch grows");
+            previousRecall = recall;
+        }
+        assertTrue(previousRecall >= 0.95, "recall@10 at efSearch=200 was " + previousRecall);
+    }
+
+    private static EmbeddingSearchRequest request(float[] query, int maxResults, double minScore) {
+        return EmbeddingSearchRequest.builder()
+                .queryEmbedding(Embedding.from(query))
+                .maxResults(maxResults)
+                .minScore(minScore)
+                .build();
+    }
+
+    // Gaussian clusters around random centres, closer to real embeddings than uniform noise
+    private static List<float[]> clusteredVectors(Random random, int count, int dimension, int clusters) {
+        Random centreRandom = new Random(clusters);
+        float[][] centres = new float[clusters][dimension];
+        for (float[] centre : centres) {
+            for (int d = 0; d < dimension; d++) centre[d] = (float) centreRandom.nextGaussian();
+        }
+        List<float[]> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float[] centre = centres[random.nextInt(clusters)];
+            float[] vector = new float[dimension];
+            for (int d = 0; d < dimension; d++) vector[d] = centre[d] + 0.5f * (float) random.nextGaussian();
+            vectors.add(vector);
+        }
+        return vectors;
+    }
+
+    private static int[] exactTop(List<float[]> vectors, float[] query, int k) {
+        Integer[] order = new Integer[vectors.size()];
+        double[] scores = new double[vectors.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            scores[i] = cosine(query, vectors.get(i));
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        return Arrays.stream(order, 0, k).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0, na = 0, nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return dot / Math.sqrt(na * nb);
+    }
+}
@@ -1,22 +1,30 @@
 package com.citi.impactanalyzer.analyzer.service;
 
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
-import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.model.output.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class PromptAnalysisServiceTest {
 
     private PromptAnalysisService service;
     private Assistant mockAssistant;
-    private EmbeddingStore<?> mockEmbeddingStore;
 
     String testSessionId = "test";
 
@@ -31,13 +39,9 @@ class PromptAnalysisServiceTest {
 
         mockAssistant = mock(Assistant.class);
         EmbeddingModel mockEmbeddingModel = mock(EmbeddingModel.class);
-        @SuppressWarnings("unchecked")
-        EmbeddingStore<?> tmpStore = mock(EmbeddingStore.class);
-        mockEmbeddingStore = tmpStore;
 
         ReflectionTestUtils.setField(service, "assistant", mockAssistant);
         ReflectionTestUtils.setField(service, "embeddingModel", mockEmbeddingModel);
-        ReflectionTestUtils.setField(service, "embeddingStore", mockEmbeddingStore);
     }
 
     @Test
@@ -78,7 +82,86 @@ class PromptAnalysisServiceTest {
     void testLoadEmbeddingStore_handlesMissingFile() throws IOException {
         ReflectionTestUtils.setField(service, "graphJsonPath", "nonexistent.json");
         service.init();
-        verifyNoInteractions(mockEmbeddingStore);
+        assertEquals(0, service.getEmbeddingVersion());
+    }
+
+    @Test
+    void testReloadEmbeddingStore_embedsInBatchesAndRetriesFailedBatchOneByOne(@TempDir Path dir) throws IOException {
+        Path json = Files.writeString(dir.resolve("graph.json"), "[" +
+                "{\"source\":\"A\",\"CALLS\":[\"X\"]},{\"source\":\"B\",\"CALLS\":[\"X\"]}," +
+                "{\"source\":\"C\",\"CALLS\":[\"X\"]},{\"source\":\"BAD\",\"CALLS\":[\"X\"]}," +
+                "{\"source\":\"E\",\"CALLS\":[\"X\"]},{\"relation\":\"no source\"}]");
+        EmbeddingModel model = mock(EmbeddingModel.class);
+        when(model.embedAll(anyList())).thenAnswer(invocation -> {
+            List<TextSegment> segments = invocation.getArgument(0);
+            if (segments.stream().anyMatch(s -> s.text().contains("BAD"))) throw new IllegalStateException("bad input");
+            return Response.from(segments.stream().map(s -> Embedding.from(new float[]{1f})).toList());
+        });
+        when(model.embed(any(TextSegment.class))).thenAnswer(invocation -> {
+            TextSegment segment = invocation.getArgument(0);
+            if (segment.text().contains("BAD")) throw new IllegalStateException("bad input");
+            return Response.from(Embedding.from(new float[]{1f}));
+        });
+        ReflectionTestUtils.setField(service, "embeddingModel", model);
+        ReflectionTestUtils.setField(service, "embeddingBatchSize", 2);
+        ReflectionTestUtils.setField(service, "embeddingWorkers", 2);
+        ReflectionTestUtils.setField(service, "graphJsonPath", json.toString());
+
+        assertTrue(service.reloadEmbeddingStore());
+
+        assertEquals(1, service.getEmbeddingVersion());
+        assertEquals(4, service.getEmbeddingCount());
+        verify(model, times(3)).embedAll(anyList());
+        verify(model, times(2)).embed(any(TextSegment.class));
+        assertFalse(service.reloadEmbeddingStore());
+        assertEquals(1, service.getEmbeddingVersion());
+    }
+
+    @Test
+    void testReloadEmbeddingStore_reusesPersistedVectorsForUnchangedEntries(@TempDir Path dir) throws IOException {
+        Path json = dir.resolve("graph.json");
+        Files.writeString(json, "[{\"source\":\"A\",\"CALLS\":[\"X\"]},{\"source\":\"B\",\"CALLS\":[\"X\"]}]");
+        EmbeddingModel model = mock(EmbeddingModel.class);
+        when(model.embedAll(anyList())).thenAnswer(invocation -> {
+            List<TextSegment> segments = invocation.getArgument(0);
+            return Response.from(segments.stream().map(s -> Embedding.from(new float[]{s.text().length(), 1f})).toList());
+        });
+        ReflectionTestUtils.setField(service, "embeddingModel", model);
+        ReflectionTestUtils.setField(service, "graphJsonPath", json.toString());
+        service.reloadEmbeddingStore();
+        assertTrue(Files.exists(dir.resolve("graph.json.embeddings")));
+
+        // A restart with one entry changed embeds only that entry
+        Files.writeString(json, "[{\"source\":\"A\",\"CALLS\":[\"X\"]},{\"source\":\"B\",\"CALLS\":[\"Y\"]}]");
+        PromptAnalysisService restarted = new PromptAnalysisService();
+        ReflectionTestUtils.setField(restarted, "embeddingModel", model);
+        ReflectionTestUtils.setField(restarted, "graphJsonPath", json.toString());
+        restarted.reloadEmbeddingStore();
+
+        assertEquals(2, restarted.getEmbeddingCount());
+        verify(model).embedAll(argThat(segments -> segments.size() == 1 && segments.get(0).text().contains("CALLS: Y.")));
+        assertEquals(2, VectorIndexFile.read(dir.resolve("graph.json.embeddings")).size());
+    }
+
+    @Test
+    void testReloadEmbeddingStore_truncatedJsonKeepsCurrentStoreAndIndex(@TempDir Path dir) throws IOException {
+        Path json = dir.resolve("graph.json");
+        Files.writeString(json, "[{\"source\":\"A\",\"CALLS\":[\"X\"]},{\"source\":\"B\",\"CALLS\":[\"X\"]}]");
+        EmbeddingModel model = mock(EmbeddingModel.class);
+        when(model.embedAll(anyList())).thenAnswer(invocation -> {
+            List<TextSegment> segments = invocation.getArgument(0);
+            return Response.from(segments.stream().map(s -> Embedding.from(new float[]{1f})).toList());
+        });
+        ReflectionTestUtils.setField(service, "embeddingModel", model);
+        ReflectionTestUtils.setField(service, "graphJsonPath", json.toString());
+        service.reloadEmbeddingStore();
+
+        Files.writeString(json, "[{\"source\":\"A\",\"CALLS\":[\"X\"]},{\"source\":\"C\",\"CAL");
+        assertThrows(IOException.class, service::reloadEmbeddingStore);
+
+        assertEquals(1, service.getEmbeddingVersion());
+        assertEquals(2, service.getEmbeddingCount());
+        assertEquals(2, VectorIndexFile.read(dir.resolve("graph.json.embeddings")).size());
     }
 
     @Test
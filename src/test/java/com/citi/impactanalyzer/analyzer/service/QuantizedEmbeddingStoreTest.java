@@ -0,0 +1,161 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantizedEmbeddingStoreTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuantizedEmbeddingStoreTest.class);
+
+    @Test
+    void testSearch_ReturnsExactScoresAcrossChunksAndBatches() {
+        int dimension = 48;
+        List<float[]> vectors = randomVectors(new Random(5), 3000, dimension);
+        // 64 vectors per chunk, so the scan spans many chunks and runs in parallel slices
+        QuantizedEmbeddingStore store = new QuantizedEmbeddingStore(4, 64 * dimension);
+        for (int from = 0; from < vectors.size(); from += 1000) {
+            List<Embedding> batch = new ArrayList<>();
+            List<TextSegment> segments = new ArrayList<>();
+            for (int i = from; i < from + 1000; i++) {
+                batch.add(Embedding.from(vectors.get(i)));
+                segments.add(TextSegment.from("node-" + i));
+            }
+            store.addAll(batch, segments);
+        }
+        assertEquals(3000, store.size());
+
+        Random random = new Random(9);
+        int hits = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomVectors(random, 1, dimension).get(0);
+            List<EmbeddingMatch<TextSegment>> matches = store.search(request(query, 10, 0)).matches();
+            int[] expected = exactTop(vectors, query, 10);
+
+            assertEquals(10, matches.size());
+            for (EmbeddingMatch<TextSegment> match : matches) {
+                int node = Integer.parseInt(match.embedded().text().substring("node-".length()));
+                assertArrayEquals(vectors.get(node), match.embedding().vector());
+                assertEquals((cosine(query, vectors.get(node)) + 1) / 2, match.score(), 1e-5);
+                if (Arrays.stream(expected).anyMatch(e -> e == node)) hits++;
+            }
+            for (int i = 1; i < matches.size(); i++) {
+                assertTrue(matches.get(i - 1).score() >= matches.get(i).score());
+            }
+        }
+        assertTrue(hits >= 490, "recall@10 after re-ranking was " + hits / 500.0);
+
+        float[] query = vectors.get(123);
+        List<EmbeddingMatch<TextSegment>> top = store.search(request(query, 3, 0)).matches();
+        assertEquals("node-123", top.get(0).embedded().text());
+        assertEquals(1.0, top.get(0).score(), 1e-5);
+        assertEquals(1, store.search(request(query, 3, 0.999)).matches().size());
+        assertThrows(IllegalArgumentException.class, () -> store.search(request(new float[3], 3, 0)));
+
+        store.removeAll();
+        assertTrue(store.search(request(query, 3, 0)).matches().isEmpty());
+    }
+
+    /**
+     * Query time of the quantized scan against a float scan of the same vectors; logged, not asserted, as it
+     * depends on the machine.
+     */
+    @Test
+    void testSearch_QuantizedScanAgainstFloatScan() {
+        int dimension = 384;
+        int count = 20_000;
+        Random random = new Random(1);
+        List<float[]> vectors = randomVectors(random, count, dimension);
+        float[] flat = new float[count * dimension];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(vectors.get(i), 0, flat, i * dimension, dimension);
+        }
+        QuantizedEmbeddingStore store = new QuantizedEmbeddingStore();
+        store.addAll(vectors.stream().map(Embedding::from).toList());
+        List<float[]> queries = randomVectors(random, 50, dimension);
+
+        int[] floatBest = new int[queries.size()];
+        long start = System.nanoTime();
+        for (int q = 0; q < queries.size(); q++) {
+            float[] query = queries.get(q);
+            double best = Double.NEGATIVE_INFINITY;
+            for (int v = 0; v < count; v++) {
+                double dot = 0, norm = 0;
+                for (int d = 0; d < dimension; d++) {
+                    float component = flat[v * dimension + d];
+                    dot += query[d] * component;
+                    norm += component * component;
+                }
+                double similarity = dot / Math.sqrt(norm);
+                if (similarity > best) {
+                    best = similarity;
+                    floatBest[q] = v;
+                }
+            }
+        }
+        long floatMicros = (System.nanoTime() - start) / 1000 / queries.size();
+
+        start = System.nanoTime();
+        List<EmbeddingMatch<TextSegment>> quantizedBest = new ArrayList<>();
+        for (float[] query : queries) {
+            quantizedBest.add(store.search(request(query, 1, 0)).matches().get(0));
+        }
+        long quantizedMicros = (System.nanoTime() - start) / 1000 / queries.size();
+        logger.info("{} vectors of dimension {}: quantized scan {} us per query, float scan {} us per query",
+                count, dimension, quantizedMicros, floatMicros);
+
+        for (int q = 0; q < queries.size(); q++) {
+            assertArrayEquals(vectors.get(floatBest[q]), quantizedBest.get(q).embedding().vector());
+        }
+    }
+
+    private static EmbeddingSearchRequest request(float[] query, int maxResults, double minScore) {
+        return EmbeddingSearchRequest.builder()
+                .queryEmbedding(Embedding.from(query))
+                .maxResults(maxResults)
+                .minScore(minScore)
+                .build();
+    }
+
+    private static List<float[]> randomVectors(Random random, int count, int dimension) {
+        List<float[]> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float[] vector = new float[dimension];
+            for (int d = 0; d < dimension; d++) vector[d] = (float) random.nextGaussian();
+            vectors.add(vector);
+        }
+        return vectors;
+    }
+
+    private static int[] exactTop(List<float[]> vectors, float[] query, int k) {
+        Integer[] order = new Integer[vectors.size()];
+        double[] scores = new double[vectors.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            scores[i] = cosine(query, vectors.get(i));
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        return Arrays.stream(order, 0, k).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0, na = 0, nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return dot / Math.sqrt(na * nb);
+    }
+}
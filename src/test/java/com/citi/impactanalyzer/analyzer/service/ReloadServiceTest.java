@@ -0,0 +1,85 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import com.citi.impactanalyzer.analyzer.domain.ReloadStatus;
+import com.citi.impactanalyzer.graph.service.GraphService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReloadServiceTest {
+
+    private GraphService graphService;
+    private PromptAnalysisService promptAnalysisService;
+    private ReloadService reloadService;
+
+    @BeforeEach
+    void setUp() {
+        graphService = mock(GraphService.class);
+        promptAnalysisService = mock(PromptAnalysisService.class);
+        reloadService = new ReloadService(graphService, promptAnalysisService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reloadService.shutdown();
+    }
+
+    @Test
+    void testReload_RebuildsGraphAndEmbeddingsAndReportsNewVersions() throws Exception {
+        when(graphService.getGraphVersion()).thenReturn(4L);
+        when(promptAnalysisService.getEmbeddingVersion()).thenReturn(2L);
+
+        ReloadStatus status = reloadService.reload("endpoint").get(5, TimeUnit.SECONDS);
+
+        verify(graphService).refreshGraph();
+        verify(promptAnalysisService).reloadEmbeddingStore();
+        assertFalse(status.isRunning());
+        assertEquals("endpoint", status.getTrigger());
+        assertEquals(4L, status.getGraphVersion());
+        assertEquals(2L, status.getEmbeddingVersion());
+        assertNull(status.getError());
+    }
+
+    @Test
+    void testReload_RequestWhileRunningJoinsRunningReload() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(graphService).refreshGraph();
+
+        CompletableFuture<ReloadStatus> first = reloadService.reload("schedule");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(reloadService.getStatus().isRunning());
+        assertSame(first, reloadService.reload("endpoint"));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        verify(graphService, times(1)).refreshGraph();
+        assertFalse(reloadService.getStatus().isRunning());
+        assertEquals("schedule", reloadService.getStatus().getTrigger());
+    }
+
+    @Test
+    void testReload_FailureIsReportedAndNextReloadRuns() throws Exception {
+        doThrow(new IOException("clone failed")).doNothing().when(graphService).refreshGraph();
+
+        ReloadStatus failed = reloadService.reload("endpoint").get(5, TimeUnit.SECONDS);
+        assertEquals("clone failed", failed.getError());
+        verify(promptAnalysisService, never()).reloadEmbeddingStore();
+
+        ReloadStatus succeeded = reloadService.reload("endpoint").get(5, TimeUnit.SECONDS);
+        assertNull(succeeded.getError());
+        verify(promptAnalysisService).reloadEmbeddingStore();
+    }
+}
@@ -0,0 +1,98 @@
+package com.citi.impactanalyzer.analyzer.service;
+
+import com.citi.impactanalyzer.parser.service.ContentHashes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorIndexFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testWriteAndRead_FindsEveryVectorByHash() throws IOException {
+        List<byte[]> hashes = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            hashes.add(ContentHashes.sha256("segment-" + i));
+            vectors.add(new float[]{i, -i, i / 3f});
+        }
+        // A repeated segment is stored once
+        hashes.add(ContentHashes.sha256("segment-7"));
+        vectors.add(new float[]{7, -7, 7 / 3f});
+        Path file = dir.resolve("graph.json.embeddings");
+
+        VectorIndexFile.write(file, "model-a", 3, hashes, vectors);
+        VectorIndexFile index = VectorIndexFile.read(file);
+
+        assertEquals(500, index.size());
+        assertEquals(3, index.getDimension());
+        assertTrue(index.matches("model-a"));
+        assertFalse(index.matches("model-b"));
+        for (int i = 0; i < 500; i++) {
+            int position = index.indexOf(ContentHashes.sha256("segment-" + i));
+            assertTrue(position >= 0);
+            assertArrayEquals(new float[]{i, -i, i / 3f}, index.vector(position));
+        }
+        assertEquals(-1, index.indexOf(ContentHashes.sha256("segment-500")));
+        assertFalse(Files.exists(dir.resolve("graph.json.embeddings.partial")));
+    }
+
+    @Test
+    void testRead_RejectsTruncatedFile() throws IOException {
+        Path file = dir.resolve("graph.json.embeddings");
+        VectorIndexFile.write(file, "model-a", 2, List.of(ContentHashes.sha256("a")), List.of(new float[]{1, 2}));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThrows(IOException.class, () -> VectorIndexFile.read(file));
+    }
+
+    @Test
+    void testRead_MapsLargeIndexInChunksOfWholeRecords() throws IOException {
+        List<byte[]> hashes = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            hashes.add(ContentHashes.sha256("segment-" + i));
+            vectors.add(new float[]{i, -i, i / 3f, 1});
+        }
+        Path file = dir.resolve("graph.json.embeddings");
+        VectorIndexFile.write(file, "model-a", 4, hashes, vectors);
+
+        // 100-byte chunks hold 3 hashes or 6 vectors, so lookups cross many chunk boundaries
+        VectorIndexFile index = VectorIndexFile.read(file, 100);
+
+        assertEquals(1000, index.size());
+        for (int i = 0; i < 1000; i++) {
+            int position = index.indexOf(ContentHashes.sha256("segment-" + i));
+            assertTrue(position >= 0);
+            assertArrayEquals(new float[]{i, -i, i / 3f, 1}, index.vector(position));
+        }
+        assertEquals(-1, index.indexOf(ContentHashes.sha256("segment-1000")));
+    }
+
+    @Test
+    void testRead_RejectsHeaderWhoseSizeOverflowsAnInt() throws IOException {
+        Path file = dir.resolve("graph.json.embeddings");
+        VectorIndexFile.write(file, "model-a", 2, List.of(ContentHashes.sha256("a")), List.of(new float[]{1, 2}));
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        // dimension 1024 and 2^20 vectors: 4 GiB of floats, more than an int can count
+        int dimensionAt = 3 * Integer.BYTES + "model-a".length();
+        bytes.putInt(dimensionAt, 1024);
+        bytes.putInt(dimensionAt + Integer.BYTES, 1 << 20);
+        Files.write(file, bytes.array());
+
+        IOException e = assertThrows(IOException.class, () -> VectorIndexFile.read(file));
+        assertTrue(e.getMessage().contains("does not match its header"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.citi.impactanalyzer.graph.controller;
+
+import com.citi.impactanalyzer.graph.domain.CycleReport;
+import com.citi.impactanalyzer.graph.domain.ImpactDirection;
+import com.citi.impactanalyzer.graph.domain.ImpactResponse;
+import com.citi.impactanalyzer.graph.domain.NodeScore;
+import com.citi.impactanalyzer.graph.domain.RelationType;
+import com.citi.impactanalyzer.graph.service.GraphService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GraphControllerTest {
+
+    private MockMvc mockMvc;
+    private GraphService graphService;
+
+    @BeforeEach
+    void setUp() {
+        graphService = Mockito.mock(GraphService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new GraphController(graphService)).build();
+    }
+
+    @Test
+    void testGetDependents() throws Exception {
+        when(graphService.getImpact("com.a.Repo", ImpactDirection.DOWNSTREAM)).thenReturn(
+                new ImpactResponse("com.a.Repo", ImpactDirection.DOWNSTREAM, List.of("com.a.Repo"), List.of("com.a.Service", "com.a.Controller")));
+
+        mockMvc.perform(get("/graph/dependents").param("node", "com.a.Repo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.impacted[0]").value("com.a.Service"));
+    }
+
+    @Test
+    void testGetImpact_Upstream() throws Exception {
+        when(graphService.getImpact("Service", ImpactDirection.UPSTREAM, 0)).thenReturn(
+                new ImpactResponse("Service", ImpactDirection.UPSTREAM, List.of("com.a.Service"), List.of("com.a.Repo")));
+
+        mockMvc.perform(get("/graph/impact").param("node", "Service").param("direction", "upstream"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.direction").value("UPSTREAM"))
+                .andExpect(jsonPath("$.matches[0]").value("com.a.Service"));
+    }
+
+    @Test
+    void testGetImpact_UnknownDirection() throws Exception {
+        mockMvc.perform(get("/graph/impact").param("node", "Service").param("direction", "sideways"))
+                .andExpect(status().isBadRequest());
+
+        verify(graphService, never()).getImpact(any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetImpact_NotFound() throws Exception {
+        when(graphService.getImpact(eq("Missing"), any(), anyInt())).thenReturn(
+                ResponseEntity.status(404).body(Map.of("error", "No matching nodes found for: Missing")));
+
+        mockMvc.perform(get("/graph/impact").param("node", "Missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetCycles() throws Exception {
+        when(graphService.getCycleReport(10)).thenReturn(new CycleReport(7, 1, 4,
+                List.of(new CycleReport.Cycle(2, 1, List.of("com.a.Repo", "com.a.Service")))));
+
+        mockMvc.perform(get("/graph/cycles").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cycleCount").value(1))
+                .andExpect(jsonPath("$.cycles[0].size").value(2))
+                .andExpect(jsonPath("$.cycles[0].members[1]").value("com.a.Service"));
+    }
+
+    @Test
+    void testGetScores_TopClasses() throws Exception {
+        when(graphService.getNodeScores(null, "in-degree", 5)).thenReturn(
+                List.of(new NodeScore("com.a.Repo", 12, 1, 0.2f, 40f, 3)));
+
+        mockMvc.perform(get("/graph/scores").param("sort", "in-degree").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].node").value("com.a.Repo"))
+                .andExpect(jsonPath("$[0].inDegree").value(12))
+                .andExpect(jsonPath("$[0].crossPackageFanIn").value(3));
+    }
+
+    @Test
+    void testGetImpact_RelationFilter() throws Exception {
+        int dataOnly = RelationType.maskOf(RelationType.DATA);
+        when(graphService.getImpact("Repo", ImpactDirection.DOWNSTREAM, dataOnly)).thenReturn(
+                new ImpactResponse("Repo", ImpactDirection.DOWNSTREAM, List.of("com.a.Repo"), List.of("com.a.Report")));
+
+        mockMvc.perform(get("/graph/impact").param("node", "Repo").param("relations", "data"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.impacted[0]").value("com.a.Report"));
+
+        mockMvc.perform(get("/graph/impact").param("node", "Repo").param("relations", "CALLS,TELEPORTS"))
+                .andExpect(status().isBadRequest());
+    }
+}
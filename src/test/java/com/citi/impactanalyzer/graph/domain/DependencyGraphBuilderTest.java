@@ -0,0 +1,100 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphBuilderTest {
+
+    @Test
+    void testBuild_MergesDuplicateEdgesAndTheirRelations() {
+        DependencyGraphBuilder builder = new DependencyGraphBuilder();
+        builder.addDependency("com.a.Impl", "com.a.Api", RelationType.IMPLEMENTS);
+        builder.addDependency("com.a.Impl", "com.a.Api", RelationType.CALLS);
+        builder.addDependency("com.a.Impl", "com.a.Api", RelationType.CALLS);
+        builder.addDependency("com.a.Client", "com.a.Impl", null);
+
+        DependencyGraph graph = new DependencyGraph();
+        graph.load(builder.build());
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(2, graph.edgeCount());
+        assertEquals(Set.of(RelationType.IMPLEMENTS, RelationType.CALLS),
+                graph.getEdgeMetadata("com.a.Impl", "com.a.Api").getRelations());
+        assertTrue(graph.getEdgeMetadata("com.a.Client", "com.a.Impl").getRelations().isEmpty());
+        assertEquals(Set.of("com.a.Impl"), graph.getDependents("com.a.Api"));
+        assertThrows(IllegalStateException.class, builder::build);
+        assertThrows(IllegalStateException.class, () -> builder.addDependency("X", "Y", null));
+    }
+
+    @Test
+    void testBuild_EdgesFromManyThreadsMatchSequentialGraph() throws InterruptedException {
+        Random random = new Random(11);
+        RelationType[] relations = RelationType.values();
+        List<String[]> edges = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            edges.add(new String[]{"C" + random.nextInt(3000), "C" + random.nextInt(3000),
+                    relations[random.nextInt(relations.length)].name()});
+        }
+
+        DependencyGraph expected = new DependencyGraph();
+        for (String[] edge : edges) {
+            expected.addDependency(edge[0], edge[1], RelationType.valueOf(edge[2]));
+        }
+        expected.freeze();
+
+        DependencyGraphBuilder builder = new DependencyGraphBuilder();
+        int threads = 4;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread worker = new Thread(() -> {
+                for (int i = offset; i < edges.size(); i += threads) {
+                    String[] edge = edges.get(i);
+                    builder.addDependency(edge[0], edge[1], RelationType.valueOf(edge[2]));
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        DependencyGraph built = new DependencyGraph();
+        built.load(builder.build());
+
+        assertEquals(expected.nodeCount(), built.nodeCount());
+        assertEquals(expected.edgeCount(), built.edgeCount());
+        assertEquals(expected.snapshot(), built.snapshot());
+        for (Map.Entry<String, Map<String, EdgeMetadata>> row : expected.getAllEdgeMetadata().entrySet()) {
+            for (Map.Entry<String, EdgeMetadata> edge : row.getValue().entrySet()) {
+                assertEquals(edge.getValue().getFlags(), built.getEdgeMetadata(row.getKey(), edge.getKey()).getFlags());
+            }
+        }
+    }
+
+    @Test
+    void testBuild_KeepsLoneNodesAndCopiedRelationFlags() {
+        DependencyGraphBuilder builder = new DependencyGraphBuilder();
+        int copied = RelationType.CALLS.bit() | RelationType.READS.bit() | CompactGraph.FLAG_CRITICAL;
+        builder.addDependency("com.a.Service", "com.a.Repo", copied);
+        builder.addNode("com.a.Orphan");
+        builder.addNode("com.a.Service");
+
+        DependencyGraph graph = new DependencyGraph();
+        graph.load(builder.build());
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(1, graph.edgeCount());
+        assertTrue(graph.getNode("com.a.Orphan").getDependencies().isEmpty());
+        EdgeMetadata edge = graph.getEdgeMetadata("com.a.Service", "com.a.Repo");
+        assertEquals(Set.of(RelationType.CALLS, RelationType.READS), edge.getRelations());
+        assertFalse(edge.isCritical());
+    }
+}
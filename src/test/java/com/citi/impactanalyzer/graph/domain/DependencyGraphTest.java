@@ -0,0 +1,79 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+
+    private DependencyGraph sampleGraph() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addDependency("com.a.A", "com.b.B");
+        graph.addDependency("com.a.A", "com.c.C");
+        graph.addDependency("com.b.B", "com.c.C");
+        graph.getEdgeMetadata("com.b.B", "com.c.C").setCritical(true);
+        return graph;
+    }
+
+    @Test
+    void testFreeze_PreservesNodesEdgesAndFlags() {
+        DependencyGraph graph = sampleGraph();
+        Map<String, Set<String>> before = graph.snapshot();
+
+        CompactGraph compact = graph.freeze();
+
+        assertSame(compact, graph.getCompact());
+        assertEquals(before, graph.snapshot());
+        assertEquals(3, graph.nodeCount());
+        assertEquals(3, graph.edgeCount());
+        assertTrue(graph.getEdgeMetadata("com.b.B", "com.c.C").isCritical());
+        assertFalse(graph.getEdgeMetadata("com.a.A", "com.b.B").isCritical());
+        assertNull(graph.getEdgeMetadata("com.c.C", "com.a.A"));
+        assertEquals(Set.of("com.a.A"), graph.findNodes("A.A").stream().map(GraphNode::getName).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testFreeze_BuildsReverseIndex() {
+        CompactGraph compact = sampleGraph().freeze();
+        int c = compact.indexOf("com.c.C");
+
+        assertEquals(2, compact.inDegree(c));
+        assertEquals(0, compact.outDegree(c));
+        List<String> sources = new ArrayList<>();
+        for (int i = compact.inStart(c); i < compact.inEnd(c); i++) {
+            sources.add(compact.name(compact.source(i)));
+        }
+        assertEquals(Set.of("com.a.A", "com.b.B"), Set.copyOf(sources));
+        assertEquals(-1, compact.indexOf("missing"));
+    }
+
+    @Test
+    void testFrozenNodeViews_AreReadOnly() {
+        DependencyGraph graph = sampleGraph();
+        graph.freeze();
+
+        GraphNode a = graph.getNode("com.a.A");
+        assertInstanceOf(CompactGraphNode.class, a);
+        assertEquals(Set.of("com.b.B", "com.c.C"), a.getDependencies().stream().map(GraphNode::getName).collect(Collectors.toSet()));
+        assertTrue(a.getDependencies().contains(graph.getNode("com.b.B")));
+        assertThrows(UnsupportedOperationException.class, () -> a.addDependency(graph.getNode("com.c.C")));
+    }
+
+    @Test
+    void testFindBySimpleName_FrozenAndUnfrozen() {
+        DependencyGraph graph = sampleGraph();
+        graph.addDependency("com.d.C", "com.a.A");
+
+        Set<String> expected = Set.of("com.c.C", "com.d.C");
+        assertEquals(expected, graph.findBySimpleName("c").stream().map(GraphNode::getName).collect(Collectors.toSet()));
+        graph.freeze();
+        assertEquals(expected, graph.findBySimpleName("c").stream().map(GraphNode::getName).collect(Collectors.toSet()));
+        assertEquals(Set.of("com.c.C"), graph.findNodes("C.c").stream().map(GraphNode::getName).collect(Collectors.toSet()));
+    }
+}
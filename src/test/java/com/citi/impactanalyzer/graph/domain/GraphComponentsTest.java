@@ -0,0 +1,105 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphComponentsTest {
+
+    private Set<String> members(CompactGraph graph, GraphComponents components, int component) {
+        return IntStream.range(components.memberStart(component), components.memberEnd(component))
+                .mapToObj(m -> graph.name(components.member(m)))
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void testCompute_FindsCyclesSelfLoopsAndLevels() {
+        DependencyGraph graph = new DependencyGraph();
+        // Cycle web -> service -> repo -> web, used by api, with a self-referencing util below it
+        graph.addDependency("com.web.Controller", "com.svc.Service");
+        graph.addDependency("com.svc.Service", "com.repo.Repo");
+        graph.addDependency("com.repo.Repo", "com.web.Controller");
+        graph.addDependency("com.api.Api", "com.web.Controller");
+        graph.addDependency("com.api.Api", "com.svc.Service");
+        graph.addDependency("com.repo.Repo", "com.util.Util");
+        graph.addDependency("com.util.Util", "com.util.Util");
+        graph.addDependency("com.util.Util", "com.util.Strings");
+        CompactGraph compact = graph.freeze();
+
+        GraphComponents components = compact.components();
+        int cycle = components.component(compact.indexOf("com.svc.Service"));
+        int util = components.component(compact.indexOf("com.util.Util"));
+        int api = components.component(compact.indexOf("com.api.Api"));
+        int strings = components.component(compact.indexOf("com.util.Strings"));
+
+        assertEquals(4, components.componentCount());
+        assertEquals(Set.of("com.web.Controller", "com.svc.Service", "com.repo.Repo"), members(compact, components, cycle));
+        assertArrayEquals(new int[]{cycle, util}, components.cycles());
+        assertFalse(components.isCyclic(api));
+        assertFalse(components.isCyclic(strings));
+
+        // Api has two edges into the cycle but one condensed edge
+        assertEquals(1, components.outEnd(api) - components.outStart(api));
+        assertEquals(3, components.edgeCount());
+        assertEquals(0, components.level(strings));
+        assertEquals(1, components.level(util));
+        assertEquals(2, components.level(cycle));
+        assertEquals(3, components.level(api));
+        assertEquals(4, components.levelCount());
+    }
+
+    @Test
+    void testCompute_DeepChainDoesNotOverflow() {
+        DependencyGraph graph = new DependencyGraph();
+        for (int i = 0; i < 100_000; i++) {
+            graph.addDependency("N" + i, "N" + (i + 1));
+        }
+        graph.addDependency("N100000", "N0");
+
+        GraphComponents components = graph.freeze().components();
+        assertEquals(1, components.componentCount());
+        assertEquals(100_001, components.size(0));
+    }
+
+    @Test
+    void testCompute_CondensedEdgesRespectTopologicalOrder() {
+        Random random = new Random(11);
+        DependencyGraph graph = new DependencyGraph();
+        for (int i = 0; i < 3000; i++) {
+            graph.addDependency("C" + random.nextInt(1000), "C" + random.nextInt(1000));
+        }
+        CompactGraph compact = graph.freeze();
+        GraphComponents components = compact.components();
+
+        for (int c = 0; c < components.componentCount(); c++) {
+            Set<Integer> targets = new HashSet<>();
+            for (int i = components.outStart(c); i < components.outEnd(c); i++) {
+                int target = components.target(i);
+                assertTrue(target < c, "condensed edges point to lower ids");
+                assertTrue(targets.add(target), "condensed edges are distinct");
+                assertTrue(components.level(c) > components.level(target));
+            }
+        }
+        // Every graph edge either stays inside a component or has a condensed counterpart
+        for (int node = 0; node < compact.nodeCount(); node++) {
+            int from = components.component(node);
+            for (int e = compact.outStart(node); e < compact.outEnd(node); e++) {
+                int to = components.component(compact.target(e));
+                if (from == to) continue;
+                assertTrue(Arrays.stream(componentTargets(components, from)).anyMatch(t -> t == to));
+            }
+        }
+        assertEquals(compact.nodeCount(), IntStream.range(0, components.componentCount()).map(components::size).sum());
+    }
+
+    private int[] componentTargets(GraphComponents components, int component) {
+        return IntStream.range(components.outStart(component), components.outEnd(component)).map(components::target).toArray();
+    }
+}
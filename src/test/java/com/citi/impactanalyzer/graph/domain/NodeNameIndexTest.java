@@ -0,0 +1,63 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeNameIndexTest {
+
+    private CompactGraph graphOf(List<String> names) {
+        DependencyGraph graph = new DependencyGraph();
+        for (int i = 1; i < names.size(); i++) {
+            graph.addDependency(names.get(0), names.get(i));
+        }
+        return graph.freeze();
+    }
+
+    private String[] names(CompactGraph graph, int[] ids) {
+        return Arrays.stream(ids).mapToObj(graph::name).sorted().toArray(String[]::new);
+    }
+
+    @Test
+    void testSearch_MatchesSubstringsIgnoringCase() {
+        CompactGraph graph = graphOf(List.of("com.shop.OrderService", "com.shop.OrderRepository",
+                "com.shop.payment.PaymentService", "com.shop.Order"));
+        NodeNameIndex index = graph.searchIndex();
+
+        assertArrayEquals(new String[]{"com.shop.Order", "com.shop.OrderRepository", "com.shop.OrderService"},
+                names(graph, index.search("ORDER")));
+        assertArrayEquals(new String[]{"com.shop.OrderService", "com.shop.payment.PaymentService"},
+                names(graph, index.search("service")));
+        assertArrayEquals(new String[]{"com.shop.payment.PaymentService"}, names(graph, index.search("t.P")));
+        assertEquals(0, index.search("invoice").length);
+    }
+
+    @Test
+    void testSearch_AgreesWithScanOnRandomNames() {
+        Random random = new Random(7);
+        List<String> all = IntStream.range(0, 2000)
+                .mapToObj(i -> "com.p" + random.nextInt(20) + ".Cls" + Integer.toString(random.nextInt(100_000), 36))
+                .distinct().toList();
+        CompactGraph graph = graphOf(all);
+        NodeNameIndex index = graph.searchIndex();
+
+        for (String query : List.of("p1", "p1.", ".cls1", "cls", "s1a", "com.p19.cls", "zz", "x")) {
+            int[] expected = IntStream.range(0, graph.nodeCount())
+                    .filter(id -> graph.name(id).toLowerCase().contains(query)).toArray();
+            assertArrayEquals(expected, index.search(query), query);
+        }
+    }
+
+    @Test
+    void testFindBySimpleName() {
+        CompactGraph graph = graphOf(List.of("com.a.Order", "com.b.Order", "com.a.OrderService"));
+
+        assertArrayEquals(new String[]{"com.a.Order", "com.b.Order"}, names(graph, graph.searchIndex().findBySimpleName("order")));
+        assertEquals(0, graph.searchIndex().findBySimpleName("Orders").length);
+    }
+}
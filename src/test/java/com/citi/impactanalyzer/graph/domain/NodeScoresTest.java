@@ -0,0 +1,67 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeScoresTest {
+
+    private CompactGraph layeredGraph() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addDependency("com.web.OrderController", "com.svc.OrderService");
+        graph.addDependency("com.web.AdminController", "com.svc.OrderService");
+        graph.addDependency("com.batch.Job", "com.svc.OrderService");
+        graph.addDependency("com.svc.OrderService", "com.repo.OrderRepository");
+        graph.addDependency("com.svc.AuditService", "com.repo.OrderRepository");
+        graph.addDependency("com.repo.OrderRepository", "com.model.Order");
+        return graph.freeze();
+    }
+
+    @Test
+    void testCompute_DegreesAndFanIn() {
+        CompactGraph graph = layeredGraph();
+        NodeScores scores = NodeScores.compute(graph, 20, 100);
+        int service = graph.indexOf("com.svc.OrderService");
+        int repository = graph.indexOf("com.repo.OrderRepository");
+
+        assertEquals(3, scores.inDegree(service));
+        assertEquals(1, scores.outDegree(service));
+        // Both controllers share a package, so the service is used from two other packages
+        assertEquals(2, scores.crossPackageFanIn(service));
+        // Its own package (com.svc) counts once, as the only other package
+        assertEquals(1, scores.crossPackageFanIn(repository));
+        assertEquals(0, scores.crossPackageFanIn(graph.indexOf("com.web.OrderController")));
+    }
+
+    @Test
+    void testCompute_PageRankFavorsSharedDependencies() {
+        CompactGraph graph = layeredGraph();
+        NodeScores scores = NodeScores.compute(graph, 50, 0);
+
+        double total = IntStream.range(0, graph.nodeCount()).mapToDouble(scores::pageRank).sum();
+        assertEquals(1.0, total, 1e-4);
+        int model = graph.indexOf("com.model.Order");
+        for (int id = 0; id < graph.nodeCount(); id++) {
+            if (id != model) assertTrue(scores.pageRank(model) > scores.pageRank(id));
+        }
+        assertTrue(scores.pageRank(graph.indexOf("com.svc.OrderService"))
+                > scores.pageRank(graph.indexOf("com.web.OrderController")));
+    }
+
+    @Test
+    void testCompute_BetweennessCountsPathsThroughNode() {
+        CompactGraph graph = layeredGraph();
+        // Sampling every node gives exact betweenness
+        NodeScores scores = NodeScores.compute(graph, 0, graph.nodeCount());
+
+        // Three callers reach the repository and the model through the service: 3 * 2 paths
+        assertEquals(6f, scores.betweenness(graph.indexOf("com.svc.OrderService")), 1e-4);
+        // The three callers, the service and the audit service reach the model through the repository
+        assertEquals(5f, scores.betweenness(graph.indexOf("com.repo.OrderRepository")), 1e-4);
+        assertEquals(0f, scores.betweenness(graph.indexOf("com.model.Order")));
+        // PageRank was skipped
+        assertEquals(0f, scores.pageRank(graph.indexOf("com.model.Order")));
+    }
+}
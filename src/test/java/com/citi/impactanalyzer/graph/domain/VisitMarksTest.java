@@ -0,0 +1,40 @@
+package com.citi.impactanalyzer.graph.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisitMarksTest {
+
+    @Test
+    void testPool_ReleasedMarksComeBackCleared() {
+        VisitMarks.Pool pool = new VisitMarks.Pool(4);
+        VisitMarks first = pool.acquire();
+        assertTrue(first.mark(2));
+        assertFalse(first.mark(2));
+
+        // A concurrent traversal gets its own marks
+        VisitMarks second = pool.acquire();
+        assertNotSame(first, second);
+        assertTrue(second.mark(2));
+
+        pool.release(first);
+        VisitMarks reused = pool.acquire();
+        assertSame(first, reused);
+        assertTrue(reused.mark(2));
+        assertTrue(reused.mark(3));
+    }
+
+    @Test
+    void testCompactGraph_PoolIsPerGraph() {
+        CompactGraph small = CompactGraph.of(new String[]{"A"}, new int[]{0, 0}, new int[0], new int[0]);
+        CompactGraph large = CompactGraph.of(new String[]{"A", "B", "C"}, new int[]{0, 1, 1, 1}, new int[]{2}, new int[1]);
+
+        VisitMarks marks = small.visitMarks().acquire();
+        small.visitMarks().release(marks);
+
+        assertNotSame(small.visitMarks(), large.visitMarks());
+        assertTrue(large.visitMarks().acquire().mark(2));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> small.visitMarks().acquire().mark(2));
+    }
+}
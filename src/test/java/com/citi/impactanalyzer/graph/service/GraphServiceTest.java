@@ -1,26 +1,38 @@
 package com.citi.impactanalyzer.graph.service;
 
+import com.citi.impactanalyzer.graph.domain.CompactGraph;
 import com.citi.impactanalyzer.graph.domain.DependencyGraph;
 import com.citi.impactanalyzer.graph.domain.EdgeMetadata;
 import com.citi.impactanalyzer.graph.domain.GraphNode;
+import com.citi.impactanalyzer.graph.domain.ImpactDirection;
+import com.citi.impactanalyzer.graph.domain.ImpactResponse;
 import com.citi.impactanalyzer.graph.domain.NgxGraphMultiResponse;
+import com.citi.impactanalyzer.graph.domain.RelationType;
 import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
+import com.citi.impactanalyzer.parser.domain.DependencyDelta;
 import com.citi.impactanalyzer.parser.service.DependencyAggregationService;
+import com.citi.impactanalyzer.parser.service.RepositoryCloneService;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -77,7 +89,7 @@ class GraphServiceTest {
         graphService.buildGraphFromJson(root);
 
 
-        verify(graph, times(1)).addDependency("A", "B");
+        verify(graph, times(1)).addDependency("A", "B", RelationType.CALLS);
     }
 
     @Test
@@ -89,9 +101,25 @@ class GraphServiceTest {
 
         graphService.buildGraphFromJson(root);
 
-        verify(graph).addDependency("A", "B");
-        verify(graph).addDependency("A", "C");
-        verify(graph, times(2)).addDependency(anyString(), anyString());
+        verify(graph).addDependency("A", "B", RelationType.CALLS);
+        verify(graph).addDependency("A", "C", RelationType.CALLS);
+        verify(graph, times(2)).addDependency(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testBuildGraphFromJson_GroupedFieldsMatchedIgnoringCase() {
+        ArrayNode root = factory.arrayNode();
+        root.add(factory.objectNode()
+                .put("source", "HR.PAYROLL_PROC")
+                .put("file", "payroll.sql")
+                .<ObjectNode>set("reads", factory.arrayNode().add("HR.EMPLOYEES"))
+                .set("depends_on_view", factory.arrayNode().add("HR.SALARY_VIEW")));
+
+        graphService.buildGraphFromJson(root);
+
+        verify(graph).addDependency("HR.PAYROLL_PROC", "HR.EMPLOYEES", RelationType.READS);
+        verify(graph).addDependency("HR.PAYROLL_PROC", "HR.SALARY_VIEW", RelationType.DEPENDS_ON_VIEW);
+        verify(graph, times(2)).addDependency(anyString(), anyString(), any());
     }
 
     @Test
@@ -106,9 +134,9 @@ class GraphServiceTest {
 
         graphService.buildGraphFromJson(root);
 
-        verify(graph).addDependency("VALID", "TARGET");
-        verify(graph).addDependency("Y", "Z");
-        verify(graph, times(2)).addDependency(anyString(), anyString());
+        verify(graph).addDependency("VALID", "TARGET", RelationType.CALLS);
+        verify(graph).addDependency("Y", "Z", RelationType.CALLS);
+        verify(graph, times(2)).addDependency(anyString(), anyString(), any());
     }
 
     @Test
@@ -150,4 +178,147 @@ class GraphServiceTest {
         assertEquals(1, ngxResponse.getGraphs().get(0).getLinks().size());
 
     }
+
+    @Test
+    void testGetImpact_RepeatedQueryServedFromCacheUntilGraphChanges() {
+        when(analyzerProperties.getGraphImpactCacheMaxEntries()).thenReturn(16);
+        DependencyGraph realGraph = new DependencyGraph();
+        realGraph.addDependency("com.a.Controller", "com.a.Service");
+        realGraph.addDependency("com.a.Service", "com.a.Repo");
+        realGraph.freeze();
+        GraphService service = new GraphService(realGraph, aggregationService, analyzerProperties, null,
+                new GraphTraversalService());
+
+        ImpactResponse first = (ImpactResponse) service.getImpact("com.a.Repo", ImpactDirection.DOWNSTREAM);
+        assertEquals(Set.of("com.a.Service", "com.a.Controller"), Set.copyOf(first.getImpacted()));
+        assertSame(first, service.getImpact("com.a.Repo", ImpactDirection.DOWNSTREAM));
+
+        realGraph.addDependency("com.b.Job", "com.a.Repo");
+        realGraph.freeze();
+        ImpactResponse second = (ImpactResponse) service.getImpact("com.a.Repo", ImpactDirection.DOWNSTREAM);
+        assertNotSame(first, second);
+        assertTrue(second.getImpacted().contains("com.b.Job"));
+    }
+
+    @Test
+    void testRefreshGraph_FullRebuildLoadsJsonInParallelAndSwapsGraph(@TempDir Path dir) throws Exception {
+        when(analyzerProperties.getGraphLoadWorkers()).thenReturn(3);
+        when(analyzerProperties.getGraphLoadBatchSize()).thenReturn(2);
+        when(analyzerProperties.getGraphCriticalInDegreeThreshold()).thenReturn(5);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 50; i++) {
+            json.append("{\"source\":\"com.a.C").append(i).append("\",\"relation\":\"CALLS\",\"target\":\"com.a.Repo\"},");
+        }
+        json.append("{\"source\":\"com.a.C0\",\"READS\":[\"com.a.Repo\",\"com.a.Table\"]}]");
+        Path jsonFile = Files.writeString(dir.resolve("graph.json"), json);
+
+        DependencyGraph realGraph = new DependencyGraph();
+        realGraph.addDependency("com.old.A", "com.old.B");
+        realGraph.freeze();
+        GraphService service = new GraphService(realGraph, aggregationService, analyzerProperties,
+                mock(RepositoryCloneService.class), new GraphTraversalService());
+        ReflectionTestUtils.setField(service, "graphJsonPath", jsonFile.toString());
+
+        service.refreshGraph();
+
+        assertNotNull(realGraph.getCompact());
+        assertNull(realGraph.getNode("com.old.A"));
+        assertEquals(52, realGraph.nodeCount());
+        assertEquals(51, realGraph.edgeCount());
+        assertEquals(Set.of(RelationType.CALLS, RelationType.READS),
+                realGraph.getEdgeMetadata("com.a.C0", "com.a.Repo").getRelations());
+        assertTrue(realGraph.getEdgeMetadata("com.a.C7", "com.a.Repo").isCritical());
+        assertFalse(realGraph.getEdgeMetadata("com.a.C0", "com.a.Table").isCritical());
+    }
+
+    @Test
+    void testRefreshGraph_TruncatedJsonKeepsCurrentGraphAndWritesNoSnapshot(@TempDir Path dir) throws Exception {
+        when(analyzerProperties.isGraphSnapshotEnabled()).thenReturn(true);
+        Path jsonFile = Files.writeString(dir.resolve("graph.json"),
+                "[{\"source\":\"com.a.A\",\"relation\":\"CALLS\",\"target\":\"com.a.B\"},{\"source\":\"com.a.C\",\"rel");
+        DependencyGraph realGraph = new DependencyGraph();
+        realGraph.addDependency("com.old.A", "com.old.B");
+        realGraph.freeze();
+        long version = realGraph.getVersion();
+        GraphService service = new GraphService(realGraph, aggregationService, analyzerProperties,
+                mock(RepositoryCloneService.class), new GraphTraversalService());
+        ReflectionTestUtils.setField(service, "graphJsonPath", jsonFile.toString());
+
+        assertThrows(IOException.class, service::refreshGraph);
+
+        assertEquals(version, realGraph.getVersion());
+        assertNotNull(realGraph.getNode("com.old.A"));
+        assertNull(realGraph.getNode("com.a.A"));
+        assertFalse(Files.exists(dir.resolve("graph.json.snapshot")));
+    }
+
+    @Test
+    void testRefreshGraph_SnapshotFromOtherCriticalitySettingsIsNotReused(@TempDir Path dir) throws Exception {
+        when(analyzerProperties.isGraphSnapshotEnabled()).thenReturn(true);
+        when(analyzerProperties.getGraphCriticalInDegreeThreshold()).thenReturn(1);
+        Path jsonFile = Files.writeString(dir.resolve("graph.json"),
+                "[{\"source\":\"com.a.A\",\"relation\":\"CALLS\",\"target\":\"com.a.B\"}]");
+        DependencyGraph realGraph = new DependencyGraph();
+        GraphService service = new GraphService(realGraph, aggregationService, analyzerProperties,
+                mock(RepositoryCloneService.class), new GraphTraversalService());
+        ReflectionTestUtils.setField(service, "graphJsonPath", jsonFile.toString());
+
+        service.refreshGraph();
+        assertTrue(Files.exists(dir.resolve("graph.json.snapshot")));
+        assertTrue(realGraph.getEdgeMetadata("com.a.A", "com.a.B").isCritical());
+
+        when(analyzerProperties.getGraphCriticalInDegreeThreshold()).thenReturn(100);
+        service.refreshGraph();
+        assertFalse(realGraph.getEdgeMetadata("com.a.A", "com.a.B").isCritical());
+    }
+
+    @Test
+    void testApplyDelta_ReplacesEdgesOfAffectedSourcesAndPublishesOnce() {
+        when(analyzerProperties.getGraphCriticalInDegreeThreshold()).thenReturn(2);
+        DependencyGraph realGraph = new DependencyGraph();
+        realGraph.addDependency("com.a.A", "com.a.B", RelationType.CALLS);
+        realGraph.addDependency("com.a.C", "com.a.B", RelationType.CALLS);
+        realGraph.addDependency("com.a.C", "com.a.D", RelationType.READS);
+        CompactGraph previous = realGraph.freeze();
+        long version = realGraph.getVersion();
+        GraphService service = new GraphService(realGraph, aggregationService, analyzerProperties, null,
+                new GraphTraversalService());
+
+        ObjectNode entry = factory.objectNode();
+        entry.put("source", "com.a.A");
+        entry.putArray("READS").add("com.a.D");
+        service.applyDelta(new DependencyDelta(true, Set.of("com.a.A"), List.of(entry)));
+
+        assertEquals(version + 1, realGraph.getVersion());
+        assertNotSame(previous, realGraph.getCompact());
+        assertTrue(previous.edgeIndex(previous.indexOf("com.a.A"), previous.indexOf("com.a.B")) >= 0);
+        assertNull(realGraph.getEdgeMetadata("com.a.A", "com.a.B"));
+        assertEquals(Set.of(RelationType.READS), realGraph.getEdgeMetadata("com.a.A", "com.a.D").getRelations());
+        assertEquals(Set.of(RelationType.CALLS), realGraph.getEdgeMetadata("com.a.C", "com.a.B").getRelations());
+        assertFalse(realGraph.getEdgeMetadata("com.a.C", "com.a.B").isCritical());
+        assertTrue(realGraph.getEdgeMetadata("com.a.C", "com.a.D").isCritical());
+        assertEquals(Set.of("com.a.A", "com.a.C"), realGraph.getDependents("com.a.D"));
+        assertEquals(4, realGraph.nodeCount());
+    }
+
+    @Test
+    void testApplyDelta_DeletedFileRemovesItsClass() {
+        DependencyGraph realGraph = new DependencyGraph();
+        realGraph.addDependency("com.a.A", "com.a.B", RelationType.CALLS);
+        realGraph.addDependency("com.a.C", "com.a.B", RelationType.CALLS);
+        realGraph.addDependency("com.a.D", "com.a.C", RelationType.CALLS);
+        realGraph.freeze();
+        GraphService service = new GraphService(realGraph, aggregationService, analyzerProperties, null,
+                new GraphTraversalService());
+
+        // A.java and C.java were deleted; D.java still refers to C
+        service.applyDelta(new DependencyDelta(true, Set.of("com.a.A", "com.a.C"), List.of()));
+
+        assertNull(realGraph.getNode("com.a.A"));
+        assertTrue(realGraph.findNodes("com.a.A").isEmpty());
+        assertNotNull(realGraph.getNode("com.a.C"));
+        assertNull(realGraph.getEdgeMetadata("com.a.C", "com.a.B"));
+        assertEquals(Set.of("com.a.D"), realGraph.getDependents("com.a.C"));
+        assertEquals(3, realGraph.nodeCount());
+    }
 }
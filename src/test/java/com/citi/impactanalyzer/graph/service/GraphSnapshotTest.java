@@ -0,0 +1,55 @@
+package com.citi.impactanalyzer.graph.service;
+
+import com.citi.impactanalyzer.graph.domain.DependencyGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteAndLoadRoundTrip() throws Exception {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addDependency("com.a.A", "com.b.B");
+        graph.addDependency("com.a.A", "com.a.\u00c4");
+        graph.addDependency("com.b.B", "com.c.C");
+        graph.getEdgeMetadata("com.a.A", "com.b.B").setCritical(true);
+
+        Map<String, Set<String>> expected = graph.snapshot();
+
+        Path file = tempDir.resolve("graph.json.snapshot");
+        GraphSnapshot.write(file, graph.freeze(), "demo", 123L, 456L, 789);
+
+        GraphSnapshot snapshot = GraphSnapshot.read(file);
+        assertEquals("demo", snapshot.getRepo());
+        assertEquals(4, snapshot.getGraph().nodeCount());
+        assertEquals(3, snapshot.getGraph().edgeCount());
+        assertTrue(snapshot.matches(123L, 456L));
+        assertFalse(snapshot.matches(123L, 457L));
+        assertEquals(789, snapshot.getCriticalityHash());
+
+        DependencyGraph loaded = new DependencyGraph();
+        loaded.load(snapshot.getGraph());
+        assertEquals(expected, loaded.snapshot());
+        assertTrue(loaded.getEdgeMetadata("com.a.A", "com.b.B").isCritical());
+        assertFalse(loaded.getEdgeMetadata("com.b.B", "com.c.C").isCritical());
+    }
+
+    @Test
+    void testReadRejectsForeignFile() throws Exception {
+        Path file = tempDir.resolve("graph.json.snapshot");
+        Files.writeString(file, "[{\"source\":\"A\"}]");
+
+        assertThrows(IOException.class, () -> GraphSnapshot.read(file));
+    }
+}
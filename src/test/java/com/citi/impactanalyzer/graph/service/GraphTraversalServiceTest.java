@@ -1,6 +1,12 @@
 package com.citi.impactanalyzer.graph.service;
 
+import com.citi.impactanalyzer.graph.domain.CompactGraph;
+import com.citi.impactanalyzer.graph.domain.DependencyGraph;
 import com.citi.impactanalyzer.graph.domain.GraphNode;
+import com.citi.impactanalyzer.graph.domain.ImpactDirection;
+import com.citi.impactanalyzer.graph.domain.RelationType;
+import com.citi.impactanalyzer.graph.domain.TraversalLimits;
+import com.citi.impactanalyzer.graph.domain.TraversalResult;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -9,10 +15,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 import java.util.LinkedHashSet;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -121,4 +130,190 @@ class GraphTraversalServiceTest {
         assertEquals(2, result.size());
         assertEquals(List.of("A", "B"), result.stream().toList());
     }
+
+    @Test
+    void testTraverseDFS_FrozenGraphDiamond() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addDependency("A", "B");
+        graph.addDependency("A", "C");
+        graph.addDependency("B", "D");
+        graph.addDependency("C", "D");
+        graph.addDependency("D", "A");
+        graph.freeze();
+
+        List<String> result = traversalService.traverseDFS(graph.getNode("A")).stream().toList();
+
+        assertEquals(4, result.size());
+        assertEquals("A", result.get(0));
+        assertEquals("D", result.get(2));
+        assertEquals(Set.of("B", "C"), Set.of(result.get(1), result.get(3)));
+    }
+
+    private DependencyGraph layeredGraph() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addDependency("Controller", "Service");
+        graph.addDependency("Service", "Repository");
+        graph.addDependency("Job", "Repository");
+        graph.addDependency("Repository", "Entity");
+        return graph;
+    }
+
+    @Test
+    void testTraverse_DownstreamFollowsDependents() {
+        DependencyGraph graph = layeredGraph();
+
+        Set<String> result = traversalService.traverse(graph, "Repository", ImpactDirection.DOWNSTREAM);
+
+        assertEquals("Repository", result.iterator().next());
+        assertEquals(Set.of("Repository", "Service", "Job", "Controller"), result);
+
+        graph.freeze();
+        assertEquals(Set.of("Repository", "Service", "Job", "Controller"),
+                traversalService.traverse(graph, "Repository", ImpactDirection.DOWNSTREAM));
+    }
+
+    @Test
+    void testTraverse_UpstreamAndBoth() {
+        DependencyGraph graph = layeredGraph();
+        graph.freeze();
+
+        assertEquals(Set.of("Service", "Repository", "Entity"),
+                traversalService.traverse(graph, "Service", ImpactDirection.UPSTREAM));
+        assertEquals(Set.of("Service", "Controller", "Repository", "Entity", "Job"),
+                traversalService.traverse(graph, "Service", ImpactDirection.BOTH));
+        assertTrue(traversalService.traverse(graph, "Unknown", ImpactDirection.BOTH).isEmpty());
+    }
+
+    private DependencyGraph chain(int length) {
+        DependencyGraph graph = new DependencyGraph();
+        for (int i = 0; i < length; i++) {
+            graph.addDependency("N" + i, "N" + (i + 1));
+        }
+        return graph;
+    }
+
+    @Test
+    void testTraverseDFS_DeepChainDoesNotOverflow() {
+        DependencyGraph graph = chain(100_000);
+
+        assertEquals(100_001, traversalService.traverseDFS(graph.getNode("N0")).size());
+        graph.freeze();
+        assertEquals(100_001, traversalService.traverseDFS(graph.getNode("N0")).size());
+    }
+
+    @Test
+    void testTraverse_StopsAtDepthAndNodeBudget() {
+        DependencyGraph graph = chain(10);
+        graph.freeze();
+
+        TraversalResult byDepth = traversalService.traverse(graph, List.of("N0"), ImpactDirection.UPSTREAM,
+                new TraversalLimits(3, 0, 0, 0, 0), true);
+        assertEquals(List.of("N0", "N1", "N2", "N3"), byDepth.getNodes());
+        assertEquals(3, byDepth.getEdges().size());
+        assertEquals(TraversalResult.Cutoff.DEPTH, byDepth.getCutoff());
+
+        TraversalResult byNodes = traversalService.traverse(graph, List.of("N10"), ImpactDirection.DOWNSTREAM,
+                new TraversalLimits(0, 5, 0, 0, 0), false);
+        assertEquals(List.of("N10", "N9", "N8", "N7", "N6"), byNodes.getNodes());
+        assertEquals(TraversalResult.Cutoff.NODES, byNodes.getCutoff());
+
+        TraversalResult complete = traversalService.traverse(graph, List.of("N8"), ImpactDirection.UPSTREAM,
+                TraversalLimits.unlimited(), false);
+        assertEquals(List.of("N8", "N9", "N10"), complete.getNodes());
+        assertFalse(complete.isTruncated());
+    }
+
+    @Test
+    void testTraverse_EdgeFlagMaskFollowsOnlyFlaggedEdges() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addDependency("A", "B");
+        graph.addDependency("A", "C");
+        graph.addDependency("C", "D");
+        graph.getEdgeMetadata("A", "C").setCritical(true);
+        graph.getEdgeMetadata("C", "D").setCritical(true);
+        TraversalLimits criticalOnly = TraversalLimits.unlimited().withEdgeFlagMask(CompactGraph.FLAG_CRITICAL);
+
+        assertEquals(List.of("A", "C", "D"), traversalService.traverse(graph, List.of("A"), ImpactDirection.UPSTREAM,
+                criticalOnly, false).getNodes());
+        graph.freeze();
+        assertEquals(List.of("A", "C", "D"), traversalService.traverse(graph, List.of("A"), ImpactDirection.UPSTREAM,
+                criticalOnly, false).getNodes());
+        assertEquals(List.of("D", "C", "A"), traversalService.traverse(graph, List.of("D"), ImpactDirection.DOWNSTREAM,
+                criticalOnly, false).getNodes());
+    }
+
+    @Test
+    void testTraverse_RelationMaskSurvivesFreezeAndThaw() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addDependency("Impl", "Api", RelationType.IMPLEMENTS);
+        graph.addDependency("Impl", "Api", RelationType.CALLS);
+        graph.addDependency("Client", "Impl", RelationType.CALLS);
+        graph.addDependency("Sub", "Impl", RelationType.EXTENDS);
+        TraversalLimits structural = TraversalLimits.unlimited()
+                .withEdgeFlagMask(RelationType.maskOf(RelationType.STRUCTURAL));
+
+        graph.freeze();
+        assertEquals(Set.of(RelationType.IMPLEMENTS, RelationType.CALLS),
+                graph.getEdgeMetadata("Impl", "Api").getRelations());
+        assertEquals(List.of("Api", "Impl", "Sub"), traversalService.traverse(graph, List.of("Api"),
+                ImpactDirection.DOWNSTREAM, structural, false).getNodes());
+
+        graph.addDependency("Other", "Api");
+        assertEquals(Set.of(RelationType.CALLS), graph.getEdgeMetadata("Client", "Impl").getRelations());
+        assertEquals(List.of("Api", "Impl", "Sub"), traversalService.traverse(graph, List.of("Api"),
+                ImpactDirection.DOWNSTREAM, structural, false).getNodes());
+    }
+
+    @Test
+    void testTraverse_UnboundedWalkOverCondensedGraphMatchesEdgeWalk() {
+        Random random = new Random(5);
+        DependencyGraph graph = new DependencyGraph();
+        for (int i = 0; i < 2000; i++) {
+            graph.addDependency("C" + random.nextInt(600), "C" + random.nextInt(600));
+        }
+        graph.freeze();
+
+        for (int id = 0; id < graph.nodeCount(); id += 97) {
+            String start = graph.getCompact().name(id);
+            for (ImpactDirection direction : List.of(ImpactDirection.UPSTREAM, ImpactDirection.DOWNSTREAM)) {
+                List<String> condensed = traversalService.traverse(graph, List.of(start), direction,
+                        TraversalLimits.unlimited(), false).getNodes();
+                // Collecting edges keeps the edge-by-edge walk
+                List<String> expected = traversalService.traverse(graph, List.of(start), direction,
+                        TraversalLimits.unlimited(), true).getNodes();
+                assertEquals(start, condensed.get(0));
+                assertEquals(expected.size(), condensed.size());
+                assertEquals(new HashSet<>(expected), new HashSet<>(condensed));
+            }
+        }
+    }
+
+    @Test
+    void testTraverse_CappedWalkOverCondensedGraphMatchesEdgeWalk() {
+        Random random = new Random(11);
+        DependencyGraph graph = new DependencyGraph();
+        for (int i = 0; i < 600; i++) {
+            graph.addDependency("C" + random.nextInt(400), "C" + random.nextInt(400));
+        }
+        // A cycle longer than any depth cap below, so its far members must be cut off
+        for (int i = 0; i < 30; i++) {
+            graph.addDependency("R" + i, "R" + ((i + 1) % 30));
+        }
+        graph.addDependency("C0", "R0");
+        graph.freeze();
+
+        for (int maxDepth : new int[]{1, 3, 12}) {
+            for (int maxEdges : new int[]{20, 10000}) {
+                TraversalLimits limits = new TraversalLimits(maxDepth, 0, maxEdges, 0, 0);
+                for (int id = 0; id < graph.nodeCount(); id += 13) {
+                    String start = graph.getCompact().name(id);
+                    for (ImpactDirection direction : List.of(ImpactDirection.UPSTREAM, ImpactDirection.DOWNSTREAM)) {
+                        List<String> nodes = traversalService.traverse(graph, List.of(start), direction, limits, false).getNodes();
+                        List<String> expected = traversalService.traverse(graph, List.of(start), direction, limits, true).getNodes();
+                        assertEquals(new HashSet<>(expected), new HashSet<>(nodes));
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package com.citi.impactanalyzer.graph.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImpactCacheTest {
+
+    @Test
+    void testGet_OnlyReturnsEntriesOfTheSameGraphVersion() {
+        ImpactCache cache = new ImpactCache(() -> 8);
+        cache.put(1, cache.generation(), "a", "result-1");
+
+        assertEquals("result-1", cache.get(1, "a"));
+        assertNull(cache.get(2, "a"));
+
+        cache.put(2, cache.generation(), "a", "result-2");
+        assertEquals("result-2", cache.get(2, "a"));
+        assertNull(cache.get(1, "a"));
+
+        // A late result for an older version does not replace newer entries
+        cache.put(1, cache.generation(), "b", "stale");
+        assertNull(cache.get(1, "b"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        ImpactCache cache = new ImpactCache(() -> 2);
+        cache.put(1, 0, "a", "A");
+        cache.put(1, 0, "b", "B");
+        cache.get(1, "a");
+        cache.put(1, 0, "c", "C");
+
+        assertEquals("A", cache.get(1, "a"));
+        assertNull(cache.get(1, "b"));
+        assertEquals("C", cache.get(1, "c"));
+    }
+
+    @Test
+    void testInvalidate_DiscardsResultsComputedBeforeIt() {
+        ImpactCache cache = new ImpactCache(() -> 8);
+        long generation = cache.generation();
+        cache.put(1, generation, "a", "A");
+
+        cache.invalidate();
+        cache.put(1, generation, "b", "B");
+
+        assertNull(cache.get(1, "a"));
+        assertNull(cache.get(1, "b"));
+        cache.put(1, cache.generation(), "b", "B");
+        assertEquals("B", cache.get(1, "b"));
+    }
+
+    @Test
+    void testZeroCapacity_DisablesCache() {
+        ImpactCache cache = new ImpactCache(() -> 0);
+        cache.put(1, 0, "a", "A");
+
+        assertNull(cache.get(1, "a"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -134,4 +134,43 @@ class CodeFileScannerServiceTest {
         assertTrue(result.stream().anyMatch(f -> f.getType() == CodeFile.Type.CODE && f.getLanguage().equals("java")));
         assertTrue(result.stream().anyMatch(f -> f.getType() == CodeFile.Type.SQL && f.getDialect().equals("mysql")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testScanDirectory_ReadsContentOnDemand() throws IOException {
+        createFile(tempDir, "A.java", MOCK_JAVA_CONTENT);
+
+        List<CodeFile> result = scannerService.scanDirectory(tempDir);
+        createFile(tempDir, "A.java", "package com.app; class B {}");
+
+        assertEquals(1, result.size());
+        assertEquals(tempDir.resolve("A.java"), result.get(0).getPath());
+        assertEquals("package com.app; class B {}", result.get(0).getContent());
+    }
+
+    @Test
+    void testScanDirectory_GlobAndPathExcludes() throws IOException {
+        org.mockito.Mockito.when(properties.getFileScannerExcludes()).thenReturn(List.of("*.egg-info", "src/generated"));
+        Path eggInfo = Files.createDirectories(tempDir.resolve("pkg.egg-info"));
+        createFile(eggInfo, "skipped.py", "print('x')");
+        Path generated = Files.createDirectories(tempDir.resolve("src/generated"));
+        createFile(generated, "Skipped.java", MOCK_JAVA_CONTENT);
+        Path nestedGenerated = Files.createDirectories(tempDir.resolve("lib/src/generated"));
+        createFile(nestedGenerated, "Kept.java", MOCK_JAVA_CONTENT);
+        createFile(tempDir, "Root.java", MOCK_JAVA_CONTENT);
+
+        List<CodeFile> result = scannerService.scanDirectory(tempDir);
+
+        assertEquals(List.of(nestedGenerated.resolve("Kept.java"), tempDir.resolve("Root.java")),
+                result.stream().map(CodeFile::getPath).toList());
+    }
+
+    @Test
+    void testScanFile_AppliesExcludes() throws IOException {
+        Path nodeModules = Files.createDirectories(tempDir.resolve("web/node_modules/lib"));
+        createFile(nodeModules, "index.js", "module.exports = {}");
+        createFile(tempDir, "A.java", MOCK_JAVA_CONTENT);
+
+        assertTrue(scannerService.scanFile(tempDir, nodeModules.resolve("index.js")).isEmpty());
+        assertTrue(scannerService.scanFile(tempDir, tempDir.resolve("A.java")).isPresent());
+    }
+}
@@ -3,9 +3,12 @@ package com.citi.impactanalyzer.parser.service;
 import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
 import com.citi.impactanalyzer.parser.domain.CodeFile;
 import com.citi.impactanalyzer.parser.domain.CodeFile.Type;
+import com.citi.impactanalyzer.parser.domain.DependencyDelta;
+import com.citi.impactanalyzer.parser.domain.ExtractionMode;
+import com.citi.impactanalyzer.parser.domain.RepositoryChanges;
+import com.citi.impactanalyzer.parser.exception.PartialExtractionException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,15 +16,21 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.io.FileWriter;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -42,17 +51,18 @@ class DependencyAggregationServiceTest {
     @Mock
     DependencyAnalyzerProperties properties;
     @Mock
-    ObjectWriter objectWriter;
-    @Mock
     BasePackageDetectorService basePackageDetector;
+    @Mock
+    ExtractionResultCache extractionCache;
+    @Mock
+    RepositoryCloneService repositoryCloneService;
 
     @InjectMocks
     DependencyAggregationService aggregationService;
 
     @BeforeEach
     void setUp() throws Exception {
-        org.mockito.Mockito.lenient().when(mapper.writerWithDefaultPrettyPrinter()).thenReturn(objectWriter);
-        org.mockito.Mockito.lenient().doNothing().when(objectWriter).writeValue(any(FileWriter.class), any());
+        ReflectionTestUtils.setField(aggregationService, "graphJsonPath", graphFile().toString());
         org.mockito.Mockito.lenient().when(properties.getBaseDir()).thenReturn(tempDir.toString());
         org.mockito.Mockito.lenient().when(properties.getLanguages()).thenReturn(List.of("java"));
         org.mockito.Mockito.lenient().when(properties.getSqlDialects()).thenReturn(List.of("mysql"));
@@ -68,6 +78,15 @@ class DependencyAggregationServiceTest {
         return tempDir.resolve(subPath);
     }
 
+    private Path graphFile() {
+        return tempDir.resolve("analysis/dependency-graph.json");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readWrittenGraph() throws Exception {
+        return new ObjectMapper().readValue(graphFile().toFile(), Map.class);
+    }
+
     @Test
     void testGenerateDependencyGraph_SuccessfulAggregation() throws Exception {
         List<CodeFile> javaFiles = List.of(
@@ -85,7 +104,7 @@ class DependencyAggregationServiceTest {
 
         verify(fileScanner).scanDirectory(getMockPath("src"));
         verify(dependencyService).analyzeCodeDependencies(anyString(), eq("java"));
-        verify(objectWriter).writeValue(any(FileWriter.class), anyMap());
+        assertTrue(readWrittenGraph().containsKey("dependencies"));
     }
 
     @Test
@@ -108,7 +127,7 @@ class DependencyAggregationServiceTest {
 
         verify(fileScanner).scanDirectory(getMockPath("db/scripts"));
         verify(dependencyService).analyzeSqlDependencies(anyString(), eq("mysql"));
-        verify(objectWriter).writeValue(any(FileWriter.class), anyMap());
+        assertTrue(readWrittenGraph().containsKey("dependencies"));
     }
 
     @Test
@@ -128,6 +147,247 @@ class DependencyAggregationServiceTest {
         aggregationService.generateDependencyGraph();
 
         verify(fileScanner).scanDirectory(getMockPath(""));
-        verify(objectWriter).writeValue(any(FileWriter.class), anyMap());
+        assertTrue(readWrittenGraph().containsKey("dependencies"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGenerateDependencyGraph_AsyncPreservesFileOrder() throws Exception {
+        when(properties.isDependencyAggregationAsync()).thenReturn(true);
+        when(properties.getDependencyAggregationWorkers()).thenReturn(4);
+
+        List<CodeFile> javaFiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            javaFiles.add(createCodeFile("file-" + i, "java", Type.CODE, null));
+        }
+        when(fileScanner.scanDirectory(getMockPath("src"))).thenReturn(javaFiles);
+        when(dependencyService.analyzeCodeDependencies(anyString(), eq("java"))).thenAnswer(inv -> {
+            String code = inv.getArgument(0);
+            if (code.equals("file-0")) {
+                Thread.sleep(50); // finish last despite being submitted first
+            }
+            return "[\"" + code + "\"]";
+        });
+        when(mapper.readValue(anyString(), any(TypeReference.class)))
+                .thenAnswer(inv -> new ArrayList<>(List.of(((String) inv.getArgument(0)).replaceAll("[\\[\\]\"]", ""))));
+
+        aggregationService.generateDependencyGraph();
+
+        Map<String, Object> output = readWrittenGraph();
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            expected.add("file-" + i);
+        }
+        assertEquals(expected, output.get("dependencies"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGenerateDependencyGraph_AsyncSubmitsNoFurtherThanOneWindowPastASlowFile() throws Exception {
+        when(properties.isDependencyAggregationAsync()).thenReturn(true);
+        when(properties.getDependencyAggregationWorkers()).thenReturn(2);
+        when(properties.getDependencyAggregationQueueCapacity()).thenReturn(1);
+
+        List<CodeFile> javaFiles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            javaFiles.add(createCodeFile("file-" + i, "java", Type.CODE, null));
+        }
+        when(fileScanner.scanDirectory(getMockPath("src"))).thenReturn(javaFiles);
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger startedWhileFirstRan = new AtomicInteger();
+        when(dependencyService.analyzeCodeDependencies(anyString(), eq("java"))).thenAnswer(inv -> {
+            started.incrementAndGet();
+            String code = inv.getArgument(0);
+            if (code.equals("file-0")) {
+                Thread.sleep(200);
+                startedWhileFirstRan.set(started.get());
+            }
+            return "[\"" + code + "\"]";
+        });
+        when(mapper.readValue(anyString(), any(TypeReference.class)))
+                .thenAnswer(inv -> new ArrayList<>(List.of(((String) inv.getArgument(0)).replaceAll("[\\[\\]\"]", ""))));
+
+        aggregationService.generateDependencyGraph();
+
+        // Two workers and one queue slot: the slow first file holds back at most two more
+        assertTrue(startedWhileFirstRan.get() <= 3, "started while the first file ran: " + startedWhileFirstRan.get());
+        assertEquals(20, ((List<?>) readWrittenGraph().get("dependencies")).size());
+    }
+
+    @Test
+    void testGenerateDependencyGraph_CacheHitSkipsExtraction() throws Exception {
+        List<CodeFile> javaFiles = List.of(
+                createCodeFile("Java code", "java", Type.CODE, null)
+        );
+        List<Object> cachedDependencies = List.of(Map.of("source", "A", "relation", "CALLS", "target", "B"));
+
+        when(fileScanner.scanDirectory(getMockPath("src"))).thenReturn(javaFiles);
+        when(extractionCache.keyFor(any(), anyString(), any())).thenReturn("key");
+        when(extractionCache.get("key")).thenReturn(java.util.Optional.of(cachedDependencies));
+
+        aggregationService.generateDependencyGraph();
+
+        verify(dependencyService, never()).analyzeCodeDependencies(anyString(), anyString());
+        verify(extractionCache, never()).put(anyString(), any());
+        assertTrue(readWrittenGraph().containsKey("dependencies"));
+    }
+
+    @Test
+    void testGenerateDependencyGraph_CacheMissStoresResult() throws Exception {
+        List<CodeFile> javaFiles = List.of(
+                createCodeFile("Java code", "java", Type.CODE, null)
+        );
+        List<Object> parsed = new ArrayList<>(List.of(new HashMap<>()));
+
+        when(fileScanner.scanDirectory(getMockPath("src"))).thenReturn(javaFiles);
+        when(extractionCache.keyFor(any(), anyString(), any())).thenReturn("key");
+        when(extractionCache.get("key")).thenReturn(java.util.Optional.empty());
+        when(dependencyService.analyzeCodeDependencies(anyString(), eq("java"))).thenReturn("[{}]");
+        when(mapper.readValue(anyString(), any(TypeReference.class))).thenReturn(parsed);
+
+        aggregationService.generateDependencyGraph();
+
+        verify(extractionCache).put("key", parsed);
+        verify(extractionCache).evictIfNeeded();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGenerateDependencyGraph_PartialExtractionIsWrittenButNotCached() throws Exception {
+        List<CodeFile> javaFiles = List.of(
+                createCodeFile("Java code", "java", Type.CODE, null)
+        );
+        List<Object> parsed = new ArrayList<>(List.of(Map.of("source", "A", "relation", "CALLS", "target", "B")));
+
+        when(fileScanner.scanDirectory(getMockPath("src"))).thenReturn(javaFiles);
+        when(extractionCache.keyFor(any(), anyString(), any())).thenReturn("key");
+        when(extractionCache.get("key")).thenReturn(java.util.Optional.empty());
+        when(dependencyService.analyzeCodeDependencies(anyString(), eq("java")))
+                .thenThrow(new PartialExtractionException("1 of 2 chunks failed", "[{\"source\":\"A\"}]"));
+        when(mapper.readValue(anyString(), any(TypeReference.class))).thenReturn(parsed);
+
+        aggregationService.generateDependencyGraph();
+
+        verify(extractionCache, never()).put(anyString(), any());
+        assertEquals(parsed, readWrittenGraph().get("dependencies"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGenerateDependencyGraph_IncrementalReextractsOnlyChangedFiles() throws Exception {
+        Path graphJson = graphFile();
+        Files.createDirectories(graphJson.getParent());
+        String previousGraph = """
+                {"repo":"demo","commit":"old","dependencies":[
+                  {"source":"A","relation":"CALLS","target":"B","file":"src/A.java"},
+                  {"source":"C","relation":"CALLS","target":"D","file":"src/C.java"},
+                  {"source":"E","relation":"CALLS","target":"F","file":"src/E.java"}]}
+                """;
+        Files.writeString(graphJson, previousGraph);
+        Files.createDirectories(tempDir.resolve("src"));
+
+        when(properties.isIncrementalAnalysisEnabled()).thenReturn(true);
+        when(repositoryCloneService.resolveHeadCommit(any())).thenReturn(Optional.of("new"));
+        when(repositoryCloneService.diffSince(any(), eq("old"))).thenReturn(Optional.of(
+                new RepositoryChanges("old", "new", Set.of("src/A.java"), Set.of("src/A.java", "src/C.java"))));
+
+        Path changed = tempDir.resolve("src/A.java").toAbsolutePath().normalize();
+        when(fileScanner.scanFile(any(), eq(changed)))
+                .thenReturn(Optional.of(new CodeFile(Type.CODE, "java", "class A {}", null, changed)));
+        when(dependencyService.analyzeCodeDependencies(anyString(), eq("java"))).thenReturn("[{}]");
+        when(mapper.readValue(anyString(), any(TypeReference.class))).thenReturn(
+                new ArrayList<>(List.of(Map.of("source", "A", "relation", "CALLS", "target", "X"))));
+
+        DependencyDelta delta = aggregationService.generateDependencyGraph();
+
+        verify(fileScanner, never()).scanDirectory(any());
+        assertTrue(delta.isIncremental());
+        assertEquals(Set.of("A", "C"), delta.getAffectedSources());
+        assertEquals(1, delta.getAffectedEntries().size());
+
+        Map<String, Object> output = readWrittenGraph();
+        assertEquals("new", output.get("commit"));
+        List<Map<String, Object>> written = (List<Map<String, Object>>) output.get("dependencies");
+        assertEquals(List.of("E", "A"), written.stream().map(m -> m.get("source")).toList());
+        assertEquals("src/A.java", written.get(1).get("file"));
+        assertEquals("X", written.get(1).get("target"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGenerateDependencyGraph_BatchesSmallFilesAndSplitsReply() throws Exception {
+        enablePromptBatching();
+        List<CodeFile> javaFiles = List.of(
+                createCodeFile("class A {}", "java", Type.CODE, null),
+                createCodeFile("class B {}", "java", Type.CODE, null)
+        );
+        when(fileScanner.scanDirectory(getMockPath("src"))).thenReturn(javaFiles);
+        when(dependencyService.analyzeCodeDependenciesBatch(anyMap(), eq("java"))).thenReturn("[{\"file\":\"F1\"}]");
+        when(mapper.readValue(anyString(), any(TypeReference.class))).thenReturn(new ArrayList<>(List.of(
+                Map.of("file", "F2", "source", "B", "relation", "CALLS", "target", "C"),
+                Map.of("file", "F1", "source", "A", "relation", "CALLS", "target", "B"))));
+
+        aggregationService.generateDependencyGraph();
+
+        verify(dependencyService, never()).analyzeCodeDependencies(anyString(), anyString());
+        Map<String, Object> output = readWrittenGraph();
+        assertEquals(List.of(
+                Map.of("source", "A", "relation", "CALLS", "target", "B"),
+                Map.of("source", "B", "relation", "CALLS", "target", "C")), output.get("dependencies"));
+    }
+
+    @Test
+    void testGenerateDependencyGraph_BatchWithoutJsonFallsBackPerFile() throws Exception {
+        enablePromptBatching();
+        List<CodeFile> javaFiles = List.of(
+                createCodeFile("class A {}", "java", Type.CODE, null),
+                createCodeFile("class B {}", "java", Type.CODE, null)
+        );
+        when(fileScanner.scanDirectory(getMockPath("src"))).thenReturn(javaFiles);
+        when(dependencyService.analyzeCodeDependenciesBatch(anyMap(), eq("java"))).thenReturn("Sorry, I cannot help");
+        when(dependencyService.analyzeCodeDependencies(anyString(), eq("java"))).thenReturn("[]");
+        when(mapper.readValue(anyString(), any(TypeReference.class))).thenReturn(new ArrayList<>());
+
+        aggregationService.generateDependencyGraph();
+
+        verify(dependencyService).analyzeCodeDependencies("class A {}", "java");
+        verify(dependencyService).analyzeCodeDependencies("class B {}", "java");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGenerateDependencyGraph_FileMissingFromBatchReplyIsExtractedPerFile() throws Exception {
+        enablePromptBatching();
+        List<CodeFile> javaFiles = List.of(
+                createCodeFile("class A {}", "java", Type.CODE, null),
+                createCodeFile("class B {}", "java", Type.CODE, null)
+        );
+        when(fileScanner.scanDirectory(getMockPath("src"))).thenReturn(javaFiles);
+        when(extractionCache.keyFor(any(), anyString(), any())).thenAnswer(inv -> "key-" + inv.getArgument(1));
+        when(extractionCache.get(anyString())).thenReturn(Optional.empty());
+        when(dependencyService.analyzeCodeDependenciesBatch(anyMap(), eq("java"))).thenReturn("[{\"file\":\"F1\"}]");
+        when(dependencyService.analyzeCodeDependencies("class B {}", "java")).thenReturn("[{\"source\":\"B\"}]");
+        List<Object> fromBatch = new ArrayList<>(List.of(Map.of("file", "F1", "source", "A", "relation", "CALLS", "target", "B")));
+        List<Object> fromFile = new ArrayList<>(List.of(Map.of("source", "B", "relation", "CALLS", "target", "C")));
+        when(mapper.readValue(anyString(), any(TypeReference.class))).thenReturn(fromBatch, fromFile);
+
+        aggregationService.generateDependencyGraph();
+
+        verify(dependencyService, never()).analyzeCodeDependencies("class A {}", "java");
+        verify(dependencyService).analyzeCodeDependencies("class B {}", "java");
+        verify(extractionCache).put("key-class A {}", List.of(Map.of("source", "A", "relation", "CALLS", "target", "B")));
+        verify(extractionCache).put("key-class B {}", fromFile);
+        verify(extractionCache, never()).put(eq("key-class B {}"), eq(List.of()));
+        assertEquals(List.of(
+                Map.of("source", "A", "relation", "CALLS", "target", "B"),
+                Map.of("source", "B", "relation", "CALLS", "target", "C")), readWrittenGraph().get("dependencies"));
+    }
+
+    private void enablePromptBatching() {
+        when(properties.isPromptBatchingEnabled()).thenReturn(true);
+        when(properties.getPromptBatchMaxChars()).thenReturn(1000);
+        when(properties.getPromptBatchMaxFileChars()).thenReturn(100);
+        when(properties.getPromptBatchMaxFiles()).thenReturn(10);
+        when(dependencyService.resolveMode("java")).thenReturn(ExtractionMode.LLM);
     }
 }
@@ -0,0 +1,142 @@
+package com.citi.impactanalyzer.parser.service;
+
+import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
+import com.citi.impactanalyzer.parser.domain.ExtractionMode;
+import com.citi.impactanalyzer.parser.exception.PartialExtractionException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DependencyExtractionServiceTest {
+
+    @Mock
+    PromptService promptService;
+    @Mock
+    DependencyAnalyzerProperties properties;
+
+    DependencyExtractionService extractionService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static final String RESOLVABLE = """
+            package com.app;
+            import com.app.model.Owner;
+            public class A extends Owner {}
+            """;
+
+    private static final String UNRESOLVABLE = """
+            package com.app;
+            import com.app.model.*;
+            public class A extends Owner {}
+            """;
+
+    @BeforeEach
+    void setUp() {
+        extractionService = new DependencyExtractionService(promptService, properties, new JavaAstDependencyExtractor(), mapper);
+        lenient().when(properties.getLanguages()).thenReturn(List.of("java", "python"));
+    }
+
+    @Test
+    void testResolveMode_DefaultsToLlm() {
+        when(properties.getExtractionModeForLanguage("java")).thenReturn(null);
+
+        assertEquals(ExtractionMode.LLM, extractionService.resolveMode("java"));
+        assertEquals(ExtractionMode.LLM, extractionService.resolveMode("python"));
+    }
+
+    @Test
+    void testAnalyzeCode_AstModeNeverCallsLlm() throws Exception {
+        when(properties.getExtractionModeForLanguage("java")).thenReturn("ast");
+
+        String json = extractionService.analyzeCodeDependencies(UNRESOLVABLE, "java");
+
+        verifyNoInteractions(promptService);
+        assertTrue(mapper.readValue(json, List.class).isEmpty());
+    }
+
+    @Test
+    void testAnalyzeCode_HybridSkipsLlmWhenResolved() throws Exception {
+        when(properties.getExtractionModeForLanguage("java")).thenReturn("hybrid");
+
+        String json = extractionService.analyzeCodeDependencies(RESOLVABLE, "java");
+
+        verifyNoInteractions(promptService);
+        List<?> deps = mapper.readValue(json, List.class);
+        assertTrue(deps.contains(Map.of("source", "com.app.A", "relation", "EXTENDS", "target", "com.app.model.Owner")));
+    }
+
+    @Test
+    void testAnalyzeCode_HybridMergesLlmOutputForUnresolvedTypes() throws Exception {
+        when(properties.getExtractionModeForLanguage("java")).thenReturn("hybrid");
+        when(promptService.analyzeCodeDependencies(anyString(), anyString())).thenReturn(
+                "```json\n[{\"source\":\"com.app.A\",\"relation\":\"EXTENDS\",\"target\":\"com.app.model.Owner\"}]\n```");
+
+        String json = extractionService.analyzeCodeDependencies(UNRESOLVABLE, "java");
+
+        verify(promptService, times(1)).analyzeCodeDependencies(UNRESOLVABLE, "java");
+        List<?> deps = mapper.readValue(json, List.class);
+        assertEquals(1, deps.size());
+    }
+
+    @Test
+    void testAnalyzeCode_LargeFileIsChunkedAndMerged() throws Exception {
+        when(properties.getChunkMaxChars()).thenReturn(40);
+        when(properties.getChunkWorkers()).thenReturn(2);
+        String code = "import a\nclass A:\n    def f(self): return B()\n    def g(self): return C()\n";
+        when(promptService.analyzeCodeDependencies(anyString(), eq("python"))).thenAnswer(inv -> {
+            String chunk = inv.getArgument(0);
+            String target = chunk.contains("C()") ? "C" : "B";
+            return "[{\"source\":\"A\",\"relation\":\"CALLS\",\"target\":\"" + target + "\"},"
+                    + "{\"source\":\"A\",\"relation\":\"IMPORTS\",\"target\":\"a\"}]";
+        });
+
+        String json = extractionService.analyzeCodeDependencies(code, "python");
+
+        verify(promptService, atLeast(2)).analyzeCodeDependencies(anyString(), eq("python"));
+        List<?> deps = mapper.readValue(json, List.class);
+        assertTrue(deps.contains(Map.of("source", "A", "relation", "CALLS", "target", "B")));
+        assertTrue(deps.contains(Map.of("source", "A", "relation", "CALLS", "target", "C")));
+        assertEquals(1, deps.stream().filter(d -> ((Map<?, ?>) d).get("relation").equals("IMPORTS")).count());
+    }
+
+    @Test
+    void testAnalyzeCode_HybridUnparseableLlmReplyIsPartial() throws Exception {
+        when(properties.getExtractionModeForLanguage("java")).thenReturn("hybrid");
+        when(promptService.analyzeCodeDependencies(anyString(), anyString())).thenReturn("no dependencies found");
+
+        PartialExtractionException e = assertThrows(PartialExtractionException.class,
+                () -> extractionService.analyzeCodeDependencies(UNRESOLVABLE, "java"));
+
+        assertNotNull(mapper.readValue(e.getPartialResult(), List.class));
+    }
+
+    @Test
+    void testAnalyzeCode_FailedChunkMakesResultPartial() throws Exception {
+        when(properties.getChunkMaxChars()).thenReturn(40);
+        when(properties.getChunkWorkers()).thenReturn(2);
+        String code = "import a\nclass A:\n    def f(self): return B()\n    def g(self): return C()\n";
+        when(promptService.analyzeCodeDependencies(anyString(), eq("python"))).thenAnswer(inv -> {
+            String chunk = inv.getArgument(0);
+            if (chunk.contains("C()")) throw new IllegalStateException("model unavailable");
+            return "[{\"source\":\"A\",\"relation\":\"CALLS\",\"target\":\"B\"}]";
+        });
+
+        PartialExtractionException e = assertThrows(PartialExtractionException.class,
+                () -> extractionService.analyzeCodeDependencies(code, "python"));
+
+        List<?> deps = mapper.readValue(e.getPartialResult(), List.class);
+        assertTrue(deps.contains(Map.of("source", "A", "relation", "CALLS", "target", "B")));
+    }
+}
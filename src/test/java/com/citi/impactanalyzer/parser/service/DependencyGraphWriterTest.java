@@ -0,0 +1,85 @@
+package com.citi.impactanalyzer.parser.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testJsonRoundTrip() throws Exception {
+        Path target = tempDir.resolve("out/graph.json");
+        try (DependencyGraphWriter writer = DependencyGraphWriter.open(target, DependencyGraphWriter.Format.JSON, false, "demo", "abc")) {
+            writer.write(List.of(Map.of("source", "A", "relation", "CALLS", "target", "B")));
+            writer.write(List.of(Map.of("source", "B", "relation", "CALLS", "target", "C")));
+            writer.commit();
+        }
+
+        assertTrue(Files.exists(target));
+        assertFalse(Files.exists(tempDir.resolve("out/graph.json.partial")));
+
+        List<JsonNode> entries = new ArrayList<>();
+        DependencyGraphReader.Header header = DependencyGraphReader.read(target, entries::add);
+        assertEquals("demo", header.getRepo());
+        assertEquals("abc", header.getCommit());
+        assertTrue(header.isComplete());
+        assertEquals(List.of("A", "B"), entries.stream().map(e -> e.get("source").asText()).toList());
+        assertEquals("abc", DependencyGraphReader.readHeader(target).getCommit());
+    }
+
+    @Test
+    void testGzipNdjsonRoundTrip() throws Exception {
+        Path target = tempDir.resolve("graph.ndjson.gz");
+        try (DependencyGraphWriter writer = DependencyGraphWriter.open(target, DependencyGraphWriter.Format.NDJSON, true, "demo", "abc")) {
+            writer.write(List.of(Map.of("source", "A", "relation", "CALLS", "target", "B"),
+                    Map.of("source", "B", "relation", "CALLS", "target", "C")));
+            writer.commit();
+        }
+
+        List<JsonNode> entries = new ArrayList<>();
+        DependencyGraphReader.Header header = DependencyGraphReader.read(target, entries::add);
+        assertEquals("abc", header.getCommit());
+        assertEquals(2, header.getEntryCount());
+        assertEquals("C", entries.get(1).get("target").asText());
+    }
+
+    @Test
+    void testUncommittedOutputIsReadableAndIncomplete() throws Exception {
+        Path target = tempDir.resolve("graph.json");
+        DependencyGraphWriter writer = DependencyGraphWriter.open(target, DependencyGraphWriter.Format.JSON, false, "demo", "abc");
+        writer.write(List.of(Map.of("source", "A", "relation", "CALLS", "target", "B")));
+        writer.close();
+
+        Path partial = tempDir.resolve("graph.json.partial");
+        assertFalse(Files.exists(target));
+        assertThrows(IOException.class, () -> DependencyGraphReader.read(partial, node -> { }));
+        List<JsonNode> entries = new ArrayList<>();
+        DependencyGraphReader.Header header = DependencyGraphReader.readPartial(partial, entries::add);
+        assertFalse(header.isComplete());
+        assertEquals(1, entries.size());
+    }
+
+    @Test
+    void testReadsBareArray() throws Exception {
+        Path file = tempDir.resolve("legacy.json");
+        Files.writeString(file, "[{\"source\":\"A\",\"relation\":\"CALLS\",\"target\":\"B\"}]");
+
+        List<JsonNode> entries = new ArrayList<>();
+        DependencyGraphReader.Header header = DependencyGraphReader.read(file, entries::add);
+        assertTrue(header.isComplete());
+        assertNull(header.getCommit());
+        assertEquals(1, entries.size());
+    }
+}
@@ -0,0 +1,113 @@
+package com.citi.impactanalyzer.parser.service;
+
+import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
+import com.citi.impactanalyzer.parser.domain.CodeFile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExtractionResultCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    DependencyAnalyzerProperties properties;
+
+    ExtractionResultCache cache;
+
+    private final CodeFile javaFile = new CodeFile(CodeFile.Type.CODE, "java", "class A {}", null);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(properties.isExtractionCacheEnabled()).thenReturn(true);
+        lenient().when(properties.getExtractionCacheDir()).thenReturn(tempDir.toString());
+        cache = new ExtractionResultCache(properties, new ObjectMapper());
+    }
+
+    @Test
+    void testKeyFor_DependsOnContentAndFingerprint() {
+        String key = cache.keyFor(javaFile, "class A {}", "HYBRID;ast=1");
+
+        assertEquals(key, cache.keyFor(javaFile, "class A {}", "HYBRID;ast=1"));
+        assertNotEquals(key, cache.keyFor(javaFile, "class B {}", "HYBRID;ast=1"));
+        assertNotEquals(key, cache.keyFor(javaFile, "class A {}", "LLM;ast=-"));
+    }
+
+    @Test
+    void testKeyFor_DisabledCacheReturnsNull() {
+        when(properties.isExtractionCacheEnabled()).thenReturn(false);
+
+        assertNull(cache.keyFor(javaFile, "class A {}", "LLM"));
+    }
+
+    @Test
+    void testPutThenGet_CountsHitsAndMisses() {
+        String key = cache.keyFor(javaFile, "class A {}", "LLM");
+        List<Object> deps = List.of(Map.of("source", "A", "relation", "CALLS", "target", "B"));
+
+        assertTrue(cache.get(key).isEmpty());
+        cache.put(key, deps);
+        Optional<List<Object>> cached = cache.get(key);
+
+        assertEquals(Optional.of(deps), cached);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testEvictIfNeeded_RemovesEntriesOverLimit() {
+        when(properties.getExtractionCacheMaxBytes()).thenReturn(1L);
+        String key = cache.keyFor(javaFile, "class A {}", "LLM");
+        cache.put(key, List.of(Map.of("source", "A")));
+
+        cache.evictIfNeeded();
+
+        assertTrue(cache.get(key).isEmpty());
+    }
+
+    @Test
+    void testPut_FailedWriteLeavesNoTemporaryFile() throws IOException {
+        String key = cache.keyFor(javaFile, "class A {}", "LLM");
+
+        // A plain Object has no properties, so serializing it fails
+        cache.put(key, List.of(new Object()));
+
+        assertTrue(cache.get(key).isEmpty());
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            assertTrue(paths.noneMatch(p -> p.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void testEvictIfNeeded_RemovesLeftoverTemporaryFiles() throws IOException {
+        when(properties.getExtractionCacheMaxBytes()).thenReturn(1_000_000L);
+        Path dir = Files.createDirectories(tempDir.resolve("ab"));
+        Path stale = Files.writeString(dir.resolve("ab12.tmp"), "[");
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis() - 2 * 60 * 60 * 1000L));
+        Path inProgress = Files.writeString(dir.resolve("ab34.tmp"), "[");
+
+        cache.evictIfNeeded();
+
+        assertFalse(Files.exists(stale));
+        assertTrue(Files.exists(inProgress));
+    }
+}
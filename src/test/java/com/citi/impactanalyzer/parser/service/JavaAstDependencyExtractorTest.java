@@ -0,0 +1,121 @@
+package com.citi.impactanalyzer.parser.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaAstDependencyExtractorTest {
+
+    private final JavaAstDependencyExtractor extractor = new JavaAstDependencyExtractor();
+
+    private static Map<String, String> triple(String source, String relation, String target) {
+        return Map.of("source", source, "relation", relation, "target", target);
+    }
+
+    @Test
+    void testExtract_StructuralAndUsageRelations() {
+        String code = """
+                package com.app.service;
+
+                import com.app.repo.OwnerRepository;
+                import com.app.model.Owner;
+                import org.springframework.stereotype.Service;
+
+                @Service
+                @Audited
+                public class OwnerService extends BaseService implements java.io.Serializable {
+                    private final OwnerRepository repository;
+
+                    public OwnerService(OwnerRepository repository) {
+                        this.repository = repository;
+                    }
+
+                    public Owner create() throws OwnerException {
+                        return new Owner();
+                    }
+                }
+                """;
+
+        JavaAstDependencyExtractor.Result result = extractor.extract(code);
+
+        assertTrue(result.isComplete());
+        List<Map<String, String>> deps = result.getDependencies();
+        String source = "com.app.service.OwnerService";
+        assertTrue(deps.contains(triple(source, "IMPORTS", "com.app.repo.OwnerRepository")));
+        assertTrue(deps.contains(triple(source, "EXTENDS", "com.app.service.BaseService")));
+        assertTrue(deps.contains(triple(source, "IMPLEMENTS", "java.io.Serializable")));
+        assertTrue(deps.contains(triple(source, "USES_TYPE", "com.app.repo.OwnerRepository")));
+        assertTrue(deps.contains(triple(source, "CALLS_CONSTRUCTOR", "com.app.model.Owner")));
+        assertTrue(deps.contains(triple(source, "THROWS", "com.app.service.OwnerException")));
+        assertTrue(deps.contains(triple(source, "ANNOTATED_WITH", "com.app.service.Audited")));
+    }
+
+    @Test
+    void testExtract_FiltersFrameworkTargetsForNonStructuralRelations() {
+        String code = """
+                package com.app;
+
+                import org.springframework.stereotype.Service;
+                import java.util.List;
+
+                @Service
+                public class A {
+                    private List<String> names;
+                }
+                """;
+
+        List<Map<String, String>> deps = extractor.extract(code).getDependencies();
+
+        assertTrue(deps.stream().noneMatch(d -> d.get("target").startsWith("org.springframework.")));
+        assertTrue(deps.stream().noneMatch(d -> d.get("target").startsWith("java.")));
+    }
+
+    @Test
+    void testExtract_NestedTypesAreTheirOwnSource() {
+        String code = """
+                package com.app;
+
+                public class Outer {
+                    static class Inner extends Base {
+                        private Helper helper;
+                    }
+                }
+                """;
+
+        List<Map<String, String>> deps = extractor.extract(code).getDependencies();
+
+        assertTrue(deps.contains(triple("com.app.Outer.Inner", "EXTENDS", "com.app.Base")));
+        assertTrue(deps.contains(triple("com.app.Outer.Inner", "USES_TYPE", "com.app.Helper")));
+        assertFalse(deps.contains(triple("com.app.Outer", "USES_TYPE", "com.app.Helper")));
+    }
+
+    @Test
+    void testExtract_WildcardImportLeavesTypesUnresolved() {
+        String code = """
+                package com.app;
+
+                import com.other.*;
+
+                public class A {
+                    private Widget widget;
+                }
+                """;
+
+        JavaAstDependencyExtractor.Result result = extractor.extract(code);
+
+        assertTrue(result.isParsed());
+        assertFalse(result.isComplete());
+        assertTrue(result.getUnresolvedTypes().contains("Widget"));
+    }
+
+    @Test
+    void testExtract_InvalidSource() {
+        JavaAstDependencyExtractor.Result result = extractor.extract("class {");
+
+        assertFalse(result.isParsed());
+        assertTrue(result.getDependencies().isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package com.citi.impactanalyzer.parser.service;
+
+import com.citi.impactanalyzer.parser.config.DependencyAnalyzerProperties;
+import com.citi.impactanalyzer.parser.domain.RepositoryChanges;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryCloneServiceTest {
+
+    @TempDir
+    Path repoDir;
+
+    @Mock
+    DependencyAnalyzerProperties properties;
+
+    @InjectMocks
+    RepositoryCloneService repositoryCloneService;
+
+    @Test
+    void testResolveHeadCommit_NotARepository() {
+        assertTrue(repositoryCloneService.resolveHeadCommit(repoDir).isEmpty());
+    }
+
+    @Test
+    void testDiffSince_ReportsModifiedAddedDeletedAndRenamedFiles() throws Exception {
+        try (Git git = Git.init().setDirectory(repoDir.toFile()).call()) {
+            Files.writeString(repoDir.resolve("A.java"), "class A {}");
+            Files.writeString(repoDir.resolve("B.java"), "class B { int x; int y; int z; }");
+            Files.writeString(repoDir.resolve("D.java"), "class D {}");
+            String first = commit(git, "first");
+
+            Files.writeString(repoDir.resolve("A.java"), "class A { int x; }");
+            Files.move(repoDir.resolve("B.java"), repoDir.resolve("C.java"));
+            Files.delete(repoDir.resolve("D.java"));
+            Files.writeString(repoDir.resolve("E.java"), "class E {}");
+            String second = commit(git, "second");
+
+            assertEquals(Optional.of(second), repositoryCloneService.resolveHeadCommit(repoDir));
+
+            RepositoryChanges changes = repositoryCloneService.diffSince(repoDir, first).orElseThrow();
+            assertEquals(Set.of("A.java", "C.java", "E.java"), changes.getChangedPaths());
+            assertEquals(Set.of("B.java", "D.java"), changes.getRemovedPaths());
+        }
+    }
+
+    @Test
+    void testDiffSince_UnknownCommit() throws Exception {
+        try (Git git = Git.init().setDirectory(repoDir.toFile()).call()) {
+            Files.writeString(repoDir.resolve("A.java"), "class A {}");
+            commit(git, "first");
+
+            assertTrue(repositoryCloneService.diffSince(repoDir, "0123456789abcdef0123456789abcdef01234567").isEmpty());
+        }
+    }
+
+    private String commit(Git git, String message) throws Exception {
+        git.add().addFilepattern(".").call();
+        git.add().setUpdate(true).addFilepattern(".").call();
+        return git.commit().setMessage(message).setAuthor("test", "test@example.com")
+                .setCommitter("test", "test@example.com").call().name();
+    }
+}
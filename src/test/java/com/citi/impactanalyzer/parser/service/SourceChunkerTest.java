@@ -0,0 +1,66 @@
+package com.citi.impactanalyzer.parser.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceChunkerTest {
+
+    private static final String JAVA = """
+            package com.app;
+            import com.app.x.Y;
+
+            @Service
+            public class Big {
+                private Y y;
+
+                /** a */
+                void a() { y.call(); }
+
+                void b() {
+                    new Z();
+                }
+            }
+            """;
+
+    @Test
+    void testChunkJava_SmallFileIsOneChunk() {
+        assertEquals(List.of(JAVA), SourceChunker.chunkJava(JAVA, 10_000));
+    }
+
+    @Test
+    void testChunkJava_SplitsAtMembersAndRepeatsHeader() {
+        List<String> chunks = SourceChunker.chunkJava(JAVA, 90);
+
+        assertEquals(3, chunks.size());
+        for (String chunk : chunks) {
+            assertTrue(chunk.startsWith("package com.app;\nimport com.app.x.Y;\n"), chunk);
+            assertTrue(chunk.contains("@Service\npublic class Big {"), chunk);
+            assertTrue(chunk.stripTrailing().endsWith("}"), chunk);
+        }
+        assertTrue(chunks.get(1).contains("/** a */\n    void a()"));
+        assertTrue(chunks.get(2).contains("new Z();"));
+    }
+
+    @Test
+    void testChunkSql_IgnoresSemicolonsInQuotesAndComments() {
+        String sql = "CREATE TABLE a (x int); -- c;\nINSERT INTO a VALUES ('x;y');\n/* ; */ SELECT * FROM a;\n";
+
+        List<String> chunks = SourceChunker.chunkSql(sql, 40);
+
+        assertEquals(3, chunks.size());
+        assertEquals(sql, String.join("", chunks) + "\n");
+        assertTrue(chunks.get(1).contains("('x;y');"));
+    }
+
+    @Test
+    void testChunkSql_SplitsOracleBlocksOnlyAtSlash() {
+        String sql = "CREATE PROCEDURE p AS BEGIN x; y; END;\n/\nCREATE PROCEDURE q AS BEGIN z; END;\n/\n";
+
+        List<String> chunks = SourceChunker.chunkSql(sql, 20);
+
+        assertEquals(List.of("CREATE PROCEDURE p AS BEGIN x; y; END;\n/\n", "CREATE PROCEDURE q AS BEGIN z; END;\n/\n"), chunks);
+    }
+}